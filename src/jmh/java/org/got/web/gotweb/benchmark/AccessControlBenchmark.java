@@ -0,0 +1,109 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentHierarchyIndex;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicyCompiler;
+import org.got.web.gotweb.security.evaluator.policy.CompiledConditionGroup;
+import org.got.web.gotweb.security.evaluator.routing.EndpointRoutingIndex;
+import org.got.web.gotweb.security.evaluator.service.AccessControlService;
+import org.got.web.gotweb.security.evaluator.service.ConditionEvaluator;
+import org.got.web.gotweb.security.jwt.JwtAuthenticationFilter;
+import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.repository.DepartmentRepository;
+import org.got.web.gotweb.user.repository.security.EndpointRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Décision d'accès : routage + évaluation du programme compilé ({@link AccessControlService#hasAccess}),
+ * et évaluation isolée d'un groupe de conditions ({@link ConditionEvaluator#evaluateConditionGroup}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AccessControlBenchmark {
+
+    private static final int REQUESTS = 1_024;
+
+    @Param({"10", "1000", "50000"})
+    public int endpoints;
+
+    @Param({"1", "50", "500"})
+    public int roles;
+
+    private AccessControlService accessControlService;
+    private ConditionEvaluator conditionEvaluator;
+    private RuleContext ruleContext;
+    private String[] methods;
+    private String[] urls;
+    private AccessConditionGroup conditionGroup;
+    private CompiledConditionGroup compiledConditionGroup;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Endpoint> fixtures = AuthorizationFixtures.endpoints(endpoints, 11L);
+        EndpointRepository endpointRepository = AuthorizationFixtures.repository(
+                EndpointRepository.class, Map.of("findAll", fixtures));
+        EndpointRoutingIndex routingIndex = new EndpointRoutingIndex(endpointRepository);
+        routingIndex.rebuild();
+
+        DepartmentRepository departmentRepository = AuthorizationFixtures.repository(
+                DepartmentRepository.class, Map.of("findParentLinks", AuthorizationFixtures.departmentLinks()));
+        DepartmentHierarchyIndex departmentHierarchy = new DepartmentHierarchyIndex(departmentRepository);
+        departmentHierarchy.rebuild();
+
+        conditionEvaluator = new ConditionEvaluator(departmentHierarchy);
+        accessControlService = new AccessControlService(routingIndex, conditionEvaluator);
+        ruleContext = new JwtAuthenticationFilter(null, null, null, null)
+                .buildRuleContext(AuthorizationFixtures.userClaims(42L, roles, 7L));
+
+        // Requêtes réparties sur l'ensemble des endpoints (plus quelques URL inconnues)
+        Random random = new Random(13L);
+        methods = new String[REQUESTS];
+        urls = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            Endpoint endpoint = fixtures.get(random.nextInt(fixtures.size()));
+            methods[i] = endpoint.getHttpMethod();
+            urls[i] = i % 64 == 0 ? "/api/v1/unknown/" + i : AuthorizationFixtures.requestUrl(endpoint, i);
+        }
+
+        conditionGroup = AuthorizationFixtures.conditionGroup(random, 1L);
+        compiledConditionGroup = AccessPolicyCompiler.compile(conditionGroup);
+    }
+
+    @Benchmark
+    public boolean hasAccess() {
+        int i = next++ & (REQUESTS - 1);
+        return accessControlService.hasAccess(methods[i], urls[i], ruleContext);
+    }
+
+    @Benchmark
+    public boolean evaluateCompiledConditionGroup() {
+        return conditionEvaluator.evaluateConditionGroup(compiledConditionGroup, ruleContext);
+    }
+
+    /**
+     * Chemin hors cache : compilation du groupe à chaque évaluation
+     */
+    @Benchmark
+    public boolean evaluateConditionGroup() {
+        return conditionEvaluator.evaluateConditionGroup(conditionGroup, ruleContext);
+    }
+}
@@ -0,0 +1,161 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.security.jwt.JwtTokens;
+import org.got.web.gotweb.user.domain.security.AccessCondition;
+import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
+import org.got.web.gotweb.user.domain.security.CriterionType;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.domain.security.EndpointStatus;
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+import org.got.web.gotweb.user.domain.security.Operator;
+import org.got.web.gotweb.user.repository.projection.DepartmentParentLink;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Jeux de données synthétiques et déterministes pour les benchmarks (aucune base ni réseau).
+ */
+final class AuthorizationFixtures {
+
+    static final int ROLE_IDS = 1_000;
+    static final int PERMISSION_IDS = 5_000;
+    static final int DEPARTMENT_IDS = 200;
+    static final int CONTEXT_IDS = 2_000;
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE"};
+    private static final String[] RESOURCES = {"users", "roles", "departments", "contexts", "permissions", "orders", "invoices", "reports"};
+
+    private AuthorizationFixtures() {
+    }
+
+    /**
+     * Endpoints répartis en modules, avec un mélange de patterns littéraux, variables et catch-all.
+     */
+    static List<Endpoint> endpoints(int count, long seed) {
+        Random random = new Random(seed);
+        List<Endpoint> endpoints = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String resource = RESOURCES[i % RESOURCES.length];
+            String pattern = switch (i % 5) {
+                case 0 -> "/api/v1/m" + i + "/" + resource;
+                case 1, 2 -> "/api/v1/m" + i + "/" + resource + "/{id}";
+                case 3 -> "/api/v1/m" + i + "/" + resource + "/{id}/items/{itemId}";
+                default -> "/api/v1/m" + i + "/" + resource + "/**";
+            };
+            endpoints.add(Endpoint.builder()
+                    .id((long) i + 1)
+                    .name("endpoint-" + i)
+                    .pattern(pattern)
+                    .httpMethod(METHODS[i % METHODS.length])
+                    .status(EndpointStatus.ACTIVE)
+                    .conditionGroups(conditionGroups(random))
+                    .globalCombinationOperator(LogicalOperator.OR)
+                    .build());
+        }
+        return endpoints;
+    }
+
+    /**
+     * URL concrète correspondant à l'endpoint d'indice donné.
+     */
+    static String requestUrl(Endpoint endpoint, int index) {
+        return endpoint.getPattern()
+                .replace("{id}", Integer.toString(index))
+                .replace("{itemId}", Integer.toString(index * 7))
+                .replace("**", "a/b");
+    }
+
+    static Set<AccessConditionGroup> conditionGroups(Random random) {
+        Set<AccessConditionGroup> groups = new HashSet<>();
+        int count = 1 + random.nextInt(3);
+        for (int g = 0; g < count; g++) {
+            groups.add(conditionGroup(random, g));
+        }
+        return groups;
+    }
+
+    static AccessConditionGroup conditionGroup(Random random, long id) {
+        List<AccessCondition> conditions = List.of(
+                condition(CriterionType.ROLE, Operator.ONE_OF, random, ROLE_IDS, 5),
+                condition(CriterionType.PERMISSION, Operator.ALL_OF, random, PERMISSION_IDS, 2),
+                condition(CriterionType.DEPARTMENT, Operator.NONE_OF, random, DEPARTMENT_IDS, 3),
+                condition(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, random, DEPARTMENT_IDS, 3),
+                condition(CriterionType.CONTEXT, Operator.ONE_OF, random, CONTEXT_IDS, 10));
+        return AccessConditionGroup.builder()
+                .id(id)
+                .conditions(conditions)
+                .combinationOperator(LogicalOperator.AND)
+                .build();
+    }
+
+    private static AccessCondition condition(CriterionType type, Operator operator, Random random, int bound, int size) {
+        StringJoiner values = new StringJoiner(",");
+        for (int i = 0; i < size; i++) {
+            values.add(Integer.toString(1 + random.nextInt(bound)));
+        }
+        return AccessCondition.builder()
+                .type(type)
+                .operator(operator)
+                .values(values.toString())
+                .negate(false)
+                .build();
+    }
+
+    /**
+     * Hiérarchie de {@code DEPARTMENT_IDS} départements : chaque département a quatre enfants (arbre complet de degré 4).
+     */
+    static List<DepartmentParentLink> departmentLinks() {
+        List<DepartmentParentLink> links = new ArrayList<>(DEPARTMENT_IDS);
+        for (long id = 1; id <= DEPARTMENT_IDS; id++) {
+            links.add(new DepartmentParentLink(id, id == 1 ? null : (id + 2) / 4));
+        }
+        return links;
+    }
+
+    /**
+     * Claims d'un utilisateur possédant {@code roles} affectations et environ quatre permissions par affectation.
+     */
+    static JwtTokens.UserClaims userClaims(long userId, int roles, long seed) {
+        Random random = new Random(seed);
+        List<String> roleClaims = new ArrayList<>(roles);
+        for (int i = 0; i < roles; i++) {
+            roleClaims.add("ROLE_" + (1 + random.nextInt(ROLE_IDS)) + ":"
+                    + (1 + random.nextInt(DEPARTMENT_IDS)) + ":" + (1 + random.nextInt(CONTEXT_IDS)));
+        }
+        Set<Integer> permissionIds = new HashSet<>();
+        while (permissionIds.size() < Math.min(roles * 4, PERMISSION_IDS)) {
+            permissionIds.add(1 + random.nextInt(PERMISSION_IDS));
+        }
+        List<String> permissionClaims = permissionIds.stream().map(id -> "PERM_" + id).toList();
+        return new JwtTokens.UserClaims(userId, "user" + userId, List.copyOf(roleClaims), permissionClaims);
+    }
+
+    /**
+     * Implémentation minimale d'un repository Spring Data : seules les méthodes fournies répondent,
+     * les autres retournent null (ou la valeur par défaut du type primitif).
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            Object result = results.get(method.getName());
+            if (result == null && method.getReturnType().isPrimitive()) {
+                return method.getReturnType() == boolean.class ? false : method.getReturnType() == long.class ? 0L : 0;
+            }
+            return result;
+        });
+    }
+}
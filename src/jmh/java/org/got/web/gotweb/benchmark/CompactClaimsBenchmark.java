@@ -0,0 +1,62 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.got.web.gotweb.security.jwt.CompactAccessClaims;
+import org.got.web.gotweb.security.jwt.JwtAuthenticationFilter;
+import org.got.web.gotweb.security.jwt.JwtTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Format des rôles et permissions d'un token : taille du claim (affichée au démarrage de chaque essai)
+ * et construction du RuleContext, à partir des chaînes "ROLE_r:d:c"/"PERM_p" ou du claim compact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class CompactClaimsBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int roles;
+
+    private JwtAuthenticationFilter filter;
+    private JwtTokens.UserClaims stringClaims;
+    private JwtTokens.UserClaims compactClaims;
+
+    @Setup
+    public void setUp() {
+        // Les dépendances du filtre ne sont pas utilisées par buildRuleContext
+        filter = new JwtAuthenticationFilter(null, null, null, null);
+        stringClaims = AuthorizationFixtures.userClaims(42L, roles, 7L);
+        String compact = CompactAccessClaims.encode(stringClaims.roles(), stringClaims.permissions());
+        compactClaims = CompactAccessClaims.toUserClaims(compact, stringClaims.userId(), stringClaims.username(), null);
+
+        // Taille JSON approximative des deux claims texte ("roles":[...],"permissions":[...]) face au claim compact
+        int stringsSize = stringClaims.roles().stream().mapToInt(role -> role.length() + 3).sum()
+                + stringClaims.permissions().stream().mapToInt(permission -> permission.length() + 3).sum() + 26;
+        System.out.printf("%n%d rôles, %d permissions : claims texte ~%d octets, claim compact %d octets%n",
+                stringClaims.roles().size(), stringClaims.permissions().size(), stringsSize, compact.length() + 8);
+    }
+
+    @Benchmark
+    public RuleContext decodeStrings() {
+        return filter.buildRuleContext(stringClaims);
+    }
+
+    @Benchmark
+    public RuleContext decodeCompact() {
+        return filter.buildRuleContext(compactClaims);
+    }
+}
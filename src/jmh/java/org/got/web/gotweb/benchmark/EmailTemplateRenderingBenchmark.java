@@ -0,0 +1,82 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.mail.config.MailConfig;
+import org.got.web.gotweb.mail.service.EmailTemplateCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'un email de vérification : Thymeleaf à chaque envoi, face au template pré-rendu dont seules
+ * les valeurs propres à l'utilisateur sont substituées.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class EmailTemplateRenderingBenchmark {
+
+    private static final String APP_NAME = "GOT ERP";
+    private static final String TEMPLATE = "email-verification";
+    private static final int USERS = 1_024;
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateCache templateCache;
+    private List<Map<String, Object>> variables;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MailConfig mailConfig = new MailConfig();
+        templateEngine = mailConfig.thymeleafTemplateEngine(mailConfig.thymeleafTemplateResolver());
+        templateCache = new EmailTemplateCache(templateEngine, APP_NAME);
+        variables = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            variables.add(variables(i));
+        }
+    }
+
+    @Benchmark
+    public String thymeleaf() {
+        Context context = new Context();
+        context.setVariables(nextVariables());
+        return templateEngine.process(TEMPLATE, context);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return templateCache.render(TEMPLATE, nextVariables());
+    }
+
+    private Map<String, Object> nextVariables() {
+        return variables.get(next++ & (USERS - 1));
+    }
+
+    private static Map<String, Object> variables(int index) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("username", "user" + index);
+        user.put("firstName", "Utilisateur" + index);
+        user.put("lastName", "Nom" + index);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("user", user);
+        variables.put("verificationUrl", "http://localhost:8080/verify-email?token=token-" + index);
+        variables.put("appName", APP_NAME);
+        return variables;
+    }
+}
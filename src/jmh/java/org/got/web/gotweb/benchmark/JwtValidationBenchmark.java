@@ -0,0 +1,129 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.security.jwt.JwtService;
+import org.got.web.gotweb.security.jwt.JwtTokens;
+import org.got.web.gotweb.security.jwt.RevokedTokenRegistry;
+import org.got.web.gotweb.security.jwt.RevokedTokenStore;
+import org.got.web.gotweb.security.jwt.SigningKey;
+import org.got.web.gotweb.security.jwt.SigningKeyRing;
+import org.got.web.gotweb.security.jwt.TokenRevocationEpochStore;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.got.web.gotweb.config.CacheConfig.CACHE_REVOKED_TOKENS;
+
+/**
+ * Validation d'un access token ({@link JwtService#validateToken}) :
+ * avec le cache des tokens vérifiés, et sans (vérification de signature et parsing des claims à chaque appel),
+ * pour chaque algorithme de signature supporté.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int roles;
+
+    @Param({"true", "false"})
+    public boolean verifiedTokenCache;
+
+    @Param({"RS512", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        JwtConfig jwtConfig = new JwtConfig(new DefaultResourceLoader());
+        jwtConfig.getVerifiedTokenCache().setMaximumSize(verifiedTokenCache ? 10_000L : 0L);
+
+        KeyPair keyPair = generateKeyPair(algorithm);
+        SigningKeyRing signingKeyRing = new SigningKeyRing(List.of(
+                SigningKey.of(algorithm, keyPair.getPrivate(), keyPair.getPublic(), null)));
+
+        RevokedTokenRegistry revokedTokenRegistry = new RevokedTokenRegistry(
+                new EmptyRevokedTokenStore(), jwtConfig, new CaffeineCacheManager(CACHE_REVOKED_TOKENS));
+        TokenRevocationEpochStore epochStore = new TokenRevocationEpochStore(
+                AuthorizationFixtures.repository(GotUserRepository.class, Map.of()), jwtConfig, event -> { });
+
+        jwtService = new JwtService(jwtConfig, signingKeyRing, revokedTokenRegistry, epochStore);
+        JwtTokens.UserClaims claims = AuthorizationFixtures.userClaims(42L, roles, 7L);
+        token = jwtService.generateTokenPair(claims.username(), claims).accessToken();
+    }
+
+    @Benchmark
+    public JwtTokens.TokenInfo validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    private static KeyPair generateKeyPair(String algorithm) throws GeneralSecurityException {
+        return switch (algorithm) {
+            case "ES256" -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                yield generator.generateKeyPair();
+            }
+            case "EdDSA" -> KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            default -> {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                yield generator.generateKeyPair();
+            }
+        };
+    }
+
+    /**
+     * Aucun token révoqué : le filtre de Bloom répond seul
+     */
+    private static final class EmptyRevokedTokenStore implements RevokedTokenStore {
+        @Override
+        public void save(JwtTokens.RevokedToken revokedToken) {
+        }
+
+        @Override
+        public Optional<JwtTokens.RevokedToken> find(String jti) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<JwtTokens.RevokedToken> findActive(Instant now) {
+            return List.of();
+        }
+
+        @Override
+        public List<JwtTokens.RevokedToken> findRevokedSince(Instant since, Instant now) {
+            return List.of();
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            return 0;
+        }
+    }
+}
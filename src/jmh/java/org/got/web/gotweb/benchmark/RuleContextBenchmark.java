@@ -0,0 +1,46 @@
+package org.got.web.gotweb.benchmark;
+
+import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.got.web.gotweb.security.jwt.JwtAuthenticationFilter;
+import org.got.web.gotweb.security.jwt.JwtTokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction du RuleContext à partir des claims d'un token ({@link JwtAuthenticationFilter#buildRuleContext}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RuleContextBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int roles;
+
+    private JwtAuthenticationFilter filter;
+    private JwtTokens.UserClaims claims;
+
+    @Setup
+    public void setUp() {
+        // Les dépendances du filtre ne sont pas utilisées par buildRuleContext
+        filter = new JwtAuthenticationFilter(null, null, null, null);
+        claims = AuthorizationFixtures.userClaims(42L, roles, 7L);
+    }
+
+    @Benchmark
+    public RuleContext buildRuleContext() {
+        return filter.buildRuleContext(claims);
+    }
+}
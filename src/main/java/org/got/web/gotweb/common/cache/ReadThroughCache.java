@@ -0,0 +1,93 @@
+package org.got.web.gotweb.common.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache en lecture traversante d'entités indexées par identifiant, adossé à un {@link Cache} Spring.
+ * *
+ * Les absences sont chargées depuis la source en un seul appel groupé (typiquement {@code findAllById}),
+ * puis mises en cache. Les entités retournées sont détachées : elles ne doivent être utilisées que pour leurs
+ * attributs simples et comme référence d'association, jamais modifiées ni parcourues sur leurs relations paresseuses.
+ *
+ * @param <E> type de l'entité
+ */
+public final class ReadThroughCache<E> {
+
+    private final Cache cache;
+    private final Class<E> type;
+    private final Function<Collection<Long>, List<E>> loader;
+    private final Function<E, Long> idExtractor;
+
+    /**
+     * @param cache cache sous-jacent (de préférence transactionnel, pour que les évictions suivent le commit)
+     * @param type type des valeurs mises en cache
+     * @param loader chargement groupé des identifiants absents du cache
+     * @param idExtractor identifiant d'une entité chargée
+     */
+    public ReadThroughCache(Cache cache, Class<E> type, Function<Collection<Long>, List<E>> loader, Function<E, Long> idExtractor) {
+        this.cache = cache;
+        this.type = type;
+        this.loader = loader;
+        this.idExtractor = idExtractor;
+    }
+
+    public Optional<E> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getAll(List.of(id)).get(id));
+    }
+
+    /**
+     * Récupère plusieurs entités : les présentes en cache, puis toutes les absentes en un seul chargement.
+     *
+     * @return les entités trouvées, dans l'ordre des identifiants demandés (les identifiants inconnus sont absents)
+     */
+    public Map<Long, E> getAll(Collection<Long> ids) {
+        Map<Long, E> found = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (id == null || found.containsKey(id)) {
+                continue;
+            }
+            E cached = cache.get(id, type);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                found.put(id, null);
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (E entity : loader.apply(misses)) {
+                Long id = idExtractor.apply(entity);
+                cache.put(id, entity);
+                found.put(id, entity);
+            }
+        }
+        found.values().removeIf(entity -> entity == null);
+        return found;
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            cache.evict(id);
+        }
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        ids.forEach(this::evict);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
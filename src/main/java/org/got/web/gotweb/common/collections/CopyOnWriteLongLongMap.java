@@ -0,0 +1,194 @@
+package org.got.web.gotweb.common.collections;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Table de hachage primitive long → long, optimisée pour des lectures fréquentes et des écritures rares.
+ * *
+ * Les lectures sont sans verrou et sans allocation : elles se font sur un instantané immuable
+ * (adressage ouvert, sondage linéaire). Chaque écriture copie l'instantané puis le publie atomiquement.
+ */
+public final class CopyOnWriteLongLongMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private volatile Table table = Table.EMPTY;
+
+    /**
+     * @return la valeur associée à la clé, ou {@code defaultValue} si elle est absente
+     */
+    public long get(long key, long defaultValue) {
+        return table.get(key, defaultValue);
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    /**
+     * Associe une valeur à une clé.
+     */
+    public synchronized void put(long key, long value) {
+        Table next = table.copy(table.size + 1);
+        next.putInPlace(key, value);
+        table = next;
+    }
+
+    /**
+     * Associe une valeur à une clé en la combinant avec la valeur existante (ex. {@link Math#max}).
+     */
+    public synchronized void merge(long key, long value, LongBinaryOperator remapping) {
+        Table current = table;
+        long merged = current.contains(key) ? remapping.applyAsLong(current.get(key, 0L), value) : value;
+        Table next = current.copy(current.size + 1);
+        next.putInPlace(key, merged);
+        table = next;
+    }
+
+    /**
+     * Combine plusieurs associations en une seule copie de l'instantané.
+     */
+    public synchronized void mergeAll(long[] keys, long[] values, LongBinaryOperator remapping) {
+        Table current = table;
+        Table next = current.copy(current.size + keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            long key = keys[i];
+            next.putInPlace(key, next.contains(key) ? remapping.applyAsLong(next.get(key, 0L), values[i]) : values[i]);
+        }
+        table = next;
+    }
+
+    /**
+     * Remplace tout le contenu en une seule publication (chargement initial).
+     */
+    public synchronized void replaceAll(long[] keys, long[] values) {
+        Table next = new Table(capacityFor(keys.length));
+        for (int i = 0; i < keys.length; i++) {
+            next.putInPlace(keys[i], values[i]);
+        }
+        table = next;
+    }
+
+    /**
+     * Supprime les entrées dont la valeur est strictement inférieure au seuil.
+     */
+    public synchronized void removeValuesBelow(long threshold) {
+        Table current = table;
+        Table next = new Table(capacityFor(current.size));
+        current.forEach((key, value) -> {
+            if (value >= threshold) {
+                next.putInPlace(key, value);
+            }
+        });
+        table = next;
+    }
+
+    private static int capacityFor(int size) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (size / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+
+    @FunctionalInterface
+    private interface LongLongConsumer {
+        void accept(long key, long value);
+    }
+
+    /**
+     * Instantané : la clé 0 sert de marqueur de case vide, elle est donc stockée à part.
+     */
+    private static final class Table {
+        private static final Table EMPTY = new Table(8);
+
+        private final long[] keys;
+        private final long[] values;
+        private final int mask;
+        private boolean hasZeroKey;
+        private long zeroValue;
+        private int size;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private long get(long key, long defaultValue) {
+            if (key == 0) {
+                return hasZeroKey ? zeroValue : defaultValue;
+            }
+            int i = slot(key, mask);
+            long k;
+            while ((k = keys[i]) != 0) {
+                if (k == key) return values[i];
+                i = (i + 1) & mask;
+            }
+            return defaultValue;
+        }
+
+        private boolean contains(long key) {
+            if (key == 0) {
+                return hasZeroKey;
+            }
+            int i = slot(key, mask);
+            long k;
+            while ((k = keys[i]) != 0) {
+                if (k == key) return true;
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        private void putInPlace(long key, long value) {
+            if (key == 0) {
+                if (!hasZeroKey) size++;
+                hasZeroKey = true;
+                zeroValue = value;
+                return;
+            }
+            int i = slot(key, mask);
+            long k;
+            while ((k = keys[i]) != 0) {
+                if (k == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private Table copy(int expectedSize) {
+            int capacity = Math.max(capacityFor(expectedSize), keys.length);
+            if (capacity == keys.length) {
+                Table copy = new Table(capacity);
+                System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+                System.arraycopy(values, 0, copy.values, 0, values.length);
+                copy.hasZeroKey = hasZeroKey;
+                copy.zeroValue = zeroValue;
+                copy.size = size;
+                return copy;
+            }
+            Table copy = new Table(capacity);
+            forEach(copy::putInPlace);
+            return copy;
+        }
+
+        private void forEach(LongLongConsumer consumer) {
+            if (hasZeroKey) {
+                consumer.accept(0L, zeroValue);
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.got.web.gotweb.common.pagination;
+
+import org.got.web.gotweb.exception.BusinessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Jeton de continuation opaque pour la pagination par curseur (keyset).
+ * *
+ * Le jeton encode le champ et la direction de tri ainsi que les valeurs de clé (champ de tri et identifiant)
+ * du dernier élément renvoyé. Chaque valeur est typée pour être rebindée telle quelle dans la requête suivante.
+ * Un jeton n'est valable que pour le tri avec lequel il a été émis.
+ */
+public final class KeysetCursor {
+
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_DATE_TIME = 5;
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encode la position de fin d'une fenêtre.
+     */
+    public static String encode(String sortBy, Sort.Direction direction, KeysetScrollPosition position) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortBy);
+            out.writeBoolean(direction.isAscending());
+            Map<String, Object> keys = position.getKeys();
+            out.writeByte(keys.size());
+            for (Map.Entry<String, Object> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                writeValue(out, key.getKey(), key.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Décode un jeton en position de reprise, après avoir vérifié qu'il correspond au tri demandé.
+     * Un jeton absent correspond au début du parcours.
+     */
+    public static KeysetScrollPosition decode(String cursor, String sortBy, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("version non supportée");
+            }
+            String tokenSortBy = in.readUTF();
+            boolean ascending = in.readBoolean();
+            if (!tokenSortBy.equals(sortBy) || ascending != direction.isAscending()) {
+                throw new InvalidCursorException("le tri ne correspond pas à celui du jeton");
+            }
+            int size = in.readUnsignedByte();
+            Map<String, Object> keys = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                keys.put(in.readUTF(), readValue(in));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("jeton illisible");
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, String key, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(TYPE_NULL);
+            case String s -> {
+                out.writeByte(TYPE_STRING);
+                out.writeUTF(s);
+            }
+            case Long l -> {
+                out.writeByte(TYPE_LONG);
+                out.writeLong(l);
+            }
+            case Integer i -> {
+                out.writeByte(TYPE_INTEGER);
+                out.writeInt(i);
+            }
+            case Boolean b -> {
+                out.writeByte(TYPE_BOOLEAN);
+                out.writeBoolean(b);
+            }
+            case LocalDateTime dateTime -> {
+                out.writeByte(TYPE_DATE_TIME);
+                out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(dateTime.getNano());
+            }
+            default -> throw new InvalidCursorException("le champ " + key + " ne peut pas servir de clé de pagination");
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STRING -> in.readUTF();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_INTEGER -> in.readInt();
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_DATE_TIME -> LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            default -> throw new InvalidCursorException("type de valeur inconnu");
+        };
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class InvalidCursorException extends BusinessException {
+        public InvalidCursorException(String reason) {
+            super("Jeton de pagination invalide : " + reason);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.got.web.gotweb.common.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page d'une pagination par curseur : pas de total, seulement le jeton de la page suivante.
+ *
+ * @param next jeton à renvoyer pour obtenir la page suivante (null s'il n'y en a pas)
+ */
+public record KeysetPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String next
+) {
+    public static <T> KeysetPage<T> of(Window<T> window, String sortBy, Sort.Direction direction) {
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            next = KeysetCursor.encode(sortBy, direction, position);
+        }
+        return new KeysetPage<>(window.getContent(), window.size(), window.hasNext(), next);
+    }
+
+    /**
+     * Transforme le contenu en conservant le jeton de la page suivante.
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(content.stream().<R>map(mapper).toList(), size, hasNext, next);
+    }
+}
@@ -0,0 +1,61 @@
+package org.got.web.gotweb.common.pagination;
+
+import org.got.web.gotweb.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Pagination par curseur (keyset) sur une {@link Specification}.
+ * *
+ * Le tri demandé est complété par l'identifiant pour garantir un ordre total, et la page suivante
+ * est obtenue par {@code WHERE (sortKey, id) > (:dernierSortKey, :dernierId)} : ni {@code OFFSET} ni {@code count(*)},
+ * le coût d'une page reste constant quelle que soit sa profondeur.
+ * *
+ * Seuls les champs déclarés triables par l'appelant sont acceptés, et ils doivent être non nuls :
+ * la comparaison de tuples ignore les lignes dont la clé est {@code NULL}, le parcours s'arrêterait au premier trou.
+ * Le champ est vérifié avant la requête, pas au moment d'encoder le jeton.
+ */
+public final class KeysetScroller {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String ID = "id";
+
+    private KeysetScroller() {
+    }
+
+    public static <E, D> KeysetPage<D> scroll(JpaSpecificationExecutor<E> repository,
+                                              Specification<E> specification,
+                                              Set<String> sortableFields,
+                                              String sortBy,
+                                              Sort.Direction direction,
+                                              int size,
+                                              String cursor,
+                                              Function<E, D> mapper) {
+        if (!ID.equals(sortBy) && !sortableFields.contains(sortBy)) {
+            throw new UnsupportedSortException(sortBy, sortableFields);
+        }
+        Sort sort = ID.equals(sortBy) ? Sort.by(direction, ID) : Sort.by(direction, sortBy).and(Sort.by(direction, ID));
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Window<E> window = repository.findBy(specification, query -> query
+                .sortBy(sort)
+                .limit(limit)
+                .scroll(KeysetCursor.decode(cursor, sortBy, direction)));
+        return KeysetPage.of(window.map(mapper), sortBy, direction);
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class UnsupportedSortException extends BusinessException {
+        public UnsupportedSortException(String sortBy, Set<String> sortableFields) {
+            super("Tri par curseur impossible sur le champ " + sortBy + " (champs acceptés : id, "
+                    + String.join(", ", sortableFields.stream().sorted().toList()) + ")");
+        }
+    }
+}
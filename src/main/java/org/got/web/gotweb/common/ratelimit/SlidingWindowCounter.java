@@ -0,0 +1,128 @@
+package org.got.web.gotweb.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur d'événements par clé sur une fenêtre glissante, sans verrou.
+ * *
+ * Chaque clé possède un {@link AtomicLong} combinant l'index de la fenêtre fixe courante (32 bits de poids fort),
+ * le compteur de la fenêtre précédente et celui de la fenêtre courante (16 bits chacun, saturés), mis à jour par CAS.
+ * L'estimation pondère la fenêtre précédente par sa part restant dans la fenêtre glissante :
+ * {@code courant + précédent × (1 - écoulé / fenêtre)}. Elle n'augmente jamais de plus d'une unité par événement.
+ * *
+ * Les compteurs sont rangés dans une table Caffeine bornée : les clés vues une seule fois (noms d'utilisateur aléatoires
+ * d'une attaque par dictionnaire) sont évincées en priorité, et une clé inactive depuis deux fenêtres est oubliée.
+ * Une clé évincée repart de zéro : sous une cardinalité extrême, le compteur sous-estime plutôt que de bloquer à tort.
+ */
+public final class SlidingWindowCounter {
+
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    private static final long COUNT_MASK = 0xFFFFL;
+
+    private final long windowMillis;
+    private final Cache<String, AtomicLong> counters;
+
+    /**
+     * @param window durée de la fenêtre glissante
+     * @param maximumKeys nombre maximal de clés suivies simultanément
+     */
+    public SlidingWindowCounter(Duration window, long maximumKeys) {
+        if (window.toMillis() <= 0 || maximumKeys <= 0) {
+            throw new IllegalArgumentException("Dimensions du compteur invalides");
+        }
+        this.windowMillis = window.toMillis();
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(window.multipliedBy(2))
+                .build();
+    }
+
+    /**
+     * Compte un événement pour la clé.
+     *
+     * @return l'estimation du nombre d'événements de la clé sur la fenêtre, événement courant inclus
+     */
+    public long incrementAndEstimate(String key, long nowMillis) {
+        AtomicLong counter = counters.get(key, k -> new AtomicLong());
+        long index = nowMillis / windowMillis;
+        long current;
+        long next;
+        do {
+            current = counter.get();
+            long advanced = advance(current, index);
+            next = (advanced & COUNT_MASK) == COUNT_MASK ? advanced : advanced + 1;
+        } while (!counter.compareAndSet(current, next));
+        return estimate(next, nowMillis);
+    }
+
+    /**
+     * @return l'estimation du nombre d'événements de la clé sur la fenêtre
+     */
+    public long estimate(String key, long nowMillis) {
+        AtomicLong counter = counters.getIfPresent(key);
+        return counter == null ? 0 : estimate(advance(counter.get(), nowMillis / windowMillis), nowMillis);
+    }
+
+    /**
+     * Calcule, à partir de l'état courant et sans nouvel événement, le délai avant que l'estimation repasse sous la limite.
+     *
+     * @return le délai en millisecondes avant que l'estimation de la clé soit inférieure à {@code limit}, 0 si elle l'est déjà
+     */
+    public long millisUntilBelow(String key, long limit, long nowMillis) {
+        AtomicLong counter = counters.getIfPresent(key);
+        if (counter == null) {
+            return 0;
+        }
+        long state = advance(counter.get(), nowMillis / windowMillis);
+        long previous = (state >>> 16) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+        long remaining = windowMillis - nowMillis % windowMillis;
+        if (current < limit) {
+            // La part de la fenêtre précédente décroît jusqu'à la fin de la fenêtre courante
+            return Math.max(0, remaining - maxRemainingBelow(previous, limit - current));
+        }
+        // La fenêtre courante devient la précédente et décroît à son tour
+        return remaining + windowMillis - maxRemainingBelow(current, limit);
+    }
+
+    /**
+     * Oublie les événements de la clé.
+     */
+    public void reset(String key) {
+        counters.invalidate(key);
+    }
+
+    /**
+     * Fait glisser l'état jusqu'à la fenêtre fixe {@code index}.
+     */
+    private static long advance(long state, long index) {
+        long stored = state >>> 32;
+        long target = index & INDEX_MASK;
+        if (stored == target) {
+            return state;
+        }
+        long previous = stored == ((index - 1) & INDEX_MASK) ? state & COUNT_MASK : 0;
+        return target << 32 | previous << 16;
+    }
+
+    /**
+     * @return la plus grande durée restante (ms) pour laquelle {@code weight × restant / fenêtre} reste inférieur à {@code margin}
+     */
+    private long maxRemainingBelow(long weight, long margin) {
+        if (weight == 0) {
+            return windowMillis;
+        }
+        return Math.min(windowMillis, Math.ceilDiv(margin * windowMillis, weight) - 1);
+    }
+
+    private long estimate(long state, long nowMillis) {
+        long previous = (state >>> 16) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+        long remaining = windowMillis - nowMillis % windowMillis;
+        return current + previous * remaining / windowMillis;
+    }
+}
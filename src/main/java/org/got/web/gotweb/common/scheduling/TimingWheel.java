@@ -0,0 +1,118 @@
+package org.got.web.gotweb.common.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hachée : planification en O(1) d'un grand nombre d'échéances, à la granularité d'un tick.
+ * *
+ * Chaque échéance est rangée dans le compartiment {@code tick % slots} ; une échéance située au-delà d'un tour
+ * de roue reste dans son compartiment jusqu'au tour où son tick est atteint.
+ * {@link #schedule} peut être appelé depuis n'importe quel thread (file sans verrou) ;
+ * {@link #advance} doit être appelé par un seul thread, qui seul manipule les compartiments.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final int mask;
+    private final List<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param slots nombre de compartiments, arrondi à la puissance de deux supérieure
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, int slots, Instant origin) {
+        this.tickMillis = tick.toMillis();
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("La durée d'un tick doit être d'au moins une milliseconde");
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.mask = capacity - 1;
+        this.buckets = new List[capacity];
+        for (int i = 0; i < capacity; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.originMillis = origin.toEpochMilli();
+    }
+
+    /**
+     * Planifie un élément. Une échéance déjà passée expire au prochain {@link #advance}.
+     */
+    public void schedule(Instant deadline, T item) {
+        pending.add(new Entry<>(deadline.toEpochMilli(), item));
+    }
+
+    /**
+     * Avance la roue jusqu'à {@code now} et transmet les éléments arrivés à échéance.
+     */
+    public void advance(Instant now, Consumer<T> expired) {
+        transferPending();
+        long targetTick = Math.floorDiv(now.toEpochMilli() - originMillis, tickMillis);
+        if (targetTick < currentTick) {
+            return;
+        }
+        if (targetTick - currentTick > mask) {
+            // Retard supérieur à un tour de roue : un seul balayage de tous les compartiments suffit
+            for (List<Entry<T>> bucket : buckets) {
+                expire(bucket, targetTick, expired);
+            }
+        } else {
+            for (long tick = currentTick; tick <= targetTick; tick++) {
+                expire(buckets[(int) (tick & mask)], targetTick, expired);
+            }
+        }
+        currentTick = targetTick + 1;
+    }
+
+    /**
+     * @return le nombre d'éléments planifiés (hors éléments en attente de transfert)
+     */
+    public int size() {
+        return size;
+    }
+
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            // Arrondi au tick supérieur : un élément n'expire jamais avant son échéance
+            long tick = Math.max(currentTick, Math.floorDiv(entry.deadlineMillis - originMillis + tickMillis - 1, tickMillis));
+            entry.tick = tick;
+            buckets[(int) (tick & mask)].add(entry);
+            size++;
+        }
+    }
+
+    private void expire(List<Entry<T>> bucket, long targetTick, Consumer<T> expired) {
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Entry<T> entry = bucket.get(i);
+            if (entry.tick <= targetTick) {
+                int last = bucket.size() - 1;
+                bucket.set(i, bucket.get(last));
+                bucket.remove(last);
+                size--;
+                expired.accept(entry.item);
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        private final long deadlineMillis;
+        private final T item;
+        private long tick;
+
+        private Entry(long deadlineMillis, T item) {
+            this.deadlineMillis = deadlineMillis;
+            this.item = item;
+        }
+    }
+}
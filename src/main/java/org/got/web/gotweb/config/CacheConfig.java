@@ -12,7 +12,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -35,13 +37,13 @@ public class CacheConfig {
     public static final String CACHE_CONTEXTS = "contexts";
 
     private static final List<String> CACHE_NAMES = Arrays.asList(
-            CACHE_REVOKED_TOKENS
+            CACHE_REVOKED_TOKENS,
 //            CACHE_USER_PERMISSIONS,
 //            CACHE_USER_ROLES,
-//            CACHE_ROLES,
-//            CACHE_PERMISSIONS,
-//            CACHE_DEPARTMENTS,
-//            CACHE_CONTEXTS
+            CACHE_ROLES,
+            CACHE_PERMISSIONS,
+            CACHE_DEPARTMENTS,
+            CACHE_CONTEXTS
     );
 
     @Getter
@@ -56,6 +58,11 @@ public class CacheConfig {
 
     private CaffeineProperties caffeine = new CaffeineProperties();
 
+    /**
+     * Dimensionnement propre à certains caches (clé = nom du cache), à la place de la configuration {@code caffeine} commune
+     */
+    private Map<String, CaffeineProperties> caches = new HashMap<>();
+
     @Bean
     @Primary
     public CacheManager cacheManager() {
@@ -63,15 +70,20 @@ public class CacheConfig {
         cacheManager.setCacheNames(CACHE_NAMES);
         cacheManager.setCaffeine(caffeineCacheBuilder());
         cacheManager.setAllowNullValues(false);
+        caches.forEach((name, properties) -> cacheManager.registerCustomCache(name, caffeineCacheBuilder(properties).build()));
         return cacheManager;
     }
 
     private Caffeine<Object, Object> caffeineCacheBuilder() {
+        return caffeineCacheBuilder(caffeine);
+    }
+
+    private static Caffeine<Object, Object> caffeineCacheBuilder(CaffeineProperties properties) {
         return Caffeine.newBuilder()
-                .initialCapacity(caffeine.getInitialCapacity())
-                .maximumSize(caffeine.getMaximumSize())
-                .expireAfterWrite(caffeine.getExpireAfterWrite(), TimeUnit.MILLISECONDS)
-                .expireAfterAccess(caffeine.getExpireAfterAccess(), TimeUnit.MILLISECONDS)
+                .initialCapacity(properties.getInitialCapacity())
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite(), TimeUnit.MILLISECONDS)
+                .expireAfterAccess(properties.getExpireAfterAccess(), TimeUnit.MILLISECONDS)
                 .recordStats();
     }
 }
@@ -0,0 +1,12 @@
+package org.got.web.gotweb.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées ({@code @Scheduled}) de l'application
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
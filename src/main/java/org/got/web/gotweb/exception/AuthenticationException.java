@@ -1,5 +1,7 @@
 package org.got.web.gotweb.exception;
 
+import lombok.Getter;
+
 /**
  * Exception personnalisée pour les erreurs d'authentification
  */
@@ -13,4 +15,17 @@ public class AuthenticationException extends RuntimeException {
     public AuthenticationException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Tentative de connexion rejetée par la limitation, avant toute vérification des identifiants
+     */
+    @Getter
+    public static class TooManyAttemptsException extends AuthenticationException {
+        private final long retryAfterSeconds;
+
+        public TooManyAttemptsException(long retryAfterSeconds) {
+            super("Trop de tentatives de connexion, réessayez plus tard");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
 }
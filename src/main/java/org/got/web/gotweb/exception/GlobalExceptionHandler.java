@@ -1,6 +1,7 @@
 package org.got.web.gotweb.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -35,6 +36,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
     }
 
+    @ExceptionHandler(TechnicalException.ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleServiceUnavailableException(TechnicalException.ServiceUnavailableException ex) {
+        log.warn("Service saturé : {}", ex.getMessage());
+        ApiError error = buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()).getBody();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     @ResponseStatus(HttpStatus.UNAUTHORIZED)
     public ResponseEntity<ApiError> handleAuthenticationException(AuthenticationException ex) {
@@ -42,6 +52,15 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
+    @ExceptionHandler(AuthenticationException.TooManyAttemptsException.class)
+    public ResponseEntity<ApiError> handleTooManyAttemptsException(AuthenticationException.TooManyAttemptsException ex) {
+        log.warn("Tentative de connexion rejetée : {}", ex.getMessage());
+        ApiError error = buildErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()).getBody();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(value = { ForbiddenException.class, AccessDeniedException.class })
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ResponseEntity<ApiError> handleAccessDeniedException(AccessDeniedException ex) {
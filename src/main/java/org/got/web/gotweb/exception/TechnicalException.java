@@ -1,5 +1,6 @@
 package org.got.web.gotweb.exception;
 
+import lombok.Getter;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
@@ -13,4 +14,18 @@ public class TechnicalException extends RuntimeException {
     public TechnicalException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * Ressource interne saturée : la demande est rejetée immédiatement plutôt que mise en attente
+     */
+    @Getter
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class ServiceUnavailableException extends TechnicalException {
+        private final long retryAfterSeconds;
+
+        public ServiceUnavailableException(String message, long retryAfterSeconds) {
+            super(message);
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
 }
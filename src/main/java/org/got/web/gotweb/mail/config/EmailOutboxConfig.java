@@ -0,0 +1,24 @@
+package org.got.web.gotweb.mail.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration de l'envoi asynchrone des emails (outbox)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.email.outbox")
+@Getter
+@Setter
+public class EmailOutboxConfig {
+    private int workers = 4; // Connexions SMTP simultanées
+    private int batchSize = 100; // Messages réservés par cycle
+    private int messagesPerConnection = 20; // Messages envoyés sur une même connexion SMTP
+    private long pollInterval = 5000L; // 5 secondes
+    private long leaseDuration = 300000L; // 5 minutes : délai avant reprise d'un message réservé par un nœud arrêté
+    private int maxAttempts = 8;
+    private long initialBackoff = 30000L; // 30 secondes, doublé à chaque échec
+    private long maxBackoff = 3600000L; // 1 heure
+}
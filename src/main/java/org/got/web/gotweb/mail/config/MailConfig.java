@@ -59,6 +59,9 @@ public class MailConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode("HTML");
         templateResolver.setCharacterEncoding("UTF-8");
+        // Templates analysés une seule fois puis conservés sans expiration
+        templateResolver.setCacheable(true);
+        templateResolver.setCacheTTLMs(null);
         return templateResolver;
     }
 
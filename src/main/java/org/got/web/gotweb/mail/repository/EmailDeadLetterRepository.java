@@ -0,0 +1,9 @@
+package org.got.web.gotweb.mail.repository;
+
+import org.got.web.gotweb.mail.domain.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
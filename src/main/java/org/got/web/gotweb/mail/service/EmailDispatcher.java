@@ -0,0 +1,168 @@
+package org.got.web.gotweb.mail.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.mail.config.EmailOutboxConfig;
+import org.got.web.gotweb.mail.domain.EmailOutboxMessage;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Consomme l'outbox des emails hors des transactions métier.
+ * *
+ * Les messages réservés sont découpés en lots envoyés chacun sur une seule connexion SMTP
+ * ({@link JavaMailSender#send(MimeMessage...)}), par des threads virtuels dont le nombre simultané
+ * est borné par {@code app.email.outbox.workers}. Un cycle est déclenché après chaque transaction ajoutant
+ * un email, et périodiquement pour les nouvelles tentatives.
+ */
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+    private final EmailOutboxService outboxService;
+    private final EmailService emailService;
+    private final JavaMailSender emailSender;
+    private final EmailOutboxConfig config;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore connections;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public EmailDispatcher(EmailOutboxService outboxService, EmailService emailService,
+                           JavaMailSender emailSender, EmailOutboxConfig config) {
+        this.outboxService = outboxService;
+        this.emailService = emailService;
+        this.emailSender = emailSender;
+        this.config = config;
+        this.connections = new Semaphore(Math.max(1, config.getWorkers()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Le cycle est confié à l'exécuteur du dispatcher : un serveur SMTP lent ne doit pas bloquer le planificateur
+     * partagé par les autres tâches ({@code @Scheduled}).
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-interval:5000}")
+    public void poll() {
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Envoie les messages dus jusqu'à épuisement. Un seul cycle s'exécute à la fois sur ce nœud.
+     */
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<EmailOutboxMessage> batch;
+            while (!(batch = outboxService.claim()).isEmpty()) {
+                dispatch(batch);
+            }
+        } catch (Exception e) {
+            log.error("Erreur lors du traitement de l'outbox des emails", e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void dispatch(List<EmailOutboxMessage> batch) throws InterruptedException {
+        int chunkSize = Math.max(1, config.getMessagesPerConnection());
+        List<Future<?>> pending = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<EmailOutboxMessage> chunk = batch.subList(from, Math.min(from + chunkSize, batch.size()));
+            connections.acquire();
+            pending.add(executor.submit(() -> {
+                try {
+                    send(chunk);
+                } finally {
+                    connections.release();
+                }
+            }));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Erreur lors de l'envoi d'un lot d'emails", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Envoie un lot sur une même connexion SMTP puis enregistre le résultat de chaque message.
+     */
+    private void send(List<EmailOutboxMessage> chunk) {
+        Map<MimeMessage, EmailOutboxMessage> messages = new IdentityHashMap<>(chunk.size());
+        for (EmailOutboxMessage message : chunk) {
+            try {
+                messages.put(emailService.buildMessage(message.getRecipient(), message.getSubject(),
+                        message.getTemplate(), outboxService.readVariables(message.getVariables())), message);
+            } catch (Exception e) {
+                outboxService.markFailed(message.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            emailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(messages, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(messages, e);
+        }
+
+        List<Long> sent = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, EmailOutboxMessage> entry : messages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                outboxService.markFailed(entry.getValue().getId(), failure);
+            }
+        }
+        outboxService.markSent(sent);
+        log.info("{} emails envoyés, {} en échec", sent.size(), messages.size() - sent.size());
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, EmailOutboxMessage> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>(messages.size());
+        messages.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.got.web.gotweb.mail.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.exception.TechnicalException;
+import org.got.web.gotweb.mail.config.EmailOutboxConfig;
+import org.got.web.gotweb.mail.domain.EmailDeadLetter;
+import org.got.web.gotweb.mail.domain.EmailOutboxMessage;
+import org.got.web.gotweb.mail.repository.EmailDeadLetterRepository;
+import org.got.web.gotweb.mail.repository.EmailOutboxRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gestion de l'outbox des emails : enregistrement des intentions d'envoi, réservation des messages à envoyer,
+ * et suivi des résultats (suppression, nouvelle tentative avec backoff exponentiel ou dead letter).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private static final TypeReference<Map<String, Object>> VARIABLES_TYPE = new TypeReference<>() {};
+    private static final int ERROR_MAX_LENGTH = 1024;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final EmailOutboxConfig config;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Enregistre un email à envoyer dans la transaction courante.
+     * L'envoi n'a lieu qu'après validation : un rollback annule aussi l'email.
+     */
+    @Transactional
+    public EmailOutboxMessage enqueue(String to, String subject, String template, Map<String, Object> variables) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = outboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(to)
+                .subject(subject)
+                .template(template)
+                .variables(writeVariables(variables))
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        eventPublisher.publishEvent(new EmailQueuedEvent(message.getId()));
+        return message;
+    }
+
+    /**
+     * Réserve les prochains messages à envoyer : leur prochaine tentative est repoussée de la durée du bail,
+     * ce qui les rend invisibles aux autres nœuds et permet leur reprise si ce nœud s'arrête.
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxRepository.lockDueIds(now, config.getBatchSize());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        outboxRepository.lease(ids, now.plus(Duration.ofMillis(config.getLeaseDuration())));
+        return outboxRepository.findAllById(ids);
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboxRepository.deleteAllByIdInBatch(ids);
+        }
+    }
+
+    /**
+     * Planifie une nouvelle tentative avec un délai exponentiel, ou déplace le message en dead letter
+     * une fois le nombre maximal de tentatives atteint.
+     */
+    @Transactional
+    public void markFailed(Long id, Throwable error) {
+        outboxRepository.findById(id).ifPresent(message -> {
+            int attempts = message.getAttempts() + 1;
+            String lastError = truncate(error);
+            LocalDateTime now = LocalDateTime.now();
+            if (attempts >= config.getMaxAttempts()) {
+                deadLetterRepository.save(EmailDeadLetter.builder()
+                        .recipient(message.getRecipient())
+                        .subject(message.getSubject())
+                        .template(message.getTemplate())
+                        .variables(message.getVariables())
+                        .attempts(attempts)
+                        .lastError(lastError)
+                        .createdAt(message.getCreatedAt())
+                        .failedAt(now)
+                        .build());
+                outboxRepository.delete(message);
+                log.error("Email à {} abandonné après {} tentatives : {}", message.getRecipient(), attempts, lastError);
+                return;
+            }
+            message.setAttempts(attempts);
+            message.setLastError(lastError);
+            message.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMillis(attempts))));
+            log.warn("Échec de l'envoi de l'email à {} (tentative {}) : {}", message.getRecipient(), attempts, lastError);
+        });
+    }
+
+    public Map<String, Object> readVariables(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, VARIABLES_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new TechnicalException("Variables d'email illisibles", e);
+        }
+    }
+
+    private String writeVariables(Map<String, Object> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new TechnicalException("Impossible de sérialiser les variables de l'email", e);
+        }
+    }
+
+    private long backoffMillis(int attempts) {
+        long delay = config.getInitialBackoff() << Math.min(attempts - 1, 30);
+        return Math.min(delay, config.getMaxBackoff());
+    }
+
+    private static String truncate(Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        return message.length() > ERROR_MAX_LENGTH ? message.substring(0, ERROR_MAX_LENGTH) : message;
+    }
+}
@@ -0,0 +1,9 @@
+package org.got.web.gotweb.mail.service;
+
+/**
+ * Publié lorsqu'un email est ajouté à l'outbox, pour déclencher l'envoi dès la validation de la transaction.
+ *
+ * @param messageId ID du message dans l'outbox
+ */
+public record EmailQueuedEvent(Long messageId) {
+}
@@ -9,20 +9,24 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Service d'envoi des emails applicatifs.
+ * Les emails sont enregistrés dans l'outbox ({@link EmailOutboxService}) dans la transaction appelante,
+ * puis rendus et envoyés de manière asynchrone par {@link EmailDispatcher}.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
     private final JavaMailSender emailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailTemplateCache templateCache;
+    private final EmailOutboxService outboxService;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -38,7 +42,7 @@ public class EmailService {
         String template = "email-verification";
         
         Map<String, Object> variables = new HashMap<>();
-        variables.put("user", user);
+        variables.put("user", userVariables(user));
         variables.put("verificationUrl", appUrl + "/verify-email?token=" + token);
         variables.put("appName", appName);
 
@@ -50,7 +54,7 @@ public class EmailService {
         String template = "password-reset";
         
         Map<String, Object> variables = new HashMap<>();
-        variables.put("user", user);
+        variables.put("user", userVariables(user));
         variables.put("resetUrl", appUrl + "/reset-password");
         variables.put("appName", appName);
 
@@ -62,33 +66,43 @@ public class EmailService {
         String template = "password-changed";
         
         Map<String, Object> variables = new HashMap<>();
-        variables.put("user", user);
+        variables.put("user", userVariables(user));
         variables.put("appName", appName);
 
         sendTemplatedEmail(user.getEmail(), subject, template, variables);
     }
 
+    /**
+     * Rend le template et construit le message prêt à être envoyé
+     */
+    public MimeMessage buildMessage(String to, String subject, String template, Map<String, Object> variables) throws MessagingException {
+        MimeMessage message = emailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message,
+                MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
+                StandardCharsets.UTF_8.name());
+
+        String html = templateCache.render(template, variables);
+
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(html, true);
+        return message;
+    }
+
     private void sendTemplatedEmail(String to, String subject, String template, Map<String, Object> variables) {
-        try {
-            MimeMessage message = emailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message,
-                    MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED,
-                    StandardCharsets.UTF_8.name());
-
-            Context context = new Context();
-            context.setVariables(variables);
-            String html = templateEngine.process(template, context);
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-
-            emailSender.send(message);
-            log.info("Email envoyé avec succès à : {}", to);
-        } catch (MessagingException e) {
-            log.error("Erreur lors de l'envoi de l'email à {} : {}", to, e.getMessage());
-            throw new RuntimeException("Erreur lors de l'envoi de l'email", e);
-        }
+        outboxService.enqueue(to, subject, template, variables);
+        log.debug("Email '{}' à destination de {} ajouté à l'outbox", template, to);
+    }
+
+    /**
+     * Seules les informations affichées par les templates sont conservées avec le message, pas l'entité
+     */
+    private static Map<String, Object> userVariables(GotUser user) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("username", user.getUsername());
+        variables.put("firstName", user.getFirstName());
+        variables.put("lastName", user.getLastName());
+        return variables;
     }
 }
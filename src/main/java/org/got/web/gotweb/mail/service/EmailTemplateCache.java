@@ -0,0 +1,150 @@
+package org.got.web.gotweb.mail.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Cache des templates d'email pré-rendus.
+ * *
+ * Au premier rendu d'un template, Thymeleaf est exécuté une seule fois avec les variables statiques
+ * ({@code appName}) et une marque à la place de chaque variable propre à l'utilisateur.
+ * Les rendus suivants ne font que substituer les valeurs dans les fragments statiques.
+ * *
+ * Le pré-rendu n'est retenu que si le HTML ne dépend des variables qu'à leurs emplacements :
+ * - une marque altérée (variable transformée, concaténée...) l'invalide ;
+ * - un second rendu Thymeleaf, avec des chaînes vides à la place des marques, doit donner les mêmes fragments statiques.
+ *   Une condition sur la présence ou le contenu d'une variable ({@code th:if}, {@code #strings.isEmpty}...) les fait différer.
+ * Les variables nulles font partie de la forme (voir ci-dessous) et sont rendues par Thymeleaf telles quelles.
+ * Seule une comparaison à une valeur précise ({@code th:if="${role == 'admin'}"}), fausse pour la marque comme
+ * pour la chaîne vide, échappe à cette détection : ces templates doivent passer par une variable booléenne,
+ * qui n'est pas une chaîne et fait donc partie de la forme par sa valeur.
+ * Un template rejeté reste rendu par Thymeleaf à chaque envoi.
+ * *
+ * Le pré-rendu dépend de la forme des variables (noms, sous-clés, valeurs nulles et booléennes) : il est donc indexé
+ * par template et par forme, pour qu'un appel avec d'autres variables ne réutilise pas les emplacements d'un appel précédent.
+ */
+@Slf4j
+@Component
+public class EmailTemplateCache {
+
+    static final Set<String> STATIC_VARIABLES = Set.of("appName");
+
+    private final SpringTemplateEngine templateEngine;
+    private final String appName;
+    private final ConcurrentMap<TemplateShape, Optional<PrecompiledEmailTemplate>> templates = new ConcurrentHashMap<>();
+
+    public EmailTemplateCache(SpringTemplateEngine templateEngine, @Value("${app.name}") String appName) {
+        this.templateEngine = templateEngine;
+        this.appName = appName;
+    }
+
+    /**
+     * Rend le template avec les variables fournies.
+     * Chaque forme de variables (noms et sous-clés) distincte donne lieu à son propre pré-rendu.
+     */
+    public String render(String template, Map<String, Object> variables) {
+        Set<String> paths = new HashSet<>();
+        collectPaths("", variables, paths);
+        Optional<PrecompiledEmailTemplate> precompiled = templates.computeIfAbsent(
+                new TemplateShape(template, paths), shape -> precompile(template, variables));
+        return precompiled.isPresent()
+                ? precompiled.get().render(variables)
+                : renderDynamic(template, variables);
+    }
+
+    private Optional<PrecompiledEmailTemplate> precompile(String template, Map<String, Object> variables) {
+        Set<String> slots = new HashSet<>();
+        Map<String, Object> marked = mark("", variables, slots, PrecompiledEmailTemplate::slot);
+        PrecompiledEmailTemplate precompiled = PrecompiledEmailTemplate.split(renderDynamic(template, marked), slots);
+        if (precompiled != null && !hasStaticFragments(template, precompiled, mark("", variables, new HashSet<>(), path -> ""))) {
+            precompiled = null;
+        }
+        if (precompiled == null) {
+            log.warn("Le template d'email '{}' ne peut pas être pré-rendu : rendu Thymeleaf à chaque envoi", template);
+        }
+        return Optional.ofNullable(precompiled);
+    }
+
+    /**
+     * Vérifie que le rendu Thymeleaf avec des chaînes vides à la place des marques est la simple concaténation des fragments :
+     * sinon, le HTML produit hors des emplacements dépend de la valeur des variables.
+     */
+    private boolean hasStaticFragments(String template, PrecompiledEmailTemplate precompiled, Map<String, Object> emptied) {
+        try {
+            return precompiled.render(emptied).equals(renderDynamic(template, emptied));
+        } catch (RuntimeException e) {
+            // Expression qui échoue sur une chaîne vide : le template dépend de la valeur
+            return false;
+        }
+    }
+
+    /**
+     * Remplace chaque variable substituable par la valeur de son emplacement, en conservant les sous-clés des maps.
+     * Les variables statiques, nulles ou booléennes sont conservées : elles font partie de la forme.
+     */
+    private Map<String, Object> mark(String prefix, Map<?, ?> variables, Set<String> slots, Function<String, Object> slotValue) {
+        Map<String, Object> marked = new HashMap<>();
+        for (Map.Entry<?, ?> entry : variables.entrySet()) {
+            String key = entry.getKey().toString();
+            String path = prefix + key;
+            if (prefix.isEmpty() && STATIC_VARIABLES.contains(key)) {
+                marked.put(key, appName);
+            } else if (entry.getValue() instanceof Map<?, ?> nested) {
+                marked.put(key, mark(path + ".", nested, slots, slotValue));
+            } else if (isFixed(entry.getValue())) {
+                marked.put(key, entry.getValue());
+            } else {
+                marked.put(key, slotValue.apply(path));
+                slots.add(path);
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * Chemins de toutes les variables, les maps imbriquées étant parcourues ("user.firstName"),
+     * avec la valeur des variables nulles ou booléennes ("user.firstName=null").
+     */
+    private static void collectPaths(String prefix, Map<?, ?> variables, Set<String> paths) {
+        for (Map.Entry<?, ?> entry : variables.entrySet()) {
+            String path = prefix + entry.getKey();
+            if (entry.getValue() instanceof Map<?, ?> nested) {
+                paths.add(path + ".");
+                collectPaths(path + ".", nested, paths);
+            } else if (isFixed(entry.getValue())) {
+                paths.add(path + "=" + entry.getValue());
+            } else {
+                paths.add(path);
+            }
+        }
+    }
+
+    /**
+     * Une variable nulle ou booléenne est rendue par Thymeleaf avec sa valeur : une condition ou un attribut omis
+     * en dépendent sans que la marque puisse le révéler.
+     */
+    private static boolean isFixed(Object value) {
+        return value == null || value instanceof Boolean;
+    }
+
+    private String renderDynamic(String template, Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return templateEngine.process(template, context);
+    }
+
+    private record TemplateShape(String template, Set<String> paths) {
+    }
+}
@@ -0,0 +1,97 @@
+package org.got.web.gotweb.mail.service;
+
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Template d'email pré-rendu : une suite de fragments HTML statiques entrecoupés d'emplacements de variables.
+ * *
+ * Le rendu d'un email se limite à concaténer les fragments et les valeurs échappées (même échappement que {@code th:text}),
+ * sans passer par le moteur Thymeleaf.
+ */
+final class PrecompiledEmailTemplate {
+
+    static final String SLOT_MARK = "@@";
+
+    private static final Pattern SLOT = Pattern.compile("@@([A-Za-z0-9_.]+)@@");
+
+    private final String[] fragments;
+    private final String[][] slots;
+    private final int staticLength;
+
+    private PrecompiledEmailTemplate(String[] fragments, String[][] slots) {
+        this.fragments = fragments;
+        this.slots = slots;
+        int length = 0;
+        for (String fragment : fragments) {
+            length += fragment.length();
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * @return la marque d'emplacement d'une variable (chemin pointé, ex. "user.firstName")
+     */
+    static String slot(String path) {
+        return SLOT_MARK + path + SLOT_MARK;
+    }
+
+    /**
+     * Découpe le HTML rendu avec des marques d'emplacement à la place des variables.
+     *
+     * @param html rendu du template
+     * @param expectedSlots chemins des variables remplacées par une marque
+     * @return le template pré-rendu, ou null si une marque a été altérée par le template (rendu dynamique requis)
+     */
+    static PrecompiledEmailTemplate split(String html, Set<String> expectedSlots) {
+        List<String> fragments = new ArrayList<>();
+        List<String[]> slots = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(html);
+        int last = 0;
+        while (matcher.find()) {
+            String path = matcher.group(1);
+            if (!expectedSlots.contains(path)) {
+                return null;
+            }
+            fragments.add(html.substring(last, matcher.start()));
+            slots.add(path.split("\\."));
+            last = matcher.end();
+        }
+        fragments.add(html.substring(last));
+        for (String fragment : fragments) {
+            if (fragment.contains(SLOT_MARK)) {
+                return null;
+            }
+        }
+        return new PrecompiledEmailTemplate(fragments.toArray(new String[0]), slots.toArray(new String[0][]));
+    }
+
+    String render(Map<String, Object> variables) {
+        StringBuilder html = new StringBuilder(staticLength + slots.length * 32);
+        for (int i = 0; i < slots.length; i++) {
+            html.append(fragments[i]);
+            Object value = resolve(variables, slots[i]);
+            if (value != null) {
+                html.append(HtmlEscape.escapeHtml4Xml(value.toString()));
+            }
+        }
+        return html.append(fragments[slots.length]).toString();
+    }
+
+    private static Object resolve(Map<String, Object> variables, String[] path) {
+        Object current = variables;
+        for (String key : path) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(key);
+        }
+        return current;
+    }
+}
@@ -2,6 +2,8 @@ package org.got.web.gotweb.security.config;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.got.web.gotweb.security.jwt.SigningKey;
+import org.got.web.gotweb.security.jwt.SigningKeyRing;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,19 +12,20 @@ import org.springframework.core.io.ResourceLoader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.Key;
-import java.security.KeyPair;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
-import java.security.PublicKey;
+import java.security.PrivateKey;
 import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration pour la gestion des clés JWT
- * Utilise des clés RSA asymétriques stockées dans un keystore PKCS12
+ * Utilise des clés asymétriques (RSA, EC ou Ed25519) stockées dans un keystore PKCS12
  */
 @Configuration
 @ConfigurationProperties(prefix = "spring.security.jwt")
@@ -34,6 +37,25 @@ public class JwtConfig {
     private long expiration = 86400000L; // 24 heures
     private RefreshTokenProperties refreshToken = new RefreshTokenProperties();
     private String issuer = "got-web";
+    private VerifiedTokenCacheProperties verifiedTokenCache = new VerifiedTokenCacheProperties();
+    private RevokedTokensProperties revokedTokens = new RevokedTokensProperties();
+    private SigningProperties signing = new SigningProperties();
+    private ClaimsFormat claimsFormat = ClaimsFormat.STRINGS;
+
+    /**
+     * Format des rôles et permissions embarqués dans les tokens émis.
+     * Les deux formats sont toujours acceptés en validation.
+     */
+    public enum ClaimsFormat {
+        /**
+         * Listes de chaînes "ROLE_r:d:c" et "PERM_p"
+         */
+        STRINGS,
+        /**
+         * Claim binaire unique, encodé en base64url (voir {@code CompactAccessClaims})
+         */
+        COMPACT
+    }
 
     @Getter
     @Setter
@@ -49,6 +71,38 @@ public class JwtConfig {
         private long expiration = 604800000L; // 7 jours
     }
 
+    @Getter
+    @Setter
+    public static class VerifiedTokenCacheProperties {
+        private long maximumSize = 10000L; // Nombre de tokens vérifiés conservés en mémoire
+    }
+
+    @Getter
+    @Setter
+    public static class RevokedTokensProperties {
+        private long expectedInsertions = 100000L; // Dimensionnement du filtre de Bloom
+        private double falsePositiveRate = 0.01;
+        private long falsePositiveCacheSize = 10000L; // jti confirmés non révoqués après un faux positif du filtre
+        private long syncInterval = 30000L; // 30 secondes, également pour les époques de révocation et les versions des autorisations
+        private long compactionInterval = 3600000L; // 1 heure
+    }
+
+    @Getter
+    @Setter
+    public static class SigningProperties {
+        private List<SigningKeyProperties> keys = new ArrayList<>(); // Vide : clé keystore.alias en RS512
+        private long rotationCheckInterval = 60000L; // 1 minute
+        private long jwksMaxAge = 3600L; // Secondes, à garder inférieur au délai de publication d'une clé avant activation
+    }
+
+    @Getter
+    @Setter
+    public static class SigningKeyProperties {
+        private String alias;
+        private String algorithm = "RS512"; // RS256, RS512, ES256, ES384, ES512, EdDSA
+        private Instant activateAt; // Null : active immédiatement
+    }
+
     private final ResourceLoader resourceLoader;
 
     public JwtConfig(ResourceLoader resourceLoader) {
@@ -68,38 +122,36 @@ public class JwtConfig {
         }
     }
 
+    /**
+     * Trousseau des clés de signature déclarées dans {@code signing.keys}.
+     * Sans déclaration, la clé {@code keystore.alias} signe en RS512 (comportement historique).
+     */
     @Bean
-    public RSAPrivateKey jwtSigningKey(KeyStore keyStore) {
-        try {
-            Key key = keyStore.getKey(keystore.getAlias(), keystore.getPassword().toCharArray());
-            if (key instanceof RSAPrivateKey) {
-                return (RSAPrivateKey) key;
-            }
-        } catch (UnrecoverableKeyException | NoSuchAlgorithmException | KeyStoreException e) {
-            throw new IllegalStateException("Impossible de charger la clé privée RSA", e);
+    public SigningKeyRing signingKeyRing(KeyStore keyStore) {
+        List<SigningKeyProperties> declared = signing.getKeys();
+        if (declared.isEmpty()) {
+            SigningKeyProperties legacy = new SigningKeyProperties();
+            legacy.setAlias(keystore.getAlias());
+            declared = List.of(legacy);
         }
-        throw new IllegalStateException("Le keystore ne contient pas de clé privée RSA valide");
+        return new SigningKeyRing(declared.stream()
+                .map(properties -> loadSigningKey(keyStore, properties))
+                .toList());
     }
 
-    @Bean
-    public RSAPublicKey jwtValidationKey(KeyStore keyStore) {
+    private SigningKey loadSigningKey(KeyStore keyStore, SigningKeyProperties properties) {
         try {
-            java.security.cert.Certificate certificate = keyStore.getCertificate(keystore.getAlias());
-            if (certificate == null) {
-                throw new IllegalStateException("Le certificat n'existe pas dans le keystore");
+            Key key = keyStore.getKey(properties.getAlias(), keystore.getPassword().toCharArray());
+            if (!(key instanceof PrivateKey privateKey)) {
+                throw new IllegalStateException("Le keystore ne contient pas de clé privée pour l'alias " + properties.getAlias());
             }
-            PublicKey publicKey = certificate.getPublicKey();
-            if (publicKey instanceof RSAPublicKey) {
-                return (RSAPublicKey) publicKey;
+            Certificate certificate = keyStore.getCertificate(properties.getAlias());
+            if (certificate == null) {
+                throw new IllegalStateException("Le certificat n'existe pas dans le keystore pour l'alias " + properties.getAlias());
             }
-        } catch (KeyStoreException e) {
-            throw new IllegalStateException("Impossible de charger la clé publique RSA", e);
+            return SigningKey.of(properties.getAlgorithm(), privateKey, certificate.getPublicKey(), properties.getActivateAt());
+        } catch (UnrecoverableKeyException | NoSuchAlgorithmException | KeyStoreException e) {
+            throw new IllegalStateException("Impossible de charger la clé de signature " + properties.getAlias(), e);
         }
-        throw new IllegalStateException("Le keystore ne contient pas de clé publique RSA valide");
-    }
-
-    @Bean
-    public KeyPair jwtKeyPair(RSAPrivateKey privateKey, RSAPublicKey publicKey) {
-        return new KeyPair(publicKey, privateKey);
     }
 }
@@ -0,0 +1,23 @@
+package org.got.web.gotweb.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration de la limitation des tentatives de connexion, appliquée avant tout accès base et toute vérification BCrypt
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.security.login-throttling")
+@Getter
+@Setter
+public class LoginThrottlingConfig {
+    private boolean enabled = true;
+    private int maxAttemptsPerUsername = 5; // Échecs par nom d'utilisateur sur la fenêtre
+    private int maxAttemptsPerIp = 200; // Échecs par adresse IP sur la fenêtre
+    private long window = 900000L; // 15 minutes
+    private long lockDuration = 900000L; // 15 minutes : verrouillage persisté du compte, aligné sur la fenêtre
+    private long flushInterval = 5000L; // 5 secondes
+    private long maxTrackedKeys = 100000L; // Noms d'utilisateur (et adresses IP) suivis simultanément
+}
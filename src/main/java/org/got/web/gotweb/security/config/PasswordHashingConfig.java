@@ -0,0 +1,58 @@
+package org.got.web.gotweb.security.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Configuration du hachage des mots de passe : pool dédié borné et facteur de coût BCrypt.
+ * *
+ * Sans facteur explicite, le coût est calibré au démarrage : le plus élevé dont la durée estimée
+ * reste sous la latence cible, borné par [minStrength, maxStrength].
+ * Les empreintes d'un coût inférieur sont réécrites à la connexion suivante de leur utilisateur.
+ */
+@Slf4j
+@Configuration
+@ConfigurationProperties(prefix = "app.security.password-hashing")
+@Getter
+@Setter
+public class PasswordHashingConfig {
+
+    private static final String CALIBRATION_PASSWORD = "calibration-P4ssw0rd!";
+
+    private int threads = 0; // 0 = nombre de processeurs
+    private int queueCapacity = 64; // Hachages en attente au-delà desquels les demandes sont rejetées (503)
+    private int strength = 0; // 0 = calibré au démarrage
+    private long targetLatency = 250L; // Millisecondes visées pour un hachage
+    private int minStrength = 10;
+    private int maxStrength = 14;
+
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(strength > 0 ? strength : calibrateStrength());
+    }
+
+    /**
+     * Mesure un hachage au coût minimal (après un premier hachage de chauffe), puis double l'estimation
+     * à chaque incrément de coût tant qu'elle reste sous la latence cible.
+     */
+    private int calibrateStrength() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_PASSWORD);
+        long start = System.nanoTime();
+        probe.encode(CALIBRATION_PASSWORD);
+        double estimatedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        int calibrated = minStrength;
+        while (calibrated < maxStrength && estimatedMillis * 2 <= targetLatency) {
+            estimatedMillis *= 2;
+            calibrated++;
+        }
+        log.info("Coût BCrypt calibré à {} (~{} ms par hachage, cible {} ms)", calibrated, Math.round(estimatedMillis), targetLatency);
+        return calibrated;
+    }
+}
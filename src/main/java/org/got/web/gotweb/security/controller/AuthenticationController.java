@@ -3,6 +3,7 @@ package org.got.web.gotweb.security.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.got.web.gotweb.exception.TechnicalException;
@@ -32,8 +33,9 @@ public class AuthenticationController {
     @Operation(summary = "Authentifie un utilisateur", description = "Authentifie un utilisateur avec son username et mot de passe")
     @ApiResponse(responseCode = "200", description = "Authentification réussie")
     @ApiResponse(responseCode = "401", description = "Identifiants invalides")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authenticationService.authenticate(loginRequest));
+    @ApiResponse(responseCode = "429", description = "Trop de tentatives de connexion")
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        return ResponseEntity.ok(authenticationService.authenticate(loginRequest, request.getRemoteAddr()));
     }
 
     @PostMapping("/refresh")
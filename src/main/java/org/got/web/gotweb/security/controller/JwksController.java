@@ -0,0 +1,55 @@
+package org.got.web.gotweb.security.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.got.web.gotweb.exception.TechnicalException;
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.security.jwt.SigningKey;
+import org.got.web.gotweb.security.jwt.SigningKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publication des clés publiques de vérification des tokens (JWKS, RFC 7517).
+ * *
+ * Le document est sérialisé une seule fois : les clés déclarées ne changent pas à chaud,
+ * seule la clé active change lors d'une rotation. Il est servi avec un en-tête de cache public et un ETag.
+ */
+@RestController
+@Tag(name = "Authentication", description = "API d'authentification")
+public class JwksController {
+
+    private final String jwks;
+    private final String eTag;
+    private final CacheControl cacheControl;
+
+    public JwksController(SigningKeyRing signingKeyRing, JwtConfig jwtConfig, ObjectMapper objectMapper) {
+        try {
+            this.jwks = objectMapper.writeValueAsString(Map.of("keys",
+                    signingKeyRing.keys().stream().map(SigningKey::jwk).toList()));
+        } catch (JsonProcessingException e) {
+            throw new TechnicalException("Impossible de sérialiser le JWKS", e);
+        }
+        this.eTag = '"' + DigestUtils.md5DigestAsHex(jwks.getBytes(StandardCharsets.UTF_8)) + '"';
+        this.cacheControl = CacheControl.maxAge(jwtConfig.getSigning().getJwksMaxAge(), TimeUnit.SECONDS).cachePublic();
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Clés publiques JWT", description = "Clés de vérification des tokens, identifiées par leur kid")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(eTag)
+                .body(jwks);
+    }
+}
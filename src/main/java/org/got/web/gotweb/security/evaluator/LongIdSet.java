@@ -0,0 +1,310 @@
+package org.got.web.gotweb.security.evaluator;
+
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentTree;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Ensemble immuable d'identifiants primitifs (long), sans boxing ni hachage.
+ * *
+ * Deux représentations sont choisies automatiquement à la construction :
+ * - {@link Sorted} : tableau trié, adapté aux petits ensembles ou aux identifiants dispersés
+ * - {@link Bits} : bitset décalé sur [min, max], adapté aux identifiants denses
+ * *
+ * Les méthodes {@link #containsAll(long[])} et {@link #containsAny(long[])} attendent des valeurs triées
+ * (c'est le cas des conditions compilées) et n'allouent rien, de même que les tests de sous-arbre
+ * ({@link #anyWithin(DepartmentTree, long[])}...), qui parcourent directement la représentation.
+ */
+public sealed interface LongIdSet permits LongIdSet.Sorted, LongIdSet.Bits {
+
+    LongIdSet EMPTY = new Sorted(new long[0]);
+
+    /**
+     * En dessous de ce nombre d'éléments, le tableau trié est toujours préféré.
+     */
+    int BITSET_MIN_SIZE = 16;
+
+    boolean contains(long value);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param sortedValues valeurs triées par ordre croissant
+     * @return true si toutes les valeurs sont présentes
+     */
+    default boolean containsAll(long[] sortedValues) {
+        for (long value : sortedValues) {
+            if (!contains(value)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param sortedValues valeurs triées par ordre croissant
+     * @return true si au moins une valeur est présente
+     */
+    default boolean containsAny(long[] sortedValues) {
+        for (long value : sortedValues) {
+            if (contains(value)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true si au moins un élément de l'ensemble satisfait le prédicat
+     */
+    boolean anyMatch(LongPredicate predicate);
+
+    /**
+     * @return true si au moins un élément appartient au sous-arbre d'un des ancêtres donnés
+     */
+    boolean anyWithin(DepartmentTree tree, long[] ancestorIds);
+
+    /**
+     * @return true si au moins un élément appartient au sous-arbre de l'ancêtre donné
+     */
+    boolean anyWithin(DepartmentTree tree, long ancestorId);
+
+    /**
+     * @return true si tous les éléments appartiennent au sous-arbre de l'ancêtre donné (vrai pour l'ensemble vide)
+     */
+    boolean allWithin(DepartmentTree tree, long ancestorId);
+
+    /**
+     * Trie et dédoublonne les {@code length} premières valeurs du tableau (modifié sur place), puis choisit la représentation.
+     */
+    private static LongIdSet ofUnsorted(long[] values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(values, 0, length);
+        int size = 1;
+        for (int i = 1; i < length; i++) {
+            if (values[i] != values[size - 1]) {
+                values[size++] = values[i];
+            }
+        }
+        long min = values[0];
+        long max = values[size - 1];
+        long words = ((max - min) >>> 6) + 1;
+        if (size >= BITSET_MIN_SIZE && min >= 0 && words <= size) {
+            return Bits.from(values, size, min, (int) words);
+        }
+        return new Sorted(size == values.length ? values : Arrays.copyOf(values, size));
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Accumulateur basé sur un tableau primitif extensible.
+     * Le builder ne doit plus être utilisé après {@link #build()}.
+     */
+    final class Builder {
+        private long[] values = new long[8];
+        private int length;
+
+        private Builder() {
+        }
+
+        public Builder add(long value) {
+            if (length == values.length) {
+                values = Arrays.copyOf(values, length << 1);
+            }
+            values[length++] = value;
+            return this;
+        }
+
+        public LongIdSet build() {
+            return ofUnsorted(values, length);
+        }
+    }
+
+    /**
+     * Représentation par tableau trié : recherche dichotomique, parcours fusionné pour les tests multiples.
+     */
+    final class Sorted implements LongIdSet {
+        private final long[] values;
+
+        private Sorted(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(long value) {
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean containsAll(long[] sortedValues) {
+            int from = 0;
+            for (long value : sortedValues) {
+                int index = Arrays.binarySearch(values, from, values.length, value);
+                if (index < 0) return false;
+                from = index;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean containsAny(long[] sortedValues) {
+            int i = 0;
+            int j = 0;
+            while (i < values.length && j < sortedValues.length) {
+                long a = values[i];
+                long b = sortedValues[j];
+                if (a == b) return true;
+                if (a < b) i++;
+                else j++;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyMatch(LongPredicate predicate) {
+            for (long value : values) {
+                if (predicate.test(value)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyWithin(DepartmentTree tree, long[] ancestorIds) {
+            for (long value : values) {
+                if (tree.isWithinAny(value, ancestorIds)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyWithin(DepartmentTree tree, long ancestorId) {
+            for (long value : values) {
+                if (tree.isWithin(value, ancestorId)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean allWithin(DepartmentTree tree, long ancestorId) {
+            for (long value : values) {
+                if (!tree.isWithin(value, ancestorId)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+
+    /**
+     * Représentation par bitset décalé : le bit {@code i} du mot {@code w} représente l'identifiant {@code min + 64 * w + i}.
+     */
+    final class Bits implements LongIdSet {
+        private final long min;
+        private final long[] words;
+        private final int size;
+
+        private Bits(long min, long[] words, int size) {
+            this.min = min;
+            this.words = words;
+            this.size = size;
+        }
+
+        private static Bits from(long[] sortedValues, int size, long min, int wordCount) {
+            long[] words = new long[wordCount];
+            for (int i = 0; i < size; i++) {
+                long offset = sortedValues[i] - min;
+                words[(int) (offset >>> 6)] |= 1L << offset;
+            }
+            return new Bits(min, words, size);
+        }
+
+        @Override
+        public boolean contains(long value) {
+            long offset = value - min;
+            if (offset < 0) return false;
+            long word = offset >>> 6;
+            return word < words.length && (words[(int) word] & (1L << offset)) != 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean anyMatch(LongPredicate predicate) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (predicate.test(min + ((long) w << 6) + Long.numberOfTrailingZeros(word))) return true;
+                    word &= word - 1;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyWithin(DepartmentTree tree, long[] ancestorIds) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (tree.isWithinAny(min + ((long) w << 6) + Long.numberOfTrailingZeros(word), ancestorIds)) return true;
+                    word &= word - 1;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean anyWithin(DepartmentTree tree, long ancestorId) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (tree.isWithin(min + ((long) w << 6) + Long.numberOfTrailingZeros(word), ancestorId)) return true;
+                    word &= word - 1;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean allWithin(DepartmentTree tree, long ancestorId) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (!tree.isWithin(min + ((long) w << 6) + Long.numberOfTrailingZeros(word), ancestorId)) return false;
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (sb.length() > 1) sb.append(", ");
+                    sb.append(min + ((long) w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
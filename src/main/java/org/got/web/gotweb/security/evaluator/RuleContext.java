@@ -2,10 +2,9 @@ package org.got.web.gotweb.security.evaluator;
 
 import lombok.Builder;
 
-import java.util.Set;
-
 /**
  * Cette classe regroupe l’ensemble des helpers, de sorte qu’elle servira de racine lors de l’évaluation de l’expression SpEL.
+ * Les identifiants sont stockés dans des ensembles primitifs ({@link LongIdSet}) pour éviter boxing et hachage.
  *
  * @param roles
  * @param permissions
@@ -13,9 +12,9 @@ import java.util.Set;
  * @param contexts
  */
 @Builder
-public record RuleContext(Set<Long> roles,
-                          Set<Long> permissions,
-                          Set<Long> departments,
-                          Set<Long> contexts,
+public record RuleContext(LongIdSet roles,
+                          LongIdSet permissions,
+                          LongIdSet departments,
+                          LongIdSet contexts,
                           Long user) {
 }
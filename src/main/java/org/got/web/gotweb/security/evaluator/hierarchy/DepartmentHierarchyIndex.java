@@ -0,0 +1,57 @@
+package org.got.web.gotweb.security.evaluator.hierarchy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.repository.DepartmentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Arbre des départements en mémoire, utilisé par le critère {@code DEPARTMENT_SUBTREE}.
+ * *
+ * L'arbre est construit au démarrage puis remplacé atomiquement à chaque {@link DepartmentsChangedEvent},
+ * une fois la transaction à l'origine de la modification validée. Les lectures ne font aucun accès à la base.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentHierarchyIndex {
+
+    private final DepartmentRepository departmentRepository;
+
+    private volatile DepartmentTree tree;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDepartmentsChanged(DepartmentsChangedEvent event) {
+        log.debug("Reconstruction de l'arbre des départements suite à : {}", event.origin());
+        rebuild();
+    }
+
+    /**
+     * Recharge les liens parent/enfant depuis la base et remplace l'arbre courant.
+     */
+    public synchronized void rebuild() {
+        DepartmentTree rebuilt = DepartmentTree.build(departmentRepository.findParentLinks());
+        this.tree = rebuilt;
+        log.info("Arbre des départements reconstruit : {} départements indexés.", rebuilt.size());
+    }
+
+    /**
+     * @return l'instantané courant de l'arbre
+     */
+    public DepartmentTree current() {
+        DepartmentTree current = tree;
+        if (current == null) {
+            rebuild();
+            current = tree;
+        }
+        return current;
+    }
+}
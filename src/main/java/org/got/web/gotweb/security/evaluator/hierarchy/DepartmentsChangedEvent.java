@@ -0,0 +1,10 @@
+package org.got.web.gotweb.security.evaluator.hierarchy;
+
+/**
+ * Événement publié lorsqu'un département est créé, déplacé ou supprimé.
+ * Il déclenche la reconstruction de l'arbre des départements après le commit de la transaction.
+ *
+ * @param origin Origine de la modification (utilisée pour les logs)
+ */
+public record DepartmentsChangedEvent(String origin) {
+}
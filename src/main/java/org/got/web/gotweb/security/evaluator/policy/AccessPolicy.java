@@ -0,0 +1,24 @@
+package org.got.web.gotweb.security.evaluator.policy;
+
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+
+/**
+ * Programme de décision immuable d'un endpoint.
+ * Il est compilé une seule fois à partir des {@code AccessConditionGroup} de l'endpoint
+ * et réévalué à chaque requête sans parsing ni collection intermédiaire.
+ *
+ * @param globalCombinationOperator Opérateur combinant les groupes
+ * @param groups Groupes compilés (vide : accès refusé)
+ */
+public record AccessPolicy(LogicalOperator globalCombinationOperator,
+                           CompiledConditionGroup[] groups) {
+
+    /**
+     * Politique refusant tout accès (endpoint sans groupe ou conditions invalides).
+     */
+    public static final AccessPolicy DENY_ALL = new AccessPolicy(LogicalOperator.OR, new CompiledConditionGroup[0]);
+
+    public boolean denyAll() {
+        return groups.length == 0;
+    }
+}
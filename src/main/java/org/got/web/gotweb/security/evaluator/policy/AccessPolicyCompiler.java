@@ -0,0 +1,81 @@
+package org.got.web.gotweb.security.evaluator.policy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.domain.security.AccessCondition;
+import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compile les groupes de conditions d'un endpoint en {@link AccessPolicy}.
+ */
+@Slf4j
+public final class AccessPolicyCompiler {
+
+    private AccessPolicyCompiler() {
+    }
+
+    /**
+     * Compile les groupes de conditions d'un endpoint.
+     * Un endpoint sans groupe ou dont une condition est invalide (valeur vide ou non numérique) refuse tout accès.
+     */
+    public static AccessPolicy compile(Endpoint endpoint) {
+        if (endpoint.getConditionGroups() == null || endpoint.getConditionGroups().isEmpty()) {
+            return AccessPolicy.DENY_ALL;
+        }
+        try {
+            CompiledConditionGroup[] groups = endpoint.getConditionGroups().stream()
+                    .map(AccessPolicyCompiler::compile)
+                    .toArray(CompiledConditionGroup[]::new);
+            LogicalOperator operator = endpoint.getGlobalCombinationOperator() != null
+                    ? endpoint.getGlobalCombinationOperator()
+                    : LogicalOperator.OR;
+            return new AccessPolicy(operator, groups);
+        } catch (IllegalArgumentException e) {
+            log.warn("Conditions invalides pour l'endpoint {} {} : accès refusé ({})",
+                    endpoint.getHttpMethod(), endpoint.getPattern(), e.getMessage());
+            return AccessPolicy.DENY_ALL;
+        }
+    }
+
+    /**
+     * Compile un groupe de conditions.
+     *
+     * @throws IllegalArgumentException si une condition n'a pas de valeur ou si une valeur n'est pas un identifiant numérique
+     */
+    public static CompiledConditionGroup compile(AccessConditionGroup group) {
+        List<AccessCondition> conditions = group.getConditions() != null ? group.getConditions() : List.of();
+        CompiledCondition[] compiled = conditions.stream()
+                .map(AccessPolicyCompiler::compile)
+                .toArray(CompiledCondition[]::new);
+        LogicalOperator operator = group.getCombinationOperator() != null
+                ? group.getCombinationOperator()
+                : LogicalOperator.AND;
+        return new CompiledConditionGroup(operator, compiled);
+    }
+
+    /**
+     * Compile une condition : découpe, nettoie et parse les valeurs une seule fois.
+     * Une condition sans valeur est rejetée : avec un tableau vide, ALL_OF et NONE_OF seraient toujours vrais.
+     *
+     * @throws IllegalArgumentException si la condition n'a pas de valeur ou si une valeur n'est pas un identifiant numérique
+     */
+    public static CompiledCondition compile(AccessCondition condition) {
+        return new CompiledCondition(condition.getType(), condition.getOperator(),
+                parseValues(condition.getValues()), condition.isNegate());
+    }
+
+    private static long[] parseValues(String values) {
+        if (values == null || values.isBlank()) {
+            throw new IllegalArgumentException("condition sans valeur");
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .mapToLong(Long::parseLong)
+                .sorted()
+                .toArray();
+    }
+}
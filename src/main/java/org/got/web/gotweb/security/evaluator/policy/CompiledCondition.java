@@ -0,0 +1,18 @@
+package org.got.web.gotweb.security.evaluator.policy;
+
+import org.got.web.gotweb.user.domain.security.CriterionType;
+import org.got.web.gotweb.user.domain.security.Operator;
+
+/**
+ * Condition d'accès compilée : les valeurs de {@code AccessCondition.values} sont parsées une seule fois.
+ *
+ * @param type Type de critère évalué
+ * @param operator Opérateur de comparaison
+ * @param values Valeurs du critère, triées par ordre croissant
+ * @param negate true si le résultat doit être inversé
+ */
+public record CompiledCondition(CriterionType type,
+                                Operator operator,
+                                long[] values,
+                                boolean negate) {
+}
@@ -0,0 +1,13 @@
+package org.got.web.gotweb.security.evaluator.policy;
+
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+
+/**
+ * Groupe de conditions compilé.
+ *
+ * @param combinationOperator Opérateur combinant les conditions du groupe
+ * @param conditions Conditions compilées
+ */
+public record CompiledConditionGroup(LogicalOperator combinationOperator,
+                                     CompiledCondition[] conditions) {
+}
@@ -0,0 +1,13 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicy;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+
+/**
+ * Entrée de l'index de routage : l'endpoint et son programme de décision compilé.
+ *
+ * @param endpoint Endpoint correspondant
+ * @param policy Programme de décision de l'endpoint
+ */
+public record EndpointRoute(Endpoint endpoint, AccessPolicy policy) {
+}
@@ -0,0 +1,172 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicyCompiler;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre de routage immuable des endpoints, indexé par méthode HTTP puis par segment d'URL.
+ * *
+ * Chaque nœud possède :
+ * - des enfants littéraux (segment exact, ex. "users")
+ * - un enfant variable (segment unique dynamique, ex. "{id}" ou "*")
+ * - des routes "catch-all" ("**" ou "{*path}") qui acceptent le reste du chemin
+ * - des routes terminales (le pattern se termine sur ce nœud)
+ * *
+ * La recherche parcourt l'arbre en O(nombre de segments) puis confirme les candidats
+ * avec le {@link PathPattern} compilé. En cas de plusieurs correspondances, le pattern le plus spécifique l'emporte.
+ * Chaque route embarque le programme de décision compilé de son endpoint.
+ */
+@Slf4j
+final class EndpointRouteTree {
+
+    static final String ANY_METHOD = "*";
+
+    private static final PathPatternParser PARSER = PathPatternParser.defaultInstance;
+
+    private final Map<String, Node> roots;
+    private final int size;
+
+    private EndpointRouteTree(Map<String, Node> roots, int size) {
+        this.roots = roots;
+        this.size = size;
+    }
+
+    /**
+     * Construit l'arbre à partir des endpoints persistés.
+     * Les patterns invalides sont ignorés (et tracés) plutôt que de bloquer toute la construction.
+     */
+    static EndpointRouteTree build(Collection<Endpoint> endpoints) {
+        Map<String, Node> roots = new HashMap<>();
+        int size = 0;
+        for (Endpoint endpoint : endpoints) {
+            PathPattern pattern;
+            try {
+                pattern = PARSER.parse(endpoint.getPattern());
+            } catch (PatternParseException e) {
+                log.warn("Pattern d'endpoint invalide ignoré par l'index de routage : {} ({})", endpoint.getPattern(), e.getMessage());
+                continue;
+            }
+            String method = endpoint.getHttpMethod() != null ? endpoint.getHttpMethod().toUpperCase() : ANY_METHOD;
+            Route route = new Route(new EndpointRoute(endpoint, AccessPolicyCompiler.compile(endpoint)), pattern);
+            roots.computeIfAbsent(method, m -> new Node()).insert(segments(endpoint.getPattern()), 0, route);
+            size++;
+        }
+        return new EndpointRouteTree(Map.copyOf(roots), size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recherche la route la plus spécifique correspondant à la méthode et au chemin demandés.
+     *
+     * @return la route trouvée ou null
+     */
+    EndpointRoute find(String httpMethod, String path) {
+        String[] segments = segments(path);
+        PathContainer container = null;
+        Route best = null;
+
+        for (Node root : candidatesRoots(httpMethod)) {
+            List<Route> candidates = new ArrayList<>(2);
+            root.collect(segments, 0, candidates);
+            for (Route candidate : candidates) {
+                if (container == null) {
+                    container = PathContainer.parsePath(path);
+                }
+                if (candidate.pattern().matches(container)
+                        && (best == null || PathPattern.SPECIFICITY_COMPARATOR.compare(candidate.pattern(), best.pattern()) < 0)) {
+                    best = candidate;
+                }
+            }
+            if (best != null) {
+                return best.target();
+            }
+        }
+        return null;
+    }
+
+    private List<Node> candidatesRoots(String httpMethod) {
+        Node byMethod = httpMethod != null ? roots.get(httpMethod.toUpperCase()) : null;
+        Node any = roots.get(ANY_METHOD);
+        if (byMethod == null) {
+            return any == null ? List.of() : List.of(any);
+        }
+        return any == null ? List.of(byMethod) : List.of(byMethod, any);
+    }
+
+    private static String[] segments(String path) {
+        if (path == null || path.isEmpty()) {
+            return new String[0];
+        }
+        int start = path.charAt(0) == '/' ? 1 : 0;
+        int end = path.endsWith("/") ? path.length() - 1 : path.length();
+        if (start >= end) {
+            return new String[0];
+        }
+        return path.substring(start, end).split("/");
+    }
+
+    private static boolean isCatchAll(String segment) {
+        return segment.equals("**") || segment.startsWith("{*");
+    }
+
+    private static boolean isDynamic(String segment) {
+        return segment.indexOf('{') >= 0 || segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+    }
+
+    private record Route(EndpointRoute target, PathPattern pattern) {
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node variable;
+        private final List<Route> catchAll = new ArrayList<>(1);
+        private final List<Route> terminal = new ArrayList<>(1);
+
+        private void insert(String[] segments, int index, Route route) {
+            if (index == segments.length) {
+                terminal.add(route);
+                return;
+            }
+            String segment = segments[index];
+            if (isCatchAll(segment)) {
+                catchAll.add(route);
+            } else if (isDynamic(segment)) {
+                if (variable == null) {
+                    variable = new Node();
+                }
+                variable.insert(segments, index + 1, route);
+            } else {
+                literals.computeIfAbsent(segment, s -> new Node()).insert(segments, index + 1, route);
+            }
+        }
+
+        private void collect(String[] segments, int index, List<Route> candidates) {
+            candidates.addAll(catchAll);
+            if (index == segments.length) {
+                candidates.addAll(terminal);
+                return;
+            }
+            Node literal = literals.get(segments[index]);
+            if (literal != null) {
+                literal.collect(segments, index + 1, candidates);
+            }
+            if (variable != null) {
+                variable.collect(segments, index + 1, candidates);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.repository.security.EndpointRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Index de routage en mémoire des endpoints.
+ * *
+ * L'arbre est construit au démarrage puis remplacé atomiquement à chaque {@link EndpointsChangedEvent},
+ * une fois la transaction à l'origine de la modification validée. Les lectures ne font aucun accès à la base.
+ * Les programmes de décision des endpoints sont recompilés à chaque reconstruction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EndpointRoutingIndex {
+
+    private final EndpointRepository endpointRepository;
+
+    private volatile EndpointRouteTree tree;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEndpointsChanged(EndpointsChangedEvent event) {
+        log.debug("Reconstruction de l'index de routage suite à : {}", event.origin());
+        rebuild();
+    }
+
+    /**
+     * Recharge les endpoints depuis la base et remplace l'arbre de routage courant.
+     */
+    public synchronized void rebuild() {
+        List<Endpoint> endpoints = endpointRepository.findAll();
+        EndpointRouteTree rebuilt = EndpointRouteTree.build(endpoints);
+        this.tree = rebuilt;
+        log.info("Index de routage des endpoints reconstruit : {} endpoints indexés.", rebuilt.size());
+    }
+
+    /**
+     * Recherche la route correspondant à la méthode HTTP et à l'URL demandées.
+     *
+     * @return la route la plus spécifique ou null si aucune ne correspond
+     */
+    public EndpointRoute find(String httpMethod, String requestUrl) {
+        EndpointRouteTree current = tree;
+        if (current == null) {
+            rebuild();
+            current = tree;
+        }
+        return current.find(httpMethod, requestUrl);
+    }
+}
@@ -0,0 +1,10 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+/**
+ * Événement publié lorsqu'un endpoint, ses groupes de conditions ou ses conditions sont modifiés.
+ * Il déclenche la reconstruction de l'index de routage après le commit de la transaction.
+ *
+ * @param origin Origine de la modification (utilisée pour les logs)
+ */
+public record EndpointsChangedEvent(String origin) {
+}
@@ -1,17 +1,24 @@
 package org.got.web.gotweb.security.evaluator.service;
 
+import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.security.evaluator.LongIdSet;
 import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentHierarchyIndex;
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentTree;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicy;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicyCompiler;
+import org.got.web.gotweb.security.evaluator.policy.CompiledCondition;
+import org.got.web.gotweb.security.evaluator.policy.CompiledConditionGroup;
 import org.got.web.gotweb.user.domain.security.AccessCondition;
 import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
 import org.got.web.gotweb.user.domain.security.LogicalOperator;
 import org.springframework.stereotype.Service;
 
 import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
 
 /**
  * Le service ci-dessous évalue d’abord une Condition {@link AccessCondition} en fonction de son opérateur, puis un ConditionGroup en combinant les résultats des conditions avec son LogicalOperator.
+ * Les conditions sont évaluées sous leur forme compilée ({@link AccessPolicy}), avec court-circuit AND/OR.
  * *
  * Concernant les opérateurs :
  * *
@@ -19,57 +26,147 @@ import java.util.Set;
  * NOT_CONTAINS : aucune des valeurs ne doit être présente.
  * ONE_OF : au moins une valeur doit être présente.
  * EQUALS et NOT_EQUALS : pour un champ attendu unique (vérification que le set contient exactement la valeur unique).
+ * *
+ * Le critère DEPARTMENT_SUBTREE applique les mêmes opérateurs aux sous-arbres désignés par les valeurs :
+ * un département de l'utilisateur "contient" une valeur s'il est ce département ou l'un de ses descendants.
+ * Pour EQUALS, tous les départements de l'utilisateur doivent appartenir au sous-arbre de l'unique valeur.
  */
 @Service
+@RequiredArgsConstructor
 public class ConditionEvaluator {
+
+    private final DepartmentHierarchyIndex departmentHierarchy;
+
+    /**
+     * Évalue le programme de décision d'un endpoint en combinant ses groupes avec le globalCombinationOperator.
+     */
+    public boolean evaluate(AccessPolicy policy, RuleContext context) {
+        if (policy == null || policy.denyAll()) {
+            return false;
+        }
+        CompiledConditionGroup[] groups = policy.groups();
+        if (policy.globalCombinationOperator() == LogicalOperator.AND) {
+            // Tous les groupes doivent être validés
+            for (CompiledConditionGroup group : groups) {
+                if (!evaluateConditionGroup(group, context)) return false;
+            }
+            return true;
+        } else { // OR : au moins un groupe validé suffit
+            for (CompiledConditionGroup group : groups) {
+                if (evaluateConditionGroup(group, context)) return true;
+            }
+            return false;
+        }
+    }
+
     /**
      * Évalue un ConditionGroup en combinant les conditions avec son LogicalOperator.
+     * Le groupe est compilé à la volée : réservé aux usages hors chemin critique.
      */
     public boolean evaluateConditionGroup(AccessConditionGroup group, RuleContext context) {
-        List<Boolean> results = group.getConditions().stream()
-                .map(condition -> evaluateCondition(condition, context))
-                .toList();
-        if (group.getCombinationOperator() == LogicalOperator.AND) {
-            return results.stream().allMatch(Boolean::booleanValue);
+        return evaluateConditionGroup(AccessPolicyCompiler.compile(group), context);
+    }
+
+    /**
+     * Évalue un ConditionGroup compilé en combinant les conditions avec son LogicalOperator.
+     */
+    public boolean evaluateConditionGroup(CompiledConditionGroup group, RuleContext context) {
+        CompiledCondition[] conditions = group.conditions();
+        if (group.combinationOperator() == LogicalOperator.AND) {
+            for (CompiledCondition condition : conditions) {
+                if (!evaluateCondition(condition, context)) return false;
+            }
+            return true;
         } else { // OR
-            return results.stream().anyMatch(Boolean::booleanValue);
+            for (CompiledCondition condition : conditions) {
+                if (evaluateCondition(condition, context)) return true;
+            }
+            return false;
         }
     }
 
     /**
      * Évalue une condition individuelle selon son opérateur.
      */
-    private boolean evaluateCondition(AccessCondition condition, RuleContext ruleContext) {
-        List<Long> criterionValues = Arrays.stream(condition.getValues().split(","))
-                .map(String::trim)
-                .map(Long::parseLong)
-                .toList();
-
-        // Récupère le set de l'utilisateur correspondant au type de la condition
-        Set<Long> userSet = switch (condition.getType()) {
-            case ROLE -> ruleContext.roles();
-            case PERMISSION -> ruleContext.permissions();
-            case DEPARTMENT -> ruleContext.departments();
-            case CONTEXT -> ruleContext.contexts();
-            case USER -> Set.of(ruleContext.user());
+    private boolean evaluateCondition(CompiledCondition condition, RuleContext ruleContext) {
+        boolean result = switch (condition.type()) {
+            case USER -> evaluateUser(condition, ruleContext.user());
+            case ROLE -> evaluateSet(condition, ruleContext.roles());
+            case PERMISSION -> evaluateSet(condition, ruleContext.permissions());
+            case DEPARTMENT -> evaluateSet(condition, ruleContext.departments());
+            case DEPARTMENT_SUBTREE -> evaluateSubtree(condition, ruleContext.departments());
+            case CONTEXT -> evaluateSet(condition, ruleContext.contexts());
         };
 
-        boolean result = switch (condition.getOperator()) {
-            case ALL_OF -> containsAllOf(userSet, criterionValues);
-            case NONE_OF -> !containsAny(userSet, criterionValues);
-            case ONE_OF -> containsAny(userSet, criterionValues);
-            case EQUALS -> equalsOp(userSet, criterionValues);
-            case NOT_EQUALS -> !equalsOp(userSet, criterionValues);
+        // Applique la négation si nécessaire
+        return condition.negate() ? !result : result;
+    }
+
+    private boolean evaluateSet(CompiledCondition condition, LongIdSet userSet) {
+        long[] values = condition.values();
+        return switch (condition.operator()) {
+            case ALL_OF -> containsAllOf(userSet, values);
+            case NONE_OF -> !containsAny(userSet, values);
+            case ONE_OF -> containsAny(userSet, values);
+            case EQUALS -> equalsOp(userSet, values);
+            case NOT_EQUALS -> !equalsOp(userSet, values);
         };
+    }
 
-        // Applique la négation si nécessaire
-        return condition.isNegate() ? !result : result;
+    /**
+     * Évalue les départements de l'utilisateur contre les sous-arbres désignés par les valeurs du critère.
+     */
+    private boolean evaluateSubtree(CompiledCondition condition, LongIdSet userDepartments) {
+        if (userDepartments == null) {
+            userDepartments = LongIdSet.EMPTY;
+        }
+        DepartmentTree tree = departmentHierarchy.current();
+        long[] values = condition.values();
+        return switch (condition.operator()) {
+            case ALL_OF -> withinAllOf(tree, userDepartments, values);
+            case NONE_OF -> !withinAny(tree, userDepartments, values);
+            case ONE_OF -> withinAny(tree, userDepartments, values);
+            case EQUALS -> withinSingle(tree, userDepartments, values);
+            case NOT_EQUALS -> !withinSingle(tree, userDepartments, values);
+        };
+    }
+
+    private boolean withinAny(DepartmentTree tree, LongIdSet userDepartments, long[] ancestors) {
+        return userDepartments.anyWithin(tree, ancestors);
+    }
+
+    private boolean withinAllOf(DepartmentTree tree, LongIdSet userDepartments, long[] ancestors) {
+        if (userDepartments.isEmpty()) return false;
+        for (long ancestor : ancestors) {
+            if (!userDepartments.anyWithin(tree, ancestor)) return false;
+        }
+        return true;
+    }
+
+    private boolean withinSingle(DepartmentTree tree, LongIdSet userDepartments, long[] ancestors) {
+        if (ancestors.length != 1 || userDepartments.isEmpty()) return false;
+        return userDepartments.allWithin(tree, ancestors[0]);
+    }
+
+    /**
+     * Le critère USER porte sur un identifiant unique : on l'évalue comme un ensemble à un élément.
+     */
+    private boolean evaluateUser(CompiledCondition condition, Long user) {
+        long[] values = condition.values();
+        boolean contained = user != null && Arrays.binarySearch(values, user) >= 0;
+        return switch (condition.operator()) {
+            case ALL_OF -> user != null && allEqual(values, user);
+            case NONE_OF -> !contained;
+            case ONE_OF -> contained;
+            case EQUALS -> values.length == 1 && contained;
+            case NOT_EQUALS -> !(values.length == 1 && contained);
+        };
     }
 
     /**
      * Vérifie que userSet contient toutes les valeurs demandées.
      */
-    private boolean containsAllOf(Set<Long> userSet, List<Long> criterionValues) {
+    private boolean containsAllOf(LongIdSet userSet, long[] criterionValues) {
         if (userSet == null || userSet.isEmpty()) return false;
         return userSet.containsAll(criterionValues);
     }
@@ -77,24 +174,27 @@ public class ConditionEvaluator {
     /**
      * Vérifie que userSet contient au moins une des valeurs.
      */
-    private boolean containsAny(Set<Long> userSet, List<Long> criterionValues) {
+    private boolean containsAny(LongIdSet userSet, long[] criterionValues) {
         if (userSet == null || userSet.isEmpty()) return false;
-        for (Long value : criterionValues) {
-            if (userSet.contains(value)) {
-                return true;
-            }
-        }
-        return false;
+        return userSet.containsAny(criterionValues);
     }
 
     /**
      * Vérifie que le set de l'utilisateur est exactement égal à la valeur fournie.
      * On attend une seule valeur dans criterionValues.
      */
-    private boolean equalsOp(Set<Long> userSet, List<Long> criterionValues) {
-        if (criterionValues.size() != 1) return false;
-        Long value = criterionValues.getFirst();
+    private boolean equalsOp(LongIdSet userSet, long[] criterionValues) {
+        if (criterionValues.length != 1) return false;
         // Pour les champs uniques, on s'attend à ce que le set contienne exactement cet unique élément.
-        return userSet != null && userSet.size() == 1 && userSet.contains(value);
+        return userSet != null && userSet.size() == 1 && userSet.contains(criterionValues[0]);
+    }
+
+    private static boolean allEqual(long[] values, long user) {
+        for (long value : values) {
+            if (value != user) {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package org.got.web.gotweb.security.jwt;
+
+import java.util.List;
+
+/**
+ * Publié lorsque la version des autorisations d'utilisateurs a été incrémentée.
+ */
+public record AuthorizationVersionChangedEvent(List<Long> userIds) {
+}
@@ -0,0 +1,168 @@
+package org.got.web.gotweb.security.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.collections.CopyOnWriteLongLongMap;
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Version des autorisations par utilisateur ({@code users.authz_version}), embarquée dans ses tokens.
+ * *
+ * Chaque service modifiant les rôles ou permissions effectifs d'un utilisateur incrémente sa version :
+ * un token portant une version antérieure est périmé et doit être rafraîchi, et un refresh dont la version
+ * est à jour ré-signe les claims existants sans les recalculer.
+ * *
+ * Les versions non nulles sont conservées en mémoire dans une table primitive (userId → version) pour un contrôle
+ * en O(1) par requête. La table est mise à jour après commit, en relisant les versions persistées :
+ * une transaction annulée ne laisse pas de version fantôme.
+ * *
+ * Les incréments faits par les autres nœuds (y compris ceux du planificateur des validités) sont intégrés
+ * par une synchronisation périodique sur {@code users.authz_version_updated_at}, au même intervalle que les révocations
+ * ({@code spring.security.jwt.revoked-tokens.sync-interval}) : un token reste accepté au plus un intervalle sur les autres nœuds.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationVersionStore {
+
+    private static final long INITIAL_VERSION = 0L;
+    private static final int BATCH_SIZE = 1000;
+
+    private final GotUserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JwtConfig jwtConfig;
+
+    private final CopyOnWriteLongLongMap versions = new CopyOnWriteLongLongMap();
+
+    private volatile LocalDateTime lastSynchronization;
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = userRepository.findAuthzVersionsAbove(INITIAL_VERSION);
+        versions.replaceAll(userIds(rows), values(rows));
+        lastSynchronization = now;
+        log.info("Versions des autorisations chargées : {} utilisateurs", rows.size());
+    }
+
+    /**
+     * Intègre les versions incrémentées par les autres nœuds depuis la dernière synchronisation.
+     * Les fenêtres se chevauchent d'un intervalle pour absorber les décalages d'horloge et les validations tardives.
+     */
+    @Scheduled(initialDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}",
+            fixedDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}")
+    public void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSynchronization.minus(Duration.ofMillis(jwtConfig.getRevokedTokens().getSyncInterval()));
+        List<Object[]> rows = userRepository.findAuthzVersionsUpdatedSince(since);
+        if (!rows.isEmpty()) {
+            versions.mergeAll(userIds(rows), values(rows), Math::max);
+        }
+        lastSynchronization = now;
+        log.debug("Synchronisation des versions des autorisations : {} entrées intégrées", rows.size());
+    }
+
+    /**
+     * @return la version des autorisations connue pour l'utilisateur
+     */
+    public long current(long userId) {
+        return versions.get(userId, INITIAL_VERSION);
+    }
+
+    /**
+     * @param tokenVersion version embarquée dans le token, null pour un token émis avant l'introduction des versions
+     * @return true si les autorisations de l'utilisateur ont changé depuis l'émission du token
+     */
+    public boolean isStale(long userId, Long tokenVersion) {
+        return tokenVersion != null && tokenVersion < versions.get(userId, INITIAL_VERSION);
+    }
+
+    /**
+     * Incrémente la version des autorisations de l'utilisateur.
+     */
+    @Transactional
+    public void bump(Long userId) {
+        bump(List.of(userId));
+    }
+
+    /**
+     * Incrémente la version des autorisations des utilisateurs, par lots.
+     */
+    @Transactional
+    public void bump(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            userRepository.incrementAuthzVersions(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())), now);
+        }
+        eventPublisher.publishEvent(new AuthorizationVersionChangedEvent(ids));
+    }
+
+    /**
+     * Incrémente la version des utilisateurs ayant au moins une affectation du rôle.
+     */
+    @Transactional
+    public void bumpForRole(Long roleId) {
+        bump(userRoleRepository.findDistinctUserIdsByRoleId(roleId));
+    }
+
+    /**
+     * Incrémente la version des utilisateurs ayant au moins une affectation dans le département.
+     */
+    @Transactional
+    public void bumpForDepartment(Long departmentId) {
+        bump(userRoleRepository.findDistinctUserIdsByDepartmentId(departmentId));
+    }
+
+    /**
+     * Incrémente la version de tous les utilisateurs ayant au moins une affectation,
+     * lorsque les utilisateurs concernés par une correction ne peuvent pas être déterminés.
+     */
+    @Transactional
+    public void bumpAllAssigned() {
+        bump(userRoleRepository.findDistinctUserIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVersionChanged(AuthorizationVersionChangedEvent event) {
+        List<Long> ids = event.userIds();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Object[]> rows = userRepository.findAuthzVersions(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+            versions.mergeAll(userIds(rows), values(rows), Math::max);
+        }
+        log.debug("Versions des autorisations incrémentées pour {} utilisateurs", ids.size());
+    }
+
+    private static long[] userIds(List<Object[]> rows) {
+        long[] userIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            userIds[i] = (Long) rows.get(i)[0];
+        }
+        return userIds;
+    }
+
+    private static long[] values(List<Object[]> rows) {
+        long[] values = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            values[i] = (Long) rows.get(i)[1];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,272 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.evaluator.LongIdSet;
+import org.got.web.gotweb.security.evaluator.RuleContext;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Encodage binaire compact des rôles et permissions d'un token, embarqué dans un seul claim (base64url).
+ * *
+ * Format (version 1) :
+ * - 1 octet de version
+ * - nombre d'affectations (varint), puis pour chaque triplet (rôle, département, contexte) trié :
+ *   écart au rôle précédent (varint), écarts au département et au contexte précédents (varint zigzag).
+ *   Le contexte est stocké décalé de 1, 0 signifiant "sans contexte".
+ * - 1 octet de représentation des permissions, selon la plus courte :
+ *   {@link #DELTAS} : nombre puis écarts successifs (varint) ; {@link #BITMAP} : minimum, nombre d'octets, puis bitmap.
+ * *
+ * Le décodage alimente directement les ensembles primitifs du {@link RuleContext}, sans chaîne intermédiaire.
+ */
+public final class CompactAccessClaims {
+
+    private static final byte VERSION = 1;
+    private static final byte DELTAS = 0;
+    private static final byte BITMAP = 1;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PERMISSION_PREFIX = "PERM_";
+
+    private CompactAccessClaims() {
+    }
+
+    /**
+     * Encode les claims au format texte ("ROLE_r:d:c", "PERM_p").
+     *
+     * @throws IllegalArgumentException si un rôle ou une permission est mal formé
+     */
+    public static String encode(List<String> roles, List<String> permissions) {
+        long[][] tuples = new long[roles.size()][];
+        for (int i = 0; i < tuples.length; i++) {
+            tuples[i] = parseRole(roles.get(i));
+        }
+        Arrays.sort(tuples, CompactAccessClaims::compareTuples);
+
+        long[] permissionIds = new long[permissions.size()];
+        for (int i = 0; i < permissionIds.length; i++) {
+            String permission = permissions.get(i);
+            int start = permission.startsWith(PERMISSION_PREFIX) ? PERMISSION_PREFIX.length() : 0;
+            permissionIds[i] = Long.parseLong(permission, start, permission.length(), 10);
+        }
+        permissionIds = Arrays.stream(permissionIds).sorted().distinct().toArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + tuples.length * 4 + permissionIds.length * 2);
+        out.write(VERSION);
+        writeVarint(out, tuples.length);
+        long[] previous = {0, 0, 0};
+        for (long[] tuple : tuples) {
+            writeVarint(out, tuple[0] - previous[0]);
+            writeVarint(out, zigzag(tuple[1] - previous[1]));
+            writeVarint(out, zigzag(tuple[2] - previous[2]));
+            previous = tuple;
+        }
+        writePermissions(out, permissionIds);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Décode directement le claim compact en {@link RuleContext}.
+     *
+     * @throws IllegalArgumentException si le claim est tronqué ou d'une version inconnue
+     */
+    public static RuleContext toRuleContext(String encoded, Long userId) {
+        Reader reader = reader(encoded);
+        int count = reader.count();
+        LongIdSet.Builder roleIds = LongIdSet.builder();
+        LongIdSet.Builder departmentIds = LongIdSet.builder();
+        LongIdSet.Builder contextIds = LongIdSet.builder();
+        long role = 0;
+        long department = 0;
+        long context = 0;
+        for (int i = 0; i < count; i++) {
+            role += reader.varint();
+            department += unzigzag(reader.varint());
+            context += unzigzag(reader.varint());
+            roleIds.add(role);
+            departmentIds.add(department);
+            if (context != 0) {
+                contextIds.add(context - 1);
+            }
+        }
+
+        LongIdSet.Builder permissionIds = LongIdSet.builder();
+        reader.permissions(permissionIds::add);
+
+        return RuleContext.builder()
+                .roles(roleIds.build())
+                .permissions(permissionIds.build())
+                .departments(departmentIds.build())
+                .contexts(contextIds.build())
+                .user(userId)
+                .build();
+    }
+
+    /**
+     * Décode le claim compact vers le format texte, pour les usages qui en ont besoin (autorités Spring Security).
+     */
+    public static JwtTokens.UserClaims toUserClaims(String encoded, Long userId, String username, Long authzVersion) {
+        Reader reader = reader(encoded);
+        int count = reader.count();
+        List<String> roles = new ArrayList<>(count);
+        long role = 0;
+        long department = 0;
+        long context = 0;
+        for (int i = 0; i < count; i++) {
+            role += reader.varint();
+            department += unzigzag(reader.varint());
+            context += unzigzag(reader.varint());
+            roles.add(ROLE_PREFIX + role + ':' + department + ':' + (context != 0 ? String.valueOf(context - 1) : "null"));
+        }
+        List<String> permissions = new ArrayList<>();
+        reader.permissions(id -> permissions.add(PERMISSION_PREFIX + id));
+        return new JwtTokens.UserClaims(userId, username, List.copyOf(roles), List.copyOf(permissions), encoded, authzVersion);
+    }
+
+    private static long[] parseRole(String role) {
+        int start = role.startsWith(ROLE_PREFIX) ? ROLE_PREFIX.length() : 0;
+        int first = role.indexOf(':', start);
+        int second = first < 0 ? -1 : role.indexOf(':', first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Rôle mal formé : " + role);
+        }
+        String context = role.substring(second + 1);
+        return new long[]{
+                Long.parseLong(role, start, first, 10),
+                Long.parseLong(role, first + 1, second, 10),
+                context.equals("null") ? 0 : Long.parseLong(context) + 1
+        };
+    }
+
+    private static int compareTuples(long[] a, long[] b) {
+        int cmp = Long.compare(a[0], b[0]);
+        if (cmp == 0) cmp = Long.compare(a[1], b[1]);
+        if (cmp == 0) cmp = Long.compare(a[2], b[2]);
+        return cmp;
+    }
+
+    private static void writePermissions(ByteArrayOutputStream out, long[] sortedIds) {
+        ByteArrayOutputStream deltas = new ByteArrayOutputStream(sortedIds.length * 2 + 4);
+        writeVarint(deltas, sortedIds.length);
+        long previous = 0;
+        for (long id : sortedIds) {
+            writeVarint(deltas, id - previous);
+            previous = id;
+        }
+
+        if (sortedIds.length > 0) {
+            long min = sortedIds[0];
+            long span = sortedIds[sortedIds.length - 1] - min;
+            long bitmapBytes = (span >>> 3) + 1;
+            if (bitmapBytes + 10 < deltas.size()) {
+                byte[] bitmap = new byte[(int) bitmapBytes];
+                for (long id : sortedIds) {
+                    long offset = id - min;
+                    bitmap[(int) (offset >>> 3)] |= (byte) (1 << (offset & 7));
+                }
+                out.write(BITMAP);
+                writeVarint(out, min);
+                writeVarint(out, bitmap.length);
+                out.writeBytes(bitmap);
+                return;
+            }
+        }
+        out.write(DELTAS);
+        out.writeBytes(deltas.toByteArray());
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static Reader reader(String encoded) {
+        Reader reader = new Reader(Base64.getUrlDecoder().decode(encoded));
+        int version = reader.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Version de claim compact inconnue : " + version);
+        }
+        return reader;
+    }
+
+    /**
+     * Lecture séquentielle du tableau décodé, avec contrôle des bornes.
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Claim compact tronqué");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint invalide dans le claim compact");
+        }
+
+        /**
+         * Lit un nombre d'éléments, borné par la taille restante (chaque élément occupe au moins un octet).
+         */
+        private int count() {
+            long count = varint();
+            if (count > bytes.length - position) {
+                throw new IllegalArgumentException("Nombre d'éléments incohérent dans le claim compact");
+            }
+            return (int) count;
+        }
+
+        private void permissions(LongConsumer consumer) {
+            int kind = readByte();
+            if (kind == DELTAS) {
+                int count = count();
+                long id = 0;
+                for (int i = 0; i < count; i++) {
+                    id += varint();
+                    consumer.accept(id);
+                }
+            } else if (kind == BITMAP) {
+                long min = varint();
+                int length = count();
+                for (int i = 0; i < length; i++) {
+                    int b = readByte();
+                    while (b != 0) {
+                        consumer.accept(min + ((long) i << 3) + Integer.numberOfTrailingZeros(b));
+                        b &= b - 1;
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Représentation des permissions inconnue : " + kind);
+            }
+        }
+    }
+}
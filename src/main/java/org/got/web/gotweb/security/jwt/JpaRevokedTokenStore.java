@@ -0,0 +1,69 @@
+package org.got.web.gotweb.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.user.domain.security.RevokedTokenEntry;
+import org.got.web.gotweb.user.repository.security.RevokedTokenRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage des tokens révoqués dans la table {@code revoked_tokens}.
+ */
+@Component
+@RequiredArgsConstructor
+public class JpaRevokedTokenStore implements RevokedTokenStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Override
+    @Transactional
+    public void save(JwtTokens.RevokedToken revokedToken) {
+        revokedTokenRepository.save(RevokedTokenEntry.builder()
+                .jti(revokedToken.jti())
+                .expiresAt(toLocalDateTime(revokedToken.expiresAt()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<JwtTokens.RevokedToken> find(String jti) {
+        return revokedTokenRepository.findById(jti).map(JpaRevokedTokenStore::toRevokedToken);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<JwtTokens.RevokedToken> findActive(Instant now) {
+        return revokedTokenRepository.findAllByExpiresAtAfter(toLocalDateTime(now)).stream()
+                .map(JpaRevokedTokenStore::toRevokedToken)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<JwtTokens.RevokedToken> findRevokedSince(Instant since, Instant now) {
+        return revokedTokenRepository.findAllByRevokedAtAfterAndExpiresAtAfter(toLocalDateTime(since), toLocalDateTime(now)).stream()
+                .map(JpaRevokedTokenStore::toRevokedToken)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Instant now) {
+        return revokedTokenRepository.deleteExpired(toLocalDateTime(now));
+    }
+
+    private static JwtTokens.RevokedToken toRevokedToken(RevokedTokenEntry entry) {
+        return new JwtTokens.RevokedToken(entry.getJti(), entry.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.got.web.gotweb.exception.ApiError;
+import org.got.web.gotweb.security.evaluator.LongIdSet;
 import org.got.web.gotweb.security.evaluator.RuleContext;
 import org.got.web.gotweb.security.evaluator.service.AccessControlService;
 import org.springframework.context.annotation.Bean;
@@ -23,9 +24,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -34,9 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String ERROR_HEADER = "X-JWT-Error";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PERMISSION_PREFIX = "PERM_";
 
     private final JwtService jwtService;
     private final AccessControlService accessControlService;
+    private final AuthorizationVersionStore authorizationVersionStore;
     private final ObjectMapper objectMapper;
 
     @Override
@@ -52,23 +53,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             String token = authHeader.substring(BEARER_PREFIX.length());
-            JwtTokens.TokenInfo tokenInfo;
+            VerifiedToken verifiedToken;
             try {
-                tokenInfo = jwtService.validateToken(token);
+                verifiedToken = jwtService.verifyToken(token);
             } catch (Exception e) {
                 log.error("Erreur lors de la validation du token : {}", e.getMessage(), e);
                 setErrorResponse(response, e.getMessage(), HttpStatus.UNAUTHORIZED);
                 return;
             }
 
+            JwtTokens.TokenInfo tokenInfo = verifiedToken.tokenInfo();
+            JwtTokens.UserClaims claims = tokenInfo.claims();
+            if (authorizationVersionStore.isStale(claims.userId(), claims.authzVersion())) {
+                // Les droits ont changé depuis l'émission : le client doit rafraîchir son token
+                response.setHeader(ERROR_HEADER, "stale_authorizations");
+                setErrorResponse(response, "Autorisations modifiées : le token doit être rafraîchi", HttpStatus.UNAUTHORIZED);
+                return;
+            }
             Authentication authentication = new JwtAuthenticationToken(tokenInfo);
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            // Construction du RuleContext à partir des claims extraites du token
-            RuleContext ruleContext = buildRuleContext(tokenInfo.claims());
+            // Construction du RuleContext à partir des claims extraites du token (une fois par token vérifié)
+            RuleContext ruleContext = verifiedToken.ruleContext(this::buildRuleContext);
             String requestUrl = request.getRequestURI();
 
-            if (!accessControlService.hasAccess(requestUrl, ruleContext)) {
+            if (!accessControlService.hasAccess(request.getMethod(), requestUrl, ruleContext)) {
                 setErrorResponse(response,
                         "Accès refusé : vous n'avez pas les droits nécessaires pour accéder à cette ressource",
                         HttpStatus.FORBIDDEN);
@@ -87,6 +96,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String path = request.getServletPath();
         return path.startsWith("/api/auth")
                 || path.startsWith("/public")
+                || path.startsWith("/.well-known")
                 || path.startsWith("/error")
                 || path.startsWith("/actuator")
                 || path.startsWith("/v3/api-docs")
@@ -101,33 +111,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      * - Pour un rôle au format "ROLE_1:1:1", on extrait :
      *   • roleId = 1, departmentId = 1, contextId = 1
      * - Pour une permission au format "PERM_6", on extrait 6
-     * Le RuleContext est construit via son builder.
+     * Les identifiants sont lus directement dans la chaîne (sans replace/split) et accumulés
+     * dans des ensembles primitifs.
+     * Pour un token au format compact, le claim binaire est décodé directement, sans passer par les chaînes.
      */
     public RuleContext buildRuleContext(JwtTokens.UserClaims userClaims) {
-        Set<Long> roleIds = new HashSet<>();
-        Set<Long> departmentIds = new HashSet<>();
-        Set<Long> contextIds = new HashSet<>();
+        if (userClaims.compactAccess() != null) {
+            return CompactAccessClaims.toRuleContext(userClaims.compactAccess(), userClaims.userId());
+        }
+        LongIdSet.Builder roleIds = LongIdSet.builder();
+        LongIdSet.Builder departmentIds = LongIdSet.builder();
+        LongIdSet.Builder contextIds = LongIdSet.builder();
 
         for (String role : userClaims.roles()) {
-            // Suppression du préfixe "ROLE_" et découpage par ":"
-            String[] parts = role.replace("ROLE_", "").split(":");
-            if (parts.length == 3) {
-                roleIds.add(Long.parseLong(parts[0]));       // ROLE_ID
-                departmentIds.add(Long.parseLong(parts[1]));   // DEPARTMENT_ID
-                contextIds.add(Long.parseLong(parts[2]));      // CONTEXT_ID
+            // Découpage "ROLE_<role>:<department>:<context>" sans allocation intermédiaire
+            int start = role.startsWith(ROLE_PREFIX) ? ROLE_PREFIX.length() : 0;
+            int first = role.indexOf(':', start);
+            int second = first < 0 ? -1 : role.indexOf(':', first + 1);
+            if (second < 0 || role.indexOf(':', second + 1) >= 0) {
+                continue;
             }
+            roleIds.add(Long.parseLong(role, start, first, 10));               // ROLE_ID
+            departmentIds.add(Long.parseLong(role, first + 1, second, 10));    // DEPARTMENT_ID
+            contextIds.add(Long.parseLong(role, second + 1, role.length(), 10)); // CONTEXT_ID
         }
 
-        Set<Long> permissionIds = userClaims.permissions().stream()
-                .map(perm -> Long.parseLong(perm.replace("PERM_", "")))
-                .collect(Collectors.toSet());
+        LongIdSet.Builder permissionIds = LongIdSet.builder();
+        for (String permission : userClaims.permissions()) {
+            int start = permission.startsWith(PERMISSION_PREFIX) ? PERMISSION_PREFIX.length() : 0;
+            permissionIds.add(Long.parseLong(permission, start, permission.length(), 10));
+        }
 
-        // Construction du RuleContext à l'aide du builder (assurez-vous que RuleContext possède un builder)
         return RuleContext.builder()
-                .roles(roleIds)
-                .permissions(permissionIds)
-                .departments(departmentIds)
-                .contexts(contextIds)
+                .roles(roleIds.build())
+                .permissions(permissionIds.build())
+                .departments(departmentIds.build())
+                .contexts(contextIds.build())
                 .user(userClaims.userId())
                 .build();
     }
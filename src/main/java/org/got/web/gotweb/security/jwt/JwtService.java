@@ -1,31 +1,44 @@
 package org.got.web.gotweb.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.got.web.gotweb.exception.TokenException;
 import org.got.web.gotweb.security.config.JwtConfig;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.KeyPair;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static org.got.web.gotweb.config.CacheConfig.CACHE_REVOKED_TOKENS;
-
 /**
  * Service de gestion des tokens JWT
  * Gère la génération, validation et révocation des tokens
+ * *
+ * Les tokens sont signés par la clé active du {@link SigningKeyRing} (en-tête {@code kid}) et vérifiés
+ * avec la clé publique correspondant à leur {@code kid}.
+ * Les tokens vérifiés sont conservés dans un cache borné (clé : empreinte SHA-256 du token)
+ * jusqu'à leur expiration : un token rejoué ne repasse pas par la vérification de signature,
+ * seule sa révocation (jti et époque de l'utilisateur) est revérifiée.
  */
 @Slf4j
 @Service
@@ -33,23 +46,40 @@ public class JwtService {
 
     private static final String ROLES_CLAIM = "roles";
     private static final String PERMISSIONS_CLAIM = "permissions";
+    private static final String COMPACT_ACCESS_CLAIM = "acl";
     private static final String USER_ID_CLAIM = "userId";
+    private static final String AUTHZ_VERSION_CLAIM = "authzVersion";
     private static final String TOKEN_TYPE_CLAIM = "type";
     private static final String TOKEN_TYPE_ACCESS = "ACCESS";
     private static final String TOKEN_TYPE_REFRESH = "REFRESH";
 
 
     private final JwtConfig jwtConfig;
-    private final KeyPair keyPair;
-    private final Cache revokedTokensCache;
+    private final SigningKeyRing signingKeyRing;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final JwtParser jwtParser;
+    private final TokenRevocationEpochStore revocationEpochStore;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    public JwtService(JwtConfig jwtConfig, KeyPair keyPair, CacheManager cacheManager) {
+    public JwtService(JwtConfig jwtConfig, SigningKeyRing signingKeyRing, RevokedTokenRegistry revokedTokenRegistry,
+                      TokenRevocationEpochStore revocationEpochStore) {
         this.jwtConfig = jwtConfig;
-        this.keyPair = keyPair;
-        this.revokedTokensCache = cacheManager.getCache(CACHE_REVOKED_TOKENS );
-        if (this.revokedTokensCache == null) {
-            throw new TokenException("Cache 'revokedTokens' non configuré");
-        }
+        this.signingKeyRing = signingKeyRing;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.revocationEpochStore = revocationEpochStore;
+        // Le parser est immuable et thread-safe : une seule instance partagée, la clé est choisie par kid
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return signingKeyRing.verificationKey(header.getKeyId());
+                    }
+                })
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getVerifiedTokenCache().getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
     /**
@@ -86,17 +116,26 @@ public class JwtService {
         Map<String, Object> claimsMap = new HashMap<>();
         claimsMap.put(TOKEN_TYPE_CLAIM, tokenType);
         claimsMap.put(USER_ID_CLAIM, claims.userId());
-        claimsMap.put(ROLES_CLAIM, claims.roles());
-        claimsMap.put(PERMISSIONS_CLAIM, claims.permissions());
+        if (claims.authzVersion() != null) {
+            claimsMap.put(AUTHZ_VERSION_CLAIM, claims.authzVersion());
+        }
+        if (jwtConfig.getClaimsFormat() == JwtConfig.ClaimsFormat.COMPACT) {
+            claimsMap.put(COMPACT_ACCESS_CLAIM, CompactAccessClaims.encode(claims.roles(), claims.permissions()));
+        } else {
+            claimsMap.put(ROLES_CLAIM, claims.roles());
+            claimsMap.put(PERMISSIONS_CLAIM, claims.permissions());
+        }
 
+        SigningKey signingKey = signingKeyRing.active();
         return Jwts.builder()
+                .header().keyId(signingKey.keyId()).and()
                 .claims(claimsMap)
                 .subject(subject)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiryDate))
                 .id(UUID.randomUUID().toString())
                 .issuer(jwtConfig.getIssuer())
-                .signWith(keyPair.getPrivate(), Jwts.SIG.RS512)
+                .signWith(signingKey.privateKey(), signingKey.algorithm())
                 .compact();
     }
 
@@ -108,6 +147,43 @@ public class JwtService {
      * @throws JwtException Si le token est invalide
      */
     public JwtTokens.TokenInfo validateToken(String token) {
+        return verifyToken(token).tokenInfo();
+    }
+
+    /**
+     * Valide un token JWT en s'appuyant sur le cache des tokens déjà vérifiés.
+     * En cas de succès du cache, seules l'expiration et la révocation sont contrôlées.
+     *
+     * @param token Token à valider
+     * @return Token vérifié (informations et RuleContext associé)
+     * @throws TokenException Si le token est invalide, expiré ou révoqué
+     */
+    public VerifiedToken verifyToken(String token) {
+        String key = fingerprint(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            JwtTokens.TokenInfo tokenInfo = cached.tokenInfo();
+            if (!tokenInfo.expiresAt().isAfter(Instant.now())) {
+                verifiedTokens.invalidate(key);
+                throw new TokenException.TokenExpiredException(token, TokenException.ACCESS, null);
+            }
+            if (isTokenRevoked(tokenInfo.tokenId())
+                    || revocationEpochStore.isRevoked(tokenInfo.claims().userId(), tokenInfo.issuedAt())) {
+                verifiedTokens.invalidate(key);
+                throw new TokenException("Token révoqué");
+            }
+            return cached;
+        }
+
+        VerifiedToken verified = new VerifiedToken(parseAndValidate(token));
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    /**
+     * Vérifie la signature et les claims d'un token JWT
+     */
+    private JwtTokens.TokenInfo parseAndValidate(String token) {
         try {
             Claims claims = parseToken(token);
             // Vérifie si le token est révoqué
@@ -134,20 +210,32 @@ public class JwtService {
                 throw new TokenException("ID utilisateur manquant");
             }
 
-            // Extrait et valide les claims personnalisés
-            @SuppressWarnings("unchecked")
-            List<String> roles = claims.get(ROLES_CLAIM, List.class);
-            @SuppressWarnings("unchecked")
-            List<String> permissions = claims.get(PERMISSIONS_CLAIM, List.class);
-
-            if (roles == null || permissions == null) {
-                throw new TokenException("Rôles ou permissions manquants");
+            // Vérifie l'époque de révocation de l'utilisateur
+            if (revocationEpochStore.isRevoked(userId, claims.getIssuedAt().toInstant())) {
+                throw new TokenException("Token révoqué");
             }
 
-            JwtTokens.UserClaims userClaims = new JwtTokens.UserClaims(userId, claims.getSubject(), roles, permissions);
+            // Extrait et valide les claims personnalisés (format compact ou texte)
+            JwtTokens.UserClaims userClaims;
+            Long authzVersion = claims.get(AUTHZ_VERSION_CLAIM, Long.class);
+            String compactAccess = claims.get(COMPACT_ACCESS_CLAIM, String.class);
+            if (compactAccess != null) {
+                userClaims = CompactAccessClaims.toUserClaims(compactAccess, userId, claims.getSubject(), authzVersion);
+            } else {
+                @SuppressWarnings("unchecked")
+                List<String> roles = claims.get(ROLES_CLAIM, List.class);
+                @SuppressWarnings("unchecked")
+                List<String> permissions = claims.get(PERMISSIONS_CLAIM, List.class);
+
+                if (roles == null || permissions == null) {
+                    throw new TokenException("Rôles ou permissions manquants");
+                }
+                userClaims = new JwtTokens.UserClaims(userId, claims.getSubject(), roles, permissions, null, authzVersion);
+            }
 
             return new JwtTokens.TokenInfo(
                 claims.getSubject(),
+                jti,
                 claims.getIssuedAt().toInstant(),
                 claims.getExpiration().toInstant(),
                 userClaims
@@ -171,10 +259,6 @@ public class JwtService {
      */
     private Claims parseToken(String token) {
         try {
-            var jwtParser = Jwts.parser()
-                    .verifyWith(keyPair.getPublic())
-                    .build();
-
             return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             throw new TokenException("Erreur lors du parsing du token", e);
@@ -203,8 +287,9 @@ public class JwtService {
                 throw new TokenException("Impossible de révoquer un token déjà expiré");
             }
 
-            // Ajoute le token à la liste des tokens révoqués avec sa date d'expiration
-            revokedTokensCache.put(jti, new JwtTokens.RevokedToken(jti, expiryDate.toInstant()));
+            // Persiste la révocation avec sa date d'expiration (partagée entre les nœuds)
+            revokedTokenRegistry.revoke(jti, expiryDate.toInstant());
+            verifiedTokens.invalidate(fingerprint(token));
 
             log.info("Token {} révoqué avec succès", jti);
         } catch (JwtException e) {
@@ -220,12 +305,23 @@ public class JwtService {
      */
     public void revokeTokens(String username) {
         try {
-            // On ajoute une entrée spéciale dans le cache pour marquer tous les tokens de l'utilisateur comme révoqués
-            String userRevokeKey = "user_revoke:" + username;
-            revokedTokensCache.put(userRevokeKey, new JwtTokens.RevokedToken(
-                userRevokeKey,
-                Instant.now().plusMillis(jwtConfig.getRefreshToken().getExpiration())
-            ));
+            // Tous les tokens émis avant maintenant sont rejetés via l'époque de révocation de l'utilisateur
+            revocationEpochStore.revokeAll(username);
+            verifiedTokens.asMap().values().removeIf(verified -> username.equals(verified.tokenInfo().subject()));
+        } catch (Exception e) {
+            throw new TokenException("Erreur lors de la révocation des tokens", e);
+        }
+    }
+
+    /**
+     * Révoque tous les tokens d'un utilisateur dont l'identifiant est déjà connu
+     *
+     * @param userId ID de l'utilisateur
+     */
+    public void revokeTokens(Long userId) {
+        try {
+            revocationEpochStore.revokeAll(userId);
+            verifiedTokens.asMap().values().removeIf(verified -> userId.equals(verified.tokenInfo().claims().userId()));
         } catch (Exception e) {
             throw new TokenException("Erreur lors de la révocation des tokens", e);
         }
@@ -233,16 +329,50 @@ public class JwtService {
 
     /**
      * Vérifie si un token est révoqué
+     * Le filtre de Bloom du registre répond sans accès map ni base pour les tokens non révoqués
      * 
      * @param token ID unique du token
      * @return true si le token est révoqué
+     * @throws TokenException si la révocation ne peut pas être vérifiée : le token est alors rejeté
      */
     public boolean isTokenRevoked(String token) {
         try {
-            var revokedToken = revokedTokensCache.get(token, JwtTokens.RevokedToken.class);
-            return revokedToken != null && revokedToken.expiresAt().isAfter(Instant.now());
+            return revokedTokenRegistry.isRevoked(token);
         } catch (Exception e) {
-            return false;
+            throw new TokenException("Impossible de vérifier la révocation du token", e);
+        }
+    }
+
+    /**
+     * Empreinte SHA-256 du token, utilisée comme clé du cache des tokens vérifiés
+     */
+    private static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Expire chaque entrée du cache à la date d'expiration du token
+     */
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.tokenInfo().expiresAt());
+            return remaining.isNegative() ? 0 : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
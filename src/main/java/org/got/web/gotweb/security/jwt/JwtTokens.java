@@ -21,23 +21,34 @@ public sealed interface JwtTokens {
      * @param username Nom d'utilisateur
      * @param roles Liste des rôles (format: ROLE_NAME:DEPARTMENT_ID:CONTEXT_ID)
      * @param permissions Liste des permissions
+     * @param compactAccess Rôles et permissions au format compact ({@link CompactAccessClaims}), null pour un token au format texte
+     * @param authzVersion Version des autorisations à l'émission ({@link AuthorizationVersionStore}), null si inconnue
      */
     record UserClaims(
             Long userId,
             String username,
             List<String> roles,
-            List<String> permissions
-    ) implements JwtTokens {}
+            List<String> permissions,
+            String compactAccess,
+            Long authzVersion
+    ) implements JwtTokens {
+
+        public UserClaims(Long userId, String username, List<String> roles, List<String> permissions) {
+            this(userId, username, roles, permissions, null, null);
+        }
+    }
 
     /**
      * Informations sur un token JWT
      * @param subject Sujet du token (username)
+     * @param tokenId ID unique du token (jti)
      * @param issuedAt Date d'émission
      * @param expiresAt Date d'expiration
      * @param claims Claims personnalisés
      */
     record TokenInfo(
             String subject,
+            String tokenId,
             Instant issuedAt,
             Instant expiresAt,
             UserClaims claims
@@ -0,0 +1,156 @@
+package org.got.web.gotweb.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.collections.BloomFilter;
+import org.got.web.gotweb.exception.TokenException;
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+import static org.got.web.gotweb.config.CacheConfig.CACHE_REVOKED_TOKENS;
+
+/**
+ * Registre des tokens révoqués individuellement (jti).
+ * *
+ * Trois niveaux sont consultés dans l'ordre :
+ * - un filtre de Bloom en mémoire : un jti absent du filtre n'est pas révoqué (cas courant, sans accès map ni base)
+ * - le cache {@code revokedTokens} : réponse exacte pour les révocations récentes
+ * - le {@link RevokedTokenStore} : source de vérité, consultée uniquement sur faux positif ou éviction du cache
+ * *
+ * Les faux positifs confirmés par la base sont mémorisés dans un cache négatif borné, pour qu'un même token
+ * ne provoque pas une requête à chaque appel. Toute révocation enregistrée invalide l'entrée négative correspondante,
+ * et une génération empêche une lecture concurrente de la base de réinsérer une réponse périmée.
+ * *
+ * Le filtre est chargé au démarrage, complété périodiquement par les révocations des autres nœuds,
+ * et reconstruit après chaque compaction (un filtre de Bloom ne permet pas de suppression).
+ */
+@Slf4j
+@Component
+public class RevokedTokenRegistry {
+
+    private final RevokedTokenStore store;
+    private final JwtConfig.RevokedTokensProperties properties;
+    private final Cache revokedTokensCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Boolean> falsePositives;
+
+    private volatile BloomFilter filter;
+    private volatile long generation;
+    private volatile Instant lastSynchronization = Instant.EPOCH;
+
+    public RevokedTokenRegistry(RevokedTokenStore store, JwtConfig jwtConfig, CacheManager cacheManager) {
+        this.store = store;
+        this.properties = jwtConfig.getRevokedTokens();
+        this.revokedTokensCache = cacheManager.getCache(CACHE_REVOKED_TOKENS);
+        if (this.revokedTokensCache == null) {
+            throw new TokenException("Cache 'revokedTokens' non configuré");
+        }
+        this.falsePositives = Caffeine.newBuilder()
+                .maximumSize(properties.getFalsePositiveCacheSize())
+                .expireAfterWrite(Duration.ofMillis(jwtConfig.getExpiration()))
+                .build();
+        this.filter = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * @return true si le token est révoqué et pas encore expiré
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Instant now = Instant.now();
+        JwtTokens.RevokedToken revokedToken = revokedTokensCache.get(jti, JwtTokens.RevokedToken.class);
+        if (revokedToken == null) {
+            if (falsePositives.getIfPresent(jti) != null) {
+                return false;
+            }
+            // Faux positif du filtre ou entrée évincée du cache : la base tranche
+            long observedGeneration = generation;
+            revokedToken = store.find(jti).orElse(null);
+            if (revokedToken == null) {
+                if (observedGeneration == generation) {
+                    falsePositives.put(jti, Boolean.TRUE);
+                }
+                return false;
+            }
+            revokedTokensCache.put(jti, revokedToken);
+        }
+        return revokedToken.expiresAt().isAfter(now);
+    }
+
+    /**
+     * Persiste la révocation puis l'enregistre dans le filtre et le cache.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        JwtTokens.RevokedToken revokedToken = new JwtTokens.RevokedToken(jti, expiresAt);
+        store.save(revokedToken);
+        register(revokedToken);
+    }
+
+    /**
+     * Intègre les révocations enregistrées par les autres nœuds depuis la dernière synchronisation.
+     * Les fenêtres se chevauchent d'un intervalle pour absorber les décalages d'horloge entre nœuds.
+     */
+    @Scheduled(initialDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}",
+            fixedDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}")
+    public void synchronize() {
+        Instant now = Instant.now();
+        Instant since = lastSynchronization.minus(Duration.ofMillis(properties.getSyncInterval()));
+        Collection<JwtTokens.RevokedToken> revokedTokens = store.findRevokedSince(since, now);
+        revokedTokens.forEach(this::register);
+        lastSynchronization = now;
+        log.debug("Synchronisation des tokens révoqués : {} entrées intégrées", revokedTokens.size());
+    }
+
+    /**
+     * Supprime les révocations expirées puis reconstruit le filtre sur les entrées restantes.
+     */
+    @Scheduled(initialDelayString = "${spring.security.jwt.revoked-tokens.compaction-interval:3600000}",
+            fixedDelayString = "${spring.security.jwt.revoked-tokens.compaction-interval:3600000}")
+    public void compact() {
+        int deleted = store.deleteExpired(Instant.now());
+        log.info("Compaction des tokens révoqués : {} entrées expirées supprimées", deleted);
+        rebuild();
+    }
+
+    /**
+     * Recharge toutes les révocations actives dans un nouveau filtre, puis le substitue à l'ancien.
+     * Le verrou garantit qu'aucune révocation concurrente n'est perdue lors du remplacement.
+     */
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        Collection<JwtTokens.RevokedToken> active = store.findActive(now);
+        BloomFilter rebuilt = BloomFilter.create(
+                Math.max(properties.getExpectedInsertions(), 2L * active.size()), properties.getFalsePositiveRate());
+        for (JwtTokens.RevokedToken revokedToken : active) {
+            rebuilt.put(revokedToken.jti());
+            revokedTokensCache.put(revokedToken.jti(), revokedToken);
+        }
+        this.filter = rebuilt;
+        this.lastSynchronization = now;
+        generation++;
+        falsePositives.invalidateAll();
+        log.info("Filtre des tokens révoqués reconstruit : {} entrées actives", active.size());
+    }
+
+    private synchronized void register(JwtTokens.RevokedToken revokedToken) {
+        revokedTokensCache.put(revokedToken.jti(), revokedToken);
+        filter.put(revokedToken.jti());
+        generation++;
+        falsePositives.invalidate(revokedToken.jti());
+    }
+}
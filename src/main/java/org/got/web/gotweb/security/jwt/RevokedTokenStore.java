@@ -0,0 +1,35 @@
+package org.got.web.gotweb.security.jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage durable des tokens révoqués individuellement.
+ * *
+ * L'implémentation par défaut ({@link JpaRevokedTokenStore}) s'appuie sur la table {@code revoked_tokens},
+ * partagée entre les nœuds de l'API. Une autre implémentation peut être fournie en déclarant un bean de ce type.
+ */
+public interface RevokedTokenStore {
+
+    void save(JwtTokens.RevokedToken revokedToken);
+
+    Optional<JwtTokens.RevokedToken> find(String jti);
+
+    /**
+     * @return les tokens révoqués non encore expirés
+     */
+    List<JwtTokens.RevokedToken> findActive(Instant now);
+
+    /**
+     * @return les tokens révoqués après {@code since} et non encore expirés
+     */
+    List<JwtTokens.RevokedToken> findRevokedSince(Instant since, Instant now);
+
+    /**
+     * Supprime les entrées dont l'expiration est dépassée.
+     *
+     * @return le nombre d'entrées supprimées
+     */
+    int deleteExpired(Instant now);
+}
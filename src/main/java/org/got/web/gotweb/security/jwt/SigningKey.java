@@ -0,0 +1,49 @@
+package org.got.web.gotweb.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * Clé de signature des tokens.
+ *
+ * @param keyId Identifiant publié dans l'en-tête {@code kid} (empreinte RFC 7638 de la clé publique)
+ * @param algorithm Algorithme de signature (RS512, ES256, EdDSA...)
+ * @param privateKey Clé privée de signature
+ * @param publicKey Clé publique de vérification
+ * @param activateAt Date à partir de laquelle la clé signe les nouveaux tokens
+ * @param jwk Représentation publique JWK, exposée par l'endpoint JWKS
+ */
+public record SigningKey(String keyId,
+                         SignatureAlgorithm algorithm,
+                         PrivateKey privateKey,
+                         PublicKey publicKey,
+                         Instant activateAt,
+                         PublicJwk<?> jwk) {
+
+    /**
+     * @param algorithmId identifiant JWA de l'algorithme (RS256, RS512, ES256, ES384, ES512, EdDSA...)
+     * @param activateAt date d'activation, null pour une clé active immédiatement
+     * @throws IllegalStateException si l'algorithme n'est pas un algorithme de signature asymétrique connu
+     */
+    public static SigningKey of(String algorithmId, PrivateKey privateKey, PublicKey publicKey, Instant activateAt) {
+        SecureDigestAlgorithm<?, ?> algorithm = Jwts.SIG.get().get(algorithmId);
+        if (!(algorithm instanceof SignatureAlgorithm signatureAlgorithm)) {
+            throw new IllegalStateException("Algorithme de signature JWT non supporté : " + algorithmId);
+        }
+        PublicJwk<?> jwk = Jwks.builder()
+                .key(publicKey)
+                .algorithm(algorithmId)
+                .publicKeyUse("sig")
+                .idFromThumbprint()
+                .build();
+        return new SigningKey(jwk.getId(), signatureAlgorithm, privateKey, publicKey,
+                activateAt != null ? activateAt : Instant.EPOCH, jwk);
+    }
+}
@@ -0,0 +1,102 @@
+package org.got.web.gotweb.security.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trousseau des clés de signature des tokens.
+ * *
+ * Toutes les clés déclarées vérifient les tokens (table {@code kid} → clé précalculée) et sont publiées dans le JWKS,
+ * y compris celles dont l'activation est à venir : les clients les connaissent avant le premier token signé.
+ * La clé de signature est la dernière clé activée ; elle est réévaluée périodiquement, ce qui applique
+ * le calendrier de rotation sans redémarrage. Une clé retirée doit rester déclarée tant que des tokens
+ * signés avec elle peuvent encore être valides (durée de vie du refresh token).
+ * *
+ * Les tokens sans {@code kid} (émis avant la rotation) sont vérifiés avec la première clé déclarée.
+ */
+@Slf4j
+public class SigningKeyRing {
+
+    private final List<SigningKey> keys;
+    private final Map<String, SigningKey> byKeyId;
+    private final SigningKey legacyKey;
+
+    private volatile SigningKey active;
+
+    /**
+     * @param keys clés déclarées, la première servant aux tokens sans {@code kid}
+     * @throws IllegalStateException si aucune clé n'est active ou si deux clés partagent le même identifiant
+     */
+    public SigningKeyRing(List<SigningKey> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("Aucune clé de signature JWT déclarée");
+        }
+        Map<String, SigningKey> index = new HashMap<>();
+        for (SigningKey key : keys) {
+            if (index.putIfAbsent(key.keyId(), key) != null) {
+                throw new IllegalStateException("Clé de signature JWT déclarée deux fois : " + key.keyId());
+            }
+        }
+        this.keys = keys.stream().sorted(Comparator.comparing(SigningKey::activateAt)).toList();
+        this.byKeyId = Map.copyOf(index);
+        this.legacyKey = keys.get(0);
+        this.active = select(Instant.now());
+        if (this.active == null) {
+            throw new IllegalStateException("Aucune clé de signature JWT active à ce jour");
+        }
+        log.info("Clé de signature JWT active : {} ({}), {} clés publiées", active.keyId(), active.algorithm().getId(), keys.size());
+    }
+
+    /**
+     * @return la clé signant les nouveaux tokens
+     */
+    public SigningKey active() {
+        return active;
+    }
+
+    /**
+     * Applique le calendrier de rotation : bascule sur la dernière clé dont l'activation est passée.
+     */
+    @Scheduled(fixedDelayString = "${spring.security.jwt.signing.rotation-check-interval:60000}")
+    public void rotate() {
+        SigningKey selected = select(Instant.now());
+        if (selected != null && selected != active) {
+            log.info("Rotation de la clé de signature JWT : {} -> {} ({})",
+                    active.keyId(), selected.keyId(), selected.algorithm().getId());
+            active = selected;
+        }
+    }
+
+    /**
+     * @param keyId en-tête {@code kid} du token, null pour un token émis avant la rotation
+     * @return la clé publique de vérification, ou null si l'identifiant est inconnu
+     */
+    public Key verificationKey(String keyId) {
+        SigningKey key = keyId != null ? byKeyId.get(keyId) : legacyKey;
+        return key != null ? key.publicKey() : null;
+    }
+
+    /**
+     * @return toutes les clés déclarées, par date d'activation
+     */
+    public List<SigningKey> keys() {
+        return keys;
+    }
+
+    private SigningKey select(Instant now) {
+        SigningKey selected = null;
+        for (SigningKey key : keys) {
+            if (!key.activateAt().isAfter(now)) {
+                selected = key;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,142 @@
+package org.got.web.gotweb.security.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.collections.CopyOnWriteLongLongMap;
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Époque de révocation par utilisateur : tout token dont l'{@code iat} est antérieur à l'époque de son utilisateur est révoqué.
+ * *
+ * L'époque est conservée en mémoire dans une table primitive (userId → secondes epoch) pour une vérification en O(1),
+ * et persistée dans la colonne {@code users.tokens_not_before} pour survivre aux redémarrages.
+ * *
+ * La précision est la seconde, comme le claim {@code iat} : l'époque est arrondie à la seconde entière suivante,
+ * si bien que tout token émis dans la seconde de la révocation est lui aussi révoqué. L'utilisateur doit donc
+ * se reconnecter après cette seconde ; un token obtenu avant reste rejeté.
+ * *
+ * L'époque n'est publiée en mémoire qu'après validation de la transaction qui l'a persistée.
+ * Les époques posées par les autres nœuds sont intégrées par une synchronisation périodique
+ * ({@code spring.security.jwt.revoked-tokens.sync-interval}, comme les révocations unitaires).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationEpochStore {
+
+    private static final long NO_EPOCH = Long.MIN_VALUE;
+
+    private final GotUserRepository userRepository;
+    private final JwtConfig jwtConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CopyOnWriteLongLongMap epochs = new CopyOnWriteLongLongMap();
+
+    private volatile LocalDateTime lastSynchronization;
+
+    /**
+     * Charge les époques encore utiles : au-delà de la durée de vie maximale d'un token, une époque ne révoque plus rien.
+     */
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = userRepository.findTokensNotBeforeSince(now.minus(Duration.ofMillis(maxTokenLifetimeMillis())));
+        epochs.replaceAll(userIds(rows), notBefore(rows));
+        lastSynchronization = now;
+        log.info("Époques de révocation chargées : {} utilisateurs", rows.size());
+    }
+
+    /**
+     * Intègre les époques posées par les autres nœuds depuis la dernière synchronisation.
+     * Les fenêtres se chevauchent d'un intervalle pour absorber les décalages d'horloge et les validations tardives.
+     */
+    @Scheduled(initialDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}",
+            fixedDelayString = "${spring.security.jwt.revoked-tokens.sync-interval:30000}")
+    public void synchronize() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSynchronization.minus(Duration.ofMillis(jwtConfig.getRevokedTokens().getSyncInterval()));
+        List<Object[]> rows = userRepository.findTokensNotBeforeSince(since);
+        if (!rows.isEmpty()) {
+            epochs.mergeAll(userIds(rows), notBefore(rows), Math::max);
+        }
+        lastSynchronization = now;
+        log.debug("Synchronisation des époques de révocation : {} entrées intégrées", rows.size());
+    }
+
+    /**
+     * Révoque tous les tokens émis jusqu'à maintenant pour l'utilisateur, y compris dans la seconde courante.
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        userRepository.updateTokensNotBefore(userId, LocalDateTime.ofInstant(notBefore, ZoneId.systemDefault()));
+        eventPublisher.publishEvent(new TokensRevokedEvent(userId, notBefore.getEpochSecond()));
+        log.info("Tokens émis avant {} révoqués pour l'utilisateur {}", notBefore, userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        epochs.merge(event.userId(), event.notBeforeEpochSecond(), Math::max);
+    }
+
+    /**
+     * Révoque tous les tokens émis jusqu'à maintenant pour l'utilisateur.
+     *
+     * @return l'identifiant de l'utilisateur, ou null s'il n'existe pas
+     */
+    @Transactional
+    public Long revokeAll(String username) {
+        return userRepository.findIdByUsername(username)
+                .map(userId -> {
+                    revokeAll(userId);
+                    return userId;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * @return true si le token a été émis avant l'époque de révocation de l'utilisateur
+     */
+    public boolean isRevoked(long userId, Instant issuedAt) {
+        long notBefore = epochs.get(userId, NO_EPOCH);
+        return notBefore != NO_EPOCH && issuedAt.getEpochSecond() < notBefore;
+    }
+
+    private long maxTokenLifetimeMillis() {
+        return Math.max(jwtConfig.getExpiration(), jwtConfig.getRefreshToken().getExpiration());
+    }
+
+    private static long[] userIds(List<Object[]> rows) {
+        long[] userIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            userIds[i] = (Long) rows.get(i)[0];
+        }
+        return userIds;
+    }
+
+    private static long[] notBefore(List<Object[]> rows) {
+        long[] notBefore = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            notBefore[i] = toEpochSecond((LocalDateTime) rows.get(i)[1]);
+        }
+        return notBefore;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
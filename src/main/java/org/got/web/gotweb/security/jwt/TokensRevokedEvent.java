@@ -0,0 +1,7 @@
+package org.got.web.gotweb.security.jwt;
+
+/**
+ * Publié lorsque l'époque de révocation d'un utilisateur a été persistée.
+ */
+public record TokensRevokedEvent(Long userId, long notBeforeEpochSecond) {
+}
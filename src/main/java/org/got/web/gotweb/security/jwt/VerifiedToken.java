@@ -0,0 +1,36 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.evaluator.RuleContext;
+
+import java.util.function.Function;
+
+/**
+ * Token dont la signature a déjà été vérifiée, conservé dans le cache de {@link JwtService}.
+ * Le RuleContext dérivé des claims est calculé une seule fois puis partagé entre les requêtes.
+ */
+public final class VerifiedToken {
+
+    private final JwtTokens.TokenInfo tokenInfo;
+    private volatile RuleContext ruleContext;
+
+    VerifiedToken(JwtTokens.TokenInfo tokenInfo) {
+        this.tokenInfo = tokenInfo;
+    }
+
+    public JwtTokens.TokenInfo tokenInfo() {
+        return tokenInfo;
+    }
+
+    /**
+     * Retourne le RuleContext associé au token, en le construisant au premier appel.
+     * Un calcul concurrent est sans conséquence : le résultat est identique et immuable.
+     */
+    public RuleContext ruleContext(Function<JwtTokens.UserClaims, RuleContext> builder) {
+        RuleContext current = ruleContext;
+        if (current == null) {
+            current = builder.apply(tokenInfo.claims());
+            ruleContext = current;
+        }
+        return current;
+    }
+}
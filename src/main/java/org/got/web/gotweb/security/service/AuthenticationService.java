@@ -9,18 +9,16 @@ import org.got.web.gotweb.security.dto.RefreshTokenRequest;
 import org.got.web.gotweb.security.jwt.JwtService;
 import org.got.web.gotweb.security.jwt.JwtTokens;
 import org.got.web.gotweb.user.domain.GotUser;
-import org.got.web.gotweb.user.domain.UserRole;
 import org.got.web.gotweb.user.repository.GotUserRepository;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 /**
  * Service pour gérer l'authentification des utilisateurs
  * Gère le login, la génération des tokens JWT et le refresh des tokens
@@ -33,16 +31,23 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final GotUserRepository userRepository;
+    private final UserClaimsLoader userClaimsLoader;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     /**
      * Authentifie un utilisateur et génère les tokens JWT
+     * La limitation des tentatives s'applique en premier : sans transaction englobante,
+     * une tentative rejetée ne mobilise ni connexion à la base ni vérification BCrypt.
+     * Seuls les identifiants invalides sont comptés comme échecs (ni compte verrouillé, ni saturation du hachage).
      *
      * @param loginRequest Requête de login avec username et password
+     * @param clientIp Adresse IP du client
      * @return Réponse contenant les tokens et les informations utilisateur
      * @throws AuthenticationException si les identifiants sont invalides ou l'utilisateur n'existe pas
+     * @throws AuthenticationException.TooManyAttemptsException si la tentative dépasse un seuil de limitation
      */
-    @Transactional
-    public LoginResponse authenticate(LoginRequest loginRequest) {
+    public LoginResponse authenticate(LoginRequest loginRequest, String clientIp) {
+        loginAttemptLimiter.acquire(loginRequest.getUsername(), clientIp);
         try {
             // Authentifie l'utilisateur
             Authentication authentication = authenticationManager.authenticate(
@@ -57,6 +62,8 @@ public class AuthenticationService {
 
             // Récupère l'utilisateur
             GotUser user = (GotUser) authentication.getPrincipal();
+            loginAttemptLimiter.onSuccess(user.getUsername(),
+                    user.getFailedLoginAttempts() > 0 || user.getLockedUntil() != null);
 
             // Crée les claims utilisateur
             JwtTokens.UserClaims claims = createUserClaims(user);
@@ -68,13 +75,20 @@ public class AuthenticationService {
             return buildLoginResponse(user, tokens);
 
         } catch (BadCredentialsException e) {
+            loginAttemptLimiter.onFailure(loginRequest.getUsername(), clientIp);
             log.warn("Tentative de connexion échouée pour l'utilisateur : {}", loginRequest.getUsername());
             throw new AuthenticationException("Identifiants invalides", e);
+        } catch (LockedException e) {
+            log.warn("Tentative de connexion sur un compte verrouillé : {}", loginRequest.getUsername());
+            throw new AuthenticationException("Compte temporairement verrouillé", e);
         }
     }
 
     /**
      * Rafraîchit un token JWT expiré
+     * Les claims ne sont recalculés que si la version des autorisations de l'utilisateur a changé :
+     * toute modification des droits effectifs incrémente cette version, y compris le passage d'une borne de validité
+     * (voir {@code UserRoleValidityScheduler}) et la réconciliation des permissions effectives au démarrage
      *
      * @param refreshRequest Requête contenant le refresh token
      * @return Nouveaux tokens JWT
@@ -90,8 +104,11 @@ public class AuthenticationService {
             GotUser user = userRepository.findByUsername(tokenInfo.subject())
                     .orElseThrow(() -> new AuthenticationException("Utilisateur non trouvé : " + tokenInfo.subject()));
 
-            // Crée les claims utilisateur
-            JwtTokens.UserClaims claims = createUserClaims(user);
+            // Réutilise les claims du refresh token si les autorisations n'ont pas changé depuis son émission
+            JwtTokens.UserClaims previous = tokenInfo.claims();
+            JwtTokens.UserClaims claims = previous.authzVersion() != null && previous.authzVersion() == user.getAuthzVersion()
+                    ? previous
+                    : createUserClaims(user);
 
             // Génère de nouveaux tokens
             JwtTokens.TokenPair tokens = jwtService.generateTokenPair(user, claims);
@@ -124,35 +141,7 @@ public class AuthenticationService {
      * - Permissions par défaut des Departments
      */
     private JwtTokens.UserClaims createUserClaims(GotUser user) {
-        // Extrait les rôles avec leur contexte
-        List<String> roles = user.getUserRoles().stream()
-                .map(this::formatRole)
-                .toList();
-
-        // Extrait toutes les permissions uniques de l'utilisateur
-        List<String> permissions = user.getUserRoles().stream()
-                .flatMap(role -> role.getAllPermissions().stream())
-                .map(p -> "PERM_" + p.getId())
-                .distinct()
-                .toList();
-
-        return new JwtTokens.UserClaims(
-                user.getId(),
-                user.getUsername(),
-                roles,
-                permissions
-        );
-    }
-
-    /**
-     * Formate un rôle utilisateur avec son contexte
-     * Format: ROLE_ID:DEPARTMENT_ID:CONTEXT_ID
-     */
-    private String formatRole(UserRole userRole) {
-        return String.format("ROLE_%s:%d:%d",
-                userRole.getRole().getId(),
-                userRole.getDepartment().getId(),
-                userRole.getContext().getId());
+        return userClaimsLoader.load(user.getId(), user.getUsername());
     }
 
     /**
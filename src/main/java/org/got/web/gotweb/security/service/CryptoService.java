@@ -4,7 +4,6 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.got.web.gotweb.user.repository.GotUserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.nio.ByteBuffer;
@@ -16,22 +15,22 @@ import java.util.Base64;
 @Slf4j
 public class CryptoService {
     
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingPool passwordHashingPool;
     private final SecureRandom secureRandom = new SecureRandom();
     private final GotUserRepository gotUserRepository;
 
     /**
-     * Hache un mot de passe en utilisant BCrypt
+     * Hache un mot de passe en utilisant BCrypt, sur le pool dédié
      */
     public String hashPassword(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return passwordHashingPool.encode(rawPassword);
     }
 
     /**
      * Vérifie si un mot de passe correspond à sa version hachée
      */
     public boolean verifyPassword(String rawPassword, String hashedPassword) {
-        return passwordEncoder.matches(rawPassword, hashedPassword);
+        return passwordHashingPool.matches(rawPassword, hashedPassword);
     }
 
     /**
@@ -42,6 +41,14 @@ public class CryptoService {
     }
 
 
+    /**
+     * Génère un token de vérification d'email sans contrôle d'unicité en base.
+     * Réservé aux traitements en masse : 256 bits aléatoires suivis de l'horodatage rendent toute collision négligeable.
+     */
+    public String generateRandomVerificationToken() {
+        return generateUniqueVerificationToken();
+    }
+
     /**
      * Génère un token sécurisé pour la réinitialisation de mot de passe
      */
@@ -100,6 +107,6 @@ public class CryptoService {
     }
 
     public boolean checkPassword(@NotBlank String oldPassword, @NotBlank String password) {
-        return passwordEncoder.matches(oldPassword, password);
+        return passwordHashingPool.matches(oldPassword, password);
     }
 }
@@ -1,19 +1,24 @@
 package org.got.web.gotweb.security.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.domain.GotUser;
 import org.got.web.gotweb.user.repository.GotUserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Service pour charger les détails des utilisateurs pour Spring Security
+ * Service pour charger les détails des utilisateurs pour Spring Security,
+ * et persister l'empreinte réécrite à la connexion lorsque le coût BCrypt a augmenté
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final GotUserRepository userRepository;
 
@@ -23,4 +28,15 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.loadUserForAuthentication(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + username));
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        log.info("Empreinte du mot de passe réécrite au coût courant pour {}", user.getUsername());
+        if (user instanceof GotUser gotUser) {
+            gotUser.setPassword(newPassword);
+        }
+        return user;
+    }
 }
@@ -0,0 +1,135 @@
+package org.got.web.gotweb.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.ratelimit.SlidingWindowCounter;
+import org.got.web.gotweb.exception.AuthenticationException;
+import org.got.web.gotweb.security.config.LoginThrottlingConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Limitation des tentatives de connexion par nom d'utilisateur et par adresse IP, avant tout accès base et tout BCrypt.
+ * *
+ * Le contrôle préalable ({@link #acquire}) ne fait que lire les compteurs : seuls les échecs d'identifiants
+ * ({@link #onFailure}) sont comptés, par adresse IP et par nom d'utilisateur depuis la dernière connexion réussie.
+ * Une tentative rejetée par la limitation, par un compte verrouillé ou par la saturation du hachage n'est pas comptée :
+ * un client anonyme ne peut donc pas verrouiller un compte sans soumettre autant de mots de passe erronés.
+ * Les tentatives concurrentes en cours ne sont comptées qu'à leur échec ; leur nombre est borné par le pool de hachage.
+ * *
+ * Au-delà du seuil, la tentative est rejetée sans être traitée, avec un délai calculé sur l'état du compteur.
+ * L'échec qui atteint le seuil d'un nom d'utilisateur verrouille le compte en base, de manière asynchrone
+ * ({@link LoginLockoutWriter}), pour que les autres nœuds le refusent aussi.
+ * L'adresse IP est celle résolue par le conteneur ({@code server.forward-headers-strategy}) : derrière un proxy
+ * non déclaré de confiance, tous les clients partageraient l'adresse du proxy et donc le même seuil.
+ * *
+ * Métriques : {@code security.login.rejected} (tag {@code reason} = username | ip), {@code security.login.lockouts}
+ * et {@code security.login.lockout.pending}.
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    private final LoginThrottlingConfig config;
+    private final LoginLockoutWriter lockoutWriter;
+    private final SlidingWindowCounter usernameAttempts;
+    private final SlidingWindowCounter ipAttempts;
+    private final Counter rejectedByUsername;
+    private final Counter rejectedByIp;
+    private final Counter lockouts;
+
+    public LoginAttemptLimiter(LoginThrottlingConfig config, LoginLockoutWriter lockoutWriter, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.lockoutWriter = lockoutWriter;
+        Duration window = Duration.ofMillis(config.getWindow());
+        this.usernameAttempts = new SlidingWindowCounter(window, config.getMaxTrackedKeys());
+        this.ipAttempts = new SlidingWindowCounter(window, config.getMaxTrackedKeys());
+        this.rejectedByUsername = Counter.builder("security.login.rejected")
+                .description("Tentatives de connexion rejetées par la limitation")
+                .tag("reason", "username")
+                .register(meterRegistry);
+        this.rejectedByIp = Counter.builder("security.login.rejected")
+                .description("Tentatives de connexion rejetées par la limitation")
+                .tag("reason", "ip")
+                .register(meterRegistry);
+        this.lockouts = Counter.builder("security.login.lockouts")
+                .description("Comptes verrouillés après dépassement du seuil de tentatives")
+                .register(meterRegistry);
+        Gauge.builder("security.login.lockout.pending", lockoutWriter, LoginLockoutWriter::pendingCount)
+                .description("Verrouillages en attente d'écriture en base")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejette la tentative si un seuil d'échecs est atteint, sans la compter.
+     *
+     * @throws AuthenticationException.TooManyAttemptsException si la tentative est rejetée
+     */
+    public void acquire(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        if (clientIp != null && ipAttempts.estimate(clientIp, now) >= config.getMaxAttemptsPerIp()) {
+            rejectedByIp.increment();
+            throw new AuthenticationException.TooManyAttemptsException(
+                    retryAfterSeconds(ipAttempts, clientIp, config.getMaxAttemptsPerIp(), now));
+        }
+
+        String key = key(username);
+        if (usernameAttempts.estimate(key, now) >= config.getMaxAttemptsPerUsername()) {
+            rejectedByUsername.increment();
+            throw new AuthenticationException.TooManyAttemptsException(
+                    retryAfterSeconds(usernameAttempts, key, config.getMaxAttemptsPerUsername(), now));
+        }
+    }
+
+    /**
+     * Identifiants invalides : compte l'échec et verrouille le compte lorsque le seuil est atteint.
+     */
+    public void onFailure(String username, String clientIp) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            ipAttempts.incrementAndEstimate(clientIp, now);
+        }
+        long failures = usernameAttempts.incrementAndEstimate(key(username), now);
+        if (failures == config.getMaxAttemptsPerUsername()) {
+            lockouts.increment();
+            lockoutWriter.lock(key(username), config.getMaxAttemptsPerUsername(),
+                    LocalDateTime.now().plus(Duration.ofMillis(config.getLockDuration())));
+            log.warn("Compte {} verrouillé après {} échecs de connexion", username, failures);
+        }
+    }
+
+    /**
+     * Connexion réussie : remet à zéro les tentatives du nom d'utilisateur.
+     *
+     * @param persistedFailures true si le compte porte des échecs ou un verrouillage en base à effacer
+     */
+    public void onSuccess(String username, boolean persistedFailures) {
+        usernameAttempts.reset(key(username));
+        if (persistedFailures) {
+            lockoutWriter.reset(key(username));
+        }
+    }
+
+    /**
+     * @return le délai, arrondi à la seconde supérieure, avant que l'estimation repasse sous le seuil
+     */
+    private static long retryAfterSeconds(SlidingWindowCounter counter, String key, long limit, long now) {
+        return Math.max(1, Math.ceilDiv(counter.millisUntilBelow(key, limit, now), 1000));
+    }
+
+    private static String key(String username) {
+        return username != null ? username.toLowerCase(Locale.ROOT) : "";
+    }
+}
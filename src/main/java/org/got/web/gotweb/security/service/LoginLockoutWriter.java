@@ -0,0 +1,73 @@
+package org.got.web.gotweb.security.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistance asynchrone de l'état de verrouillage des comptes (colonnes {@code failed_login_attempts},
+ * {@code last_failed_login_attempt} et {@code locked_until}).
+ * *
+ * Les mises à jour sont regroupées par nom d'utilisateur (la dernière l'emporte) puis écrites périodiquement :
+ * le chemin de connexion n'attend jamais la base pour enregistrer un verrouillage ou sa levée.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginLockoutWriter {
+
+    private final GotUserRepository userRepository;
+
+    private final Map<String, LockoutUpdate> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Planifie le verrouillage du compte.
+     */
+    public void lock(String username, int failedAttempts, LocalDateTime lockedUntil) {
+        pending.put(username, new LockoutUpdate(failedAttempts, LocalDateTime.now(), lockedUntil));
+    }
+
+    /**
+     * Planifie la remise à zéro des échecs du compte (connexion réussie).
+     */
+    public void reset(String username) {
+        pending.put(username, LockoutUpdate.RESET);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttling.flush-interval:5000}")
+    @Transactional
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        for (String username : pending.keySet()) {
+            LockoutUpdate update = pending.remove(username);
+            if (update == null) {
+                continue;
+            }
+            if (update == LockoutUpdate.RESET) {
+                written += userRepository.resetLoginFailures(username);
+            } else {
+                written += userRepository.updateLoginLockout(username, update.failedAttempts(),
+                        update.lastFailedAt(), update.lockedUntil());
+            }
+        }
+        log.debug("État de verrouillage persisté pour {} comptes", written);
+    }
+
+    private record LockoutUpdate(int failedAttempts, LocalDateTime lastFailedAt, LocalDateTime lockedUntil) {
+        private static final LockoutUpdate RESET = new LockoutUpdate(0, null, null);
+    }
+}
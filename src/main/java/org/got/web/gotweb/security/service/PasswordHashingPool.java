@@ -0,0 +1,222 @@
+package org.got.web.gotweb.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.exception.TechnicalException;
+import org.got.web.gotweb.security.config.PasswordHashingConfig;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool borné de threads dédié au hachage et à la vérification BCrypt (connexion, changement de mot de passe, traitements en masse).
+ * Le hachage étant purement CPU, la taille par défaut est le nombre de processeurs disponibles.
+ * *
+ * Contrôle d'admission : au-delà de {@code queueCapacity} demandes en attente, une demande interactive est rejetée
+ * immédiatement ({@link TechnicalException.ServiceUnavailableException}, 503) plutôt que d'allonger la file
+ * et de bloquer un thread de requête.
+ * Les traitements en masse ne sont jamais rejetés : ils occupent au plus un emplacement par thread du pool
+ * et, file pleine, hachent sur le thread appelant, ce qui les ralentit sans affamer les connexions.
+ * *
+ * Métriques : {@code security.password.hashing.queue.wait} (attente en file), {@code security.password.hashing.duration}
+ * (durée du calcul, par opération), {@code security.password.hashing.rejected} et {@code security.password.hashing.queue.size}.
+ */
+@Slf4j
+@Component
+public class PasswordHashingPool {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore bulkPermits;
+    private final PasswordEncoder pooledEncoder = new PooledPasswordEncoder();
+    private final Timer queueWait;
+    private final Timer encodeDuration;
+    private final Timer matchDuration;
+    private final Counter rejected;
+
+    public PasswordHashingPool(BCryptPasswordEncoder passwordEncoder, PasswordHashingConfig config, MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int size = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.bulkPermits = new Semaphore(size);
+
+        this.queueWait = Timer.builder("security.password.hashing.queue.wait")
+                .description("Attente en file avant hachage ou vérification")
+                .register(meterRegistry);
+        this.encodeDuration = Timer.builder("security.password.hashing.duration")
+                .description("Durée de calcul BCrypt")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchDuration = Timer.builder("security.password.hashing.duration")
+                .description("Durée de calcul BCrypt")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("security.password.hashing.rejected")
+                .description("Demandes rejetées, file de hachage pleine")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Demandes en attente de hachage")
+                .register(meterRegistry);
+        log.info("Pool de hachage des mots de passe : {} threads, file bornée à {}", size, config.getQueueCapacity());
+    }
+
+    /**
+     * @return un encodeur dont le hachage et la vérification s'exécutent sur le pool, pour Spring Security et les services
+     */
+    public PasswordEncoder passwordEncoder() {
+        return pooledEncoder;
+    }
+
+    /**
+     * Hache un mot de passe sur le pool.
+     *
+     * @throws TechnicalException.ServiceUnavailableException si la file d'attente est pleine
+     */
+    public String encode(CharSequence rawPassword) {
+        return await(admit(measured(() -> passwordEncoder.encode(rawPassword), encodeDuration)));
+    }
+
+    /**
+     * Vérifie un mot de passe sur le pool.
+     *
+     * @throws TechnicalException.ServiceUnavailableException si la file d'attente est pleine
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(admit(measured(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchDuration)));
+    }
+
+    /**
+     * Hache les mots de passe en parallèle, sans être soumis au contrôle d'admission.
+     *
+     * @return les empreintes, dans l'ordre des mots de passe fournis
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        try {
+            for (String rawPassword : rawPasswords) {
+                bulkPermits.acquire();
+                FutureTask<String> task = new FutureTask<>(measured(() -> passwordEncoder.encode(rawPassword), encodeDuration));
+                futures.add(task);
+                try {
+                    executor.execute(() -> {
+                        try {
+                            task.run();
+                        } finally {
+                            bulkPermits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    try {
+                        task.run();
+                    } finally {
+                        bulkPermits.release();
+                    }
+                }
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new TechnicalException("Hachage des mots de passe interrompu", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new TechnicalException("Erreur lors du hachage des mots de passe", e.getCause());
+        }
+    }
+
+    /**
+     * Enveloppe le calcul pour mesurer son attente en file (depuis maintenant) et sa durée.
+     */
+    private <T> Callable<T> measured(Callable<T> work, Timer duration) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return duration.recordCallable(work);
+        };
+    }
+
+    private <T> Future<T> admit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("File de hachage des mots de passe pleine ({} en attente), demande rejetée", executor.getQueue().size());
+            throw new TechnicalException.ServiceUnavailableException(
+                    "Service momentanément saturé, réessayez dans quelques instants", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new TechnicalException("Hachage du mot de passe interrompu", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new TechnicalException("Erreur lors du hachage du mot de passe", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encodeur exécutant le calcul BCrypt sur le pool.
+     * La décision de réécriture ne coûte rien et reste sur le thread appelant : vraie si l'empreinte a un coût
+     * inférieur au coût courant, ce qui déclenche sa réécriture à la connexion ({@code UserDetailsPasswordService}).
+     */
+    private final class PooledPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return PasswordHashingPool.this.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return PasswordHashingPool.this.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return passwordEncoder.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.got.web.gotweb.security.service;
+
+import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.security.jwt.JwtTokens;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.got.web.gotweb.user.repository.projection.RoleAssignmentKey;
+import org.got.web.gotweb.user.service.EffectivePermissionService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chemin de lecture dédié à la génération des claims JWT.
+ * *
+ * Deux requêtes de projection remplacent le parcours du graphe d'entités :
+ * - les tuples (rôle, département, contexte) des affectations de l'utilisateur
+ * - les identifiants distincts de ses permissions effectives, lus dans la table matérialisée
+ * Le coût ne dépend plus du produit rôles × permissions.
+ * *
+ * Seules les affectations actives à l'émission sont embarquées : le passage d'une borne de validité incrémente
+ * la version des autorisations de l'utilisateur (voir {@code UserRoleValidityScheduler}), ce qui périme ses tokens ;
+ * aucun filtrage temporel n'est fait par requête.
+ * *
+ * La version est lue avant les affectations : une modification concurrente produit au pire un token déjà périmé,
+ * jamais un token à jour portant des droits obsolètes.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserClaimsLoader {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String PERMISSION_PREFIX = "PERM_";
+
+    private final UserRoleRepository userRoleRepository;
+    private final EffectivePermissionService effectivePermissionService;
+    private final GotUserRepository userRepository;
+
+    /**
+     * Construit les claims utilisateur à partir des projections.
+     *
+     * @param userId ID de l'utilisateur
+     * @param username Nom d'utilisateur
+     * @return Claims à embarquer dans les tokens
+     */
+    @Transactional(readOnly = true)
+    public JwtTokens.UserClaims load(Long userId, String username) {
+        Long authzVersion = userRepository.findAuthzVersionById(userId).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        List<RoleAssignmentKey> assignments = userRoleRepository.findRoleAssignmentKeys(userId, now);
+        List<String> roles = new ArrayList<>(assignments.size());
+        for (RoleAssignmentKey assignment : assignments) {
+            roles.add(formatRole(assignment));
+        }
+
+        List<Long> permissionIds = effectivePermissionService.getPermissionIds(userId, now);
+        List<String> permissions = new ArrayList<>(permissionIds.size());
+        for (Long permissionId : permissionIds) {
+            permissions.add(PERMISSION_PREFIX + permissionId);
+        }
+
+        return new JwtTokens.UserClaims(userId, username, List.copyOf(roles), List.copyOf(permissions), null, authzVersion);
+    }
+
+    /**
+     * Formate une affectation de rôle
+     * Format: ROLE_ID:DEPARTMENT_ID:CONTEXT_ID
+     */
+    private static String formatRole(RoleAssignmentKey assignment) {
+        return ROLE_PREFIX + assignment.roleId() + ':' + assignment.departmentId() + ':' + assignment.contextId();
+    }
+}
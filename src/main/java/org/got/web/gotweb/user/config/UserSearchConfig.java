@@ -0,0 +1,19 @@
+package org.got.web.gotweb.user.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration de la recherche textuelle des utilisateurs (index trigrammes pg_trgm)
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.users.search")
+@Getter
+@Setter
+public class UserSearchConfig {
+    private double similarityThreshold = 0.5; // En dessous, un utilisateur n'est pas retenu par la recherche approchée
+    private int maxCandidates = 200; // Documents évalués au plus par recherche, quelle que soit la fréquence du terme
+    private int maxResults = 50;
+}
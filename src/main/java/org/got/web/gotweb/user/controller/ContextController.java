@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.dto.context.request.ContextCreateDTO;
 import org.got.web.gotweb.user.dto.context.request.ContextUpdateDTO;
 import org.got.web.gotweb.user.dto.context.response.ContextResponseDTO;
@@ -67,6 +68,19 @@ public class ContextController {
         return ResponseEntity.ok(contexts);
     }
 
+    @Operation(summary = "Rechercher des contextes par curseur",
+            description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante")
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPage<ContextResponseDTO>> scrollContexts(
+            @Valid ContextSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        return ResponseEntity.ok(contextService.scrollContexts(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @Operation(summary = "Récupérer un contexte par son identifiant")
     @GetMapping("/{contextId}")
     public ResponseEntity<ContextResponseDTO> getContext(@PathVariable Long contextId) {
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.dto.department.request.DepartmentCreateDTO;
 import org.got.web.gotweb.user.dto.department.request.DepartmentDefaultPermissionDTO;
 import org.got.web.gotweb.user.dto.department.request.DepartmentUpdateDTO;
@@ -25,6 +26,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/departments")
 @RequiredArgsConstructor
@@ -59,12 +62,31 @@ public class DepartmentController {
         return ResponseEntity.ok(departments);
     }
 
+    @Operation(summary = "Rechercher des départements par curseur",
+            description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante")
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPage<DepartmentResponseDTO>> scrollDepartments(
+            @Valid DepartmentSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        return ResponseEntity.ok(departmentService.scrollDepartments(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @Operation(summary = "Récupérer un département par son ID")
     @GetMapping("/{departmentId}")
     public ResponseEntity<DepartmentResponseDTO> getDepartment(@PathVariable Long departmentId) {
         return ResponseEntity.ok(departmentService.getDepartmentById(departmentId));
     }
 
+    @Operation(summary = "Récupérer tous les sous-départements d'un département, quelle que soit leur profondeur")
+    @GetMapping("/{departmentId}/descendants")
+    public ResponseEntity<List<DepartmentResponseDTO>> getDescendants(@PathVariable Long departmentId) {
+        return ResponseEntity.ok(departmentService.getDescendants(departmentId));
+    }
+
     @Operation(summary = "Récupérer un département par son nom")
     @GetMapping("name/{name}")
     public ResponseEntity<DepartmentResponseDTO> getDepartmentByName(@PathVariable String name) {
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.dto.permission.request.PermissionCreateDTO;
 import org.got.web.gotweb.user.dto.permission.request.PermissionUpdateDTO;
 import org.got.web.gotweb.user.dto.permission.response.PermissionResponseDTO;
@@ -64,6 +65,19 @@ public class PermissionController {
         return ResponseEntity.ok(permissions);
     }
 
+    @Operation(summary = "Rechercher des permissions par curseur",
+            description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante")
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPage<PermissionResponseDTO>> scrollPermissions(
+            @Valid PermissionSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        return ResponseEntity.ok(permissionService.scrollPermissions(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @Operation(summary = "Récupérer une permission par son ID")
     @GetMapping("/{permissionId}")
     public ResponseEntity<PermissionResponseDTO> getPermissionById(@PathVariable Long permissionId) {
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.dto.role.request.RoleCreateDTO;
 import org.got.web.gotweb.user.dto.role.request.RolePermissionDTO;
 import org.got.web.gotweb.user.dto.role.request.RoleUpdateDTO;
@@ -68,6 +69,19 @@ public class RoleController {
         return ResponseEntity.ok(roles);
     }
 
+    @Operation(summary = "Rechercher des rôles par curseur",
+            description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante")
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPage<RoleResponseDTO>> scrollRoles(
+            @Valid RoleSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        return ResponseEntity.ok(roleService.scrollRoles(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @Operation(summary = "Rechercher un rôle")
     @GetMapping("/{roleId}")
     public ResponseEntity<RoleResponseDTO> getRole(@PathVariable Long roleId) {
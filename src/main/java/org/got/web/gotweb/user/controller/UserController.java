@@ -7,7 +7,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.domain.GotUser;
+import org.got.web.gotweb.user.dto.user.request.UserBulkCreateDTO;
 import org.got.web.gotweb.user.dto.user.request.UserCreateDTO;
 import org.got.web.gotweb.user.dto.user.request.UserRoleAssignToUserDTO;
 import org.got.web.gotweb.user.dto.user.request.UserRolePermissionsDTO;
@@ -15,16 +17,24 @@ import org.got.web.gotweb.user.dto.user.request.UserRoleRemoveDTO;
 import org.got.web.gotweb.user.dto.user.request.UserRoleUpdateValidityDTO;
 import org.got.web.gotweb.user.dto.user.request.UserUpdateDTO;
 import org.got.web.gotweb.user.dto.user.request.UserUpdatePasswordDTO;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO;
 import org.got.web.gotweb.user.dto.user.response.UserResponseDTO;
 import org.got.web.gotweb.user.dto.user.response.UserResponseFullDTO;
 import org.got.web.gotweb.user.dto.user.response.UserRoleResponseDTO;
+import org.got.web.gotweb.user.dto.user.response.UserSearchHitDTO;
 import org.got.web.gotweb.user.dto.user.search.UserSearchCriteria;
 import org.got.web.gotweb.user.mapper.GotUserMapper;
 import org.got.web.gotweb.user.service.GotUserService;
+import org.got.web.gotweb.user.service.UserProvisioningService;
+import org.got.web.gotweb.user.service.UserSearchService;
+import org.got.web.gotweb.user.service.export.UserExportFormat;
+import org.got.web.gotweb.user.service.export.UserExportService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,6 +46,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -45,6 +58,9 @@ public class UserController {
 
     private final GotUserService userService;
     private final GotUserMapper userMapper;
+    private final UserProvisioningService userProvisioningService;
+    private final UserExportService userExportService;
+    private final UserSearchService userSearchService;
 
     @PostMapping
 
@@ -62,6 +78,19 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(userMapper.toResponseFullDTO(user));
     }
 
+    @PostMapping("/bulk")
+    @Operation(
+        summary = "Créer des utilisateurs en masse",
+        description = "Crée plusieurs utilisateurs en une requête et retourne le statut de chaque ligne"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Traitement effectué, voir le statut de chaque ligne"),
+        @ApiResponse(responseCode = "400", description = "Requête invalide")
+    })
+    public ResponseEntity<UserBulkCreateResponseDTO> createUsers(@Valid @RequestBody UserBulkCreateDTO bulkCreateDTO) {
+        return ResponseEntity.ok(userProvisioningService.createUsers(bulkCreateDTO));
+    }
+
     @GetMapping
     @Operation(
         summary = "Récupérer tous les utilisateurs",
@@ -80,6 +109,25 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers(pageable).map(userMapper::toResponseDTO));
     }
 
+    @GetMapping("/export")
+    @Operation(
+        summary = "Exporter tous les utilisateurs",
+        description = "Exporte en flux tous les utilisateurs avec leurs affectations de rôle, au format NDJSON ou CSV"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export en cours de transfert"),
+        @ApiResponse(responseCode = "400", description = "Format d'export inconnu")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+        @Parameter(description = "Format d'export (ndjson/csv)") @RequestParam(defaultValue = "ndjson") String format) {
+        UserExportFormat exportFormat = UserExportFormat.from(format);
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.extension() + "\"")
+            .body(body);
+    }
+
     @GetMapping("/{id}")
 //    @PreAuthorize("hasRole('SUPER_ADMIN') or @userSecurity.isCurrentUser(#id)")
     @Operation(
@@ -148,6 +196,41 @@ public class UserController {
         return ResponseEntity.ok(userPage);
     }
 
+    @GetMapping("/search/text")
+    @Operation(
+        summary = "Recherche textuelle des utilisateurs",
+        description = "Recherche par préfixe, sous-chaîne ou approximation sur le nom d'utilisateur, l'email, le prénom et le nom, classée par pertinence"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Utilisateurs trouvés, du plus pertinent au moins pertinent"),
+        @ApiResponse(responseCode = "400", description = "Terme de recherche trop court"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<List<UserSearchHitDTO>> searchUsersByText(
+        @Parameter(description = "Terme recherché (3 caractères minimum)") @RequestParam("q") String query,
+        @Parameter(description = "Nombre maximal de résultats") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userSearchService.search(query, limit));
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(
+        summary = "Rechercher des utilisateurs par curseur",
+        description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page d'utilisateurs récupérée avec succès"),
+        @ApiResponse(responseCode = "400", description = "Champ de tri non supporté, ou jeton invalide ou ne correspondant pas au tri"),
+        @ApiResponse(responseCode = "403", description = "Accès non autorisé")
+    })
+    public ResponseEntity<KeysetPage<UserResponseFullDTO>> scrollUsers(
+        @Valid UserSearchCriteria criteria,
+        @Parameter(description = "Jeton de continuation renvoyé par la page précédente") @RequestParam(required = false) String cursor,
+        @Parameter(description = "Nombre d'éléments par page") @RequestParam(defaultValue = "10") int size,
+        @Parameter(description = "Champ de tri : id, username ou email") @RequestParam(defaultValue = "username") String sortBy,
+        @Parameter(description = "Direction du tri (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir) {
+        return ResponseEntity.ok(userService.scrollUsers(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @PatchMapping("/{id}/status")
     @Operation(
         summary = "Activer ou désactiver un utilisateur",
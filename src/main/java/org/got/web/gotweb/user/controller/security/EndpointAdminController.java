@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
 import org.got.web.gotweb.user.domain.security.Endpoint;
 import org.got.web.gotweb.user.dto.endpoint.request.EndpointUpdateDTO;
 import org.got.web.gotweb.user.dto.endpoint.response.EndpointResponseDTO;
@@ -66,6 +67,19 @@ public class EndpointAdminController {
         return ResponseEntity.ok(endpoints);
     }
 
+    @Operation(summary = "Rechercher des endpoints par curseur",
+            description = "Pagination par curseur : pas de total, le jeton 'next' de la réponse donne la page suivante")
+    @GetMapping("/scroll")
+    public ResponseEntity<KeysetPage<EndpointResponseDTO>> scrollEndpoints(
+            @Valid EndpointSearchCriteria criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "pattern") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir
+    ) {
+        return ResponseEntity.ok(endpointService.scrollEndpoints(criteria, sortBy, Sort.Direction.fromString(sortDir), size, cursor));
+    }
+
     @Operation(summary = "Get an endpoint by id")
     @GetMapping("/{id}")
     public ResponseEntity<Endpoint> getEndpointById(@PathVariable Long id) {
@@ -85,7 +99,7 @@ public class EndpointAdminController {
      */
     @Operation(summary = "Assign condition groups to an endpoint")
     @PutMapping("/assign-condition-groups")
-    public ResponseEntity<Endpoint> assignConditionGroups(@RequestBody EndpointConditionGroupAssignmentDTO dto) {
+    public ResponseEntity<Endpoint> assignConditionGroups(@Valid @RequestBody EndpointConditionGroupAssignmentDTO dto) {
         Endpoint updatedEndpoint = endpointAssignmentService.assignConditionGroupsToEndpoint(dto);
         return ResponseEntity.ok(updatedEndpoint);
     }
@@ -74,16 +74,6 @@ public class Department {
     @Builder.Default
     private Set<Permission> defaultPermissions = new HashSet<>();
 
-    public boolean isSubDepartmentOf(Department department) {
-        if (this.equals(department)) {
-            return true;
-        }
-        if (parent == null) {
-            return false;
-        }
-        return parent.isSubDepartmentOf(department);
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,50 @@
+package org.got.web.gotweb.user.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Table de fermeture de la hiérarchie des départements : une ligne par couple (ancêtre, descendant),
+ * y compris le couple réflexif (département, département) de profondeur 0.
+ * *
+ * "Tous les descendants de X" et "A est-il sous B" deviennent une seule recherche indexée,
+ * sans parcourir la chaîne des parents. Maintenue par {@code DepartmentService}.
+ */
+@Entity
+@Table(name = "department_closure", indexes = {
+        @Index(name = "idx_department_closure_descendant_id", columnList = "descendant_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentClosure {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "ancestor_id", nullable = false)
+        private Long ancestorId;
+
+        @Column(name = "descendant_id", nullable = false)
+        private Long descendantId;
+    }
+}
@@ -34,7 +34,9 @@ import java.util.Set;
         indexes = {
             @Index(name = "idx_users_email", columnList = "email", unique = true),
             @Index(name = "idx_users_username", columnList = "username", unique = true),
-            @Index(name = "idx_users_email_verification_token", columnList = "email_verification_token")},
+            @Index(name = "idx_users_email_verification_token", columnList = "email_verification_token"),
+            @Index(name = "idx_users_tokens_not_before", columnList = "tokens_not_before"),
+            @Index(name = "idx_users_authz_version_updated_at", columnList = "authz_version_updated_at")},
         uniqueConstraints = {
                 @UniqueConstraint(name = "uk_user_email", columnNames = {"email"}),
                 @UniqueConstraint(name = "uk_user_username", columnNames = {"username"})
@@ -105,6 +107,28 @@ public class GotUser implements UserDetails {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
+    /**
+     * Les tokens émis avant cette date sont révoqués (changement de mot de passe, désactivation, déconnexion forcée).
+     * Modifiée uniquement par requête dédiée (voir {@code TokenRevocationEpochStore}) : la sauvegarde d'une entité
+     * chargée avant la révocation ne doit pas réécrire l'ancienne valeur.
+     */
+    @Column(name = "tokens_not_before", insertable = false, updatable = false)
+    private LocalDateTime tokensNotBefore;
+
+    /**
+     * Version des autorisations, incrémentée à chaque changement des rôles ou permissions effectifs de l'utilisateur
+     * et embarquée dans ses tokens. Modifiée uniquement par requête de masse (voir {@code AuthorizationVersionStore}).
+     */
+    @Column(name = "authz_version", nullable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0")
+    @Builder.Default
+    private long authzVersion = 0L;
+
+    /**
+     * Date du dernier incrément de {@link #authzVersion}, lue par la synchronisation périodique des autres nœuds.
+     */
+    @Column(name = "authz_version_updated_at", insertable = false, updatable = false)
+    private LocalDateTime authzVersionUpdatedAt;
+
     @OneToMany(mappedBy = "gotUser", fetch = FetchType.LAZY)
     @ToString.Exclude
     @Builder.Default
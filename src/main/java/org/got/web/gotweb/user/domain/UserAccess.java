@@ -0,0 +1,69 @@
+package org.got.web.gotweb.user.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modèle de lecture dénormalisé des accès courants d'un utilisateur : identifiants des rôles, départements
+ * et contextes de ses affectations actives, sous forme de tableaux indexés en GIN.
+ * *
+ * {@code assignmentKeys} contient, pour chaque affectation active, les combinaisons {@code rôle:département:contexte}
+ * dont les composantes absentes sont laissées vides (ex. {@code "3:7:"}, {@code ":7:2"}) : une recherche combinant
+ * plusieurs critères devient un seul test d'appartenance.
+ * *
+ * {@code nextChangeAt} est la prochaine borne de validité (validFrom ou validTo) à partir de laquelle la ligne
+ * doit être recalculée. Maintenu par {@code UserAccessService}.
+ */
+@Entity
+@Table(name = "user_access", indexes = {
+        @Index(name = "idx_user_access_next_change_at", columnList = "next_change_at")})
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserAccess {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "role_ids", nullable = false)
+    private Long[] roleIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "department_ids", nullable = false)
+    private Long[] departmentIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "context_ids", nullable = false)
+    private Long[] contextIds;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "assignment_keys", nullable = false)
+    private String[] assignmentKeys;
+
+    @Column(name = "next_change_at")
+    private LocalDateTime nextChangeAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    /**
+     * Clé d'affectation au format de {@code assignmentKeys}, les critères null étant laissés vides.
+     */
+    public static String assignmentKey(Long roleId, Long departmentId, Long contextId) {
+        return (roleId != null ? roleId.toString() : "")
+                + ':' + (departmentId != null ? departmentId.toString() : "")
+                + ':' + (contextId != null ? contextId.toString() : "");
+    }
+}
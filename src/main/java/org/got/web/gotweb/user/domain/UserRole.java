@@ -1,7 +1,9 @@
 package org.got.web.gotweb.user.domain;
 
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -18,6 +20,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Immutable;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -75,6 +78,21 @@ public class UserRole {
     @Builder.Default
     private Set<Permission> permissions = new HashSet<>();
 
+    /**
+     * Permissions effectives matérialisées ({@link UserRoleEffectivePermission}), toutes sources confondues.
+     * Lecture seule : la table est maintenue par {@code EffectivePermissionService}.
+     */
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "user_role_effective_permissions",
+        joinColumns = @JoinColumn(name = "user_role_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)),
+        inverseJoinColumns = @JoinColumn(name = "permission_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    )
+    @Immutable
+    @ToString.Exclude
+    @Builder.Default
+    private Set<Permission> effectivePermissions = new HashSet<>();
+
     private LocalDateTime validFrom;
     private LocalDateTime validTo;
 
@@ -86,7 +104,7 @@ public class UserRole {
 
     /**
      * Vérifie si ce rôle utilisateur possède une permission spécifique.
-     * La vérification prend en compte :
+     * La vérification s'appuie sur les permissions effectives matérialisées, qui réunissent :
      * 1. Les permissions directement assignées au UserRole
      * 2. Les permissions héritées du Role
      * 3. Les permissions par défaut du Department
@@ -95,19 +113,8 @@ public class UserRole {
      * @return true si la permission est accordée, false sinon
      */
     public boolean hasPermission(String permissionName) {
-        // Vérifier les permissions directes du UserRole
-        if (permissions.stream().anyMatch(permission -> permission.getName().equalsIgnoreCase(permissionName))) {
-            return true;
-        }
-
-        // Vérifier les permissions du Role
-        if (role.getPermissions().stream().anyMatch(permission -> permission.getName().equalsIgnoreCase(permissionName))) {
-            return true;
-        }
-
-        // Vérifier les permissions par défaut du Department
-        return department.getDefaultPermissions().stream()
-                .anyMatch(permission -> permission.getName().equals(permissionName));
+        return effectivePermissions.stream()
+                .anyMatch(permission -> permission.getName().equalsIgnoreCase(permissionName));
     }
 
     /**
@@ -133,24 +140,13 @@ public class UserRole {
     }
 
     /**
-     * Récupère toutes les permissions associées à ce UserRole.
-     * Cette méthode est utilisée notamment pour générer le token d'authentification.
+     * Récupère toutes les permissions associées à ce UserRole, depuis la forme matérialisée
+     * ({@link UserRoleEffectivePermission}), comme la génération des tokens.
      *
      * @return Un Set contenant toutes les permissions uniques
      */
     public Set<Permission> getAllPermissions() {
-        Set<Permission> allPermissions = new HashSet<>();
-        
-        // Ajouter les permissions directes du UserRole
-        allPermissions.addAll(permissions);
-        
-        // Ajouter les permissions du Role
-        allPermissions.addAll(role.getPermissions());
-        
-        // Ajouter les permissions par défaut du Department
-        allPermissions.addAll(department.getDefaultPermissions());
-        
-        return allPermissions;
+        return new HashSet<>(effectivePermissions);
     }
 
     public boolean isValid(LocalDateTime now) {
@@ -253,6 +249,13 @@ public class UserRole {
     public enum PermissionSource {
         USER_ROLE,    // Permission directement assignée au UserRole
         ROLE,         // Permission héritée du Role
-        DEPARTMENT    // Permission par défaut du Department
+        DEPARTMENT;   // Permission par défaut du Department
+
+        /**
+         * Bit de la source dans le masque {@link UserRoleEffectivePermission#getSources()}
+         */
+        public int mask() {
+            return 1 << ordinal();
+        }
     }
 }
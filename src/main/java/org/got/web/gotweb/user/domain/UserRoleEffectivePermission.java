@@ -0,0 +1,49 @@
+package org.got.web.gotweb.user.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Permission effective matérialisée d'un UserRole.
+ * *
+ * Le champ {@code sources} est un masque des origines de la permission ({@link UserRole.PermissionSource#mask()}) :
+ * la ligne disparaît lorsque plus aucune source ne l'accorde. Maintenue par {@code EffectivePermissionService}.
+ */
+@Entity
+@Table(name = "user_role_effective_permissions", indexes = {
+        @Index(name = "idx_urep_permission_id", columnList = "permission_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRoleEffectivePermission {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "sources", nullable = false)
+    private int sources;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "user_role_id", nullable = false)
+        private Long userRoleId;
+
+        @Column(name = "permission_id", nullable = false)
+        private Long permissionId;
+    }
+}
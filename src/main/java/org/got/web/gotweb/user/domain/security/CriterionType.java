@@ -1,9 +1,16 @@
 package org.got.web.gotweb.user.domain.security;
 
+/**
+ * Les valeurs admises sont aussi contrôlées en base par {@code access_conditions_type_check} (voir {@code db/enum-constraints.sql}).
+ */
 public enum CriterionType {
     ROLE,
     PERMISSION,
     DEPARTMENT,
+    /**
+     * Département ou l'un de ses sous-départements, quelle que soit la profondeur
+     */
+    DEPARTMENT_SUBTREE,
     CONTEXT,
     USER
 }
\ No newline at end of file
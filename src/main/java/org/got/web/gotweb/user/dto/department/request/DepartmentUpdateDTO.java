@@ -1,6 +1,10 @@
 package org.got.web.gotweb.user.dto.department.request;
 
+/**
+ * @param parentId nouveau département parent (null pour conserver le parent actuel)
+ */
 public record DepartmentUpdateDTO(
     String name,
-    String description
+    String description,
+    Long parentId
 ) {}
@@ -1,6 +1,7 @@
 package org.got.web.gotweb.user.dto.security;
 
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import org.got.web.gotweb.user.domain.security.CriterionType;
 import org.got.web.gotweb.user.domain.security.Operator;
@@ -11,7 +12,8 @@ public class AccessConditionDTO {
     private CriterionType type;
     // Valeur parmi l'enum Operator : "CONTAINS", "NOT_CONTAINS", "ONE_OF", "EQUALS", "NOT_EQUALS"
     private Operator operator;
-    // Valeurs séparées par des virgules, par exemple "1,2,3"
+    // Valeurs séparées par des virgules, par exemple "1,2,3" (obligatoires : sans valeur, la condition refuserait tout accès)
+    @NotBlank
     private String values;
     // Indique si le résultat doit être inversé
     private boolean negate;
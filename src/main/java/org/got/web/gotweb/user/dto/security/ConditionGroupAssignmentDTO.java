@@ -1,5 +1,6 @@
 package org.got.web.gotweb.user.dto.security;
 
+import jakarta.validation.Valid;
 import lombok.Data;
 import org.got.web.gotweb.user.domain.security.LogicalOperator;
 
@@ -12,5 +13,5 @@ public class ConditionGroupAssignmentDTO {
     // Optionnel : une description ou un résumé pour ce groupe
     private String description;
     // La liste des conditions à créer pour ce groupe
-    private List<AccessConditionDTO> conditions;
+    private List<@Valid AccessConditionDTO> conditions;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.got.web.gotweb.user.dto.security;
 
+import jakarta.validation.Valid;
 import lombok.Data;
 import org.got.web.gotweb.user.domain.security.LogicalOperator;
 
@@ -12,5 +13,5 @@ public class EndpointConditionGroupAssignmentDTO {
     private String httpMethod;
     private LogicalOperator globalCombinationOperator;
     // Liste des groupes de conditions à assigner
-    private List<ConditionGroupAssignmentDTO> conditionGroups;
+    private List<@Valid ConditionGroupAssignmentDTO> conditionGroups;
 }
\ No newline at end of file
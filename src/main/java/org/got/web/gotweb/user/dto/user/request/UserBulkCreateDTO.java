@@ -0,0 +1,17 @@
+package org.got.web.gotweb.user.dto.user.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Création d'utilisateurs en masse.
+ * Chaque ligne est validée individuellement : une ligne invalide n'empêche pas la création des autres.
+ */
+public record UserBulkCreateDTO(
+    @NotEmpty(message = "La liste des utilisateurs est obligatoire")
+    @Size(max = 5000, message = "Au maximum 5000 utilisateurs par requête")
+    List<UserCreateDTO> users
+) {
+}
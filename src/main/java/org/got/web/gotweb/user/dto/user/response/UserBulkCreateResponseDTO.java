@@ -0,0 +1,32 @@
+package org.got.web.gotweb.user.dto.user.response;
+
+import java.util.List;
+
+/**
+ * Résultat d'une création d'utilisateurs en masse, avec le statut de chaque ligne.
+ */
+public record UserBulkCreateResponseDTO(
+    int created,
+    int rejected,
+    List<Row> rows
+) {
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE_USERNAME,
+        DUPLICATE_EMAIL
+    }
+
+    /**
+     * @param index position de la ligne dans la requête
+     * @param id identifiant de l'utilisateur créé (null si rejeté)
+     * @param message motif du rejet (null si créé)
+     */
+    public record Row(
+        int index,
+        String username,
+        Status status,
+        Long id,
+        String message
+    ) {}
+}
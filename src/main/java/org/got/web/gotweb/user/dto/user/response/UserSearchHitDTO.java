@@ -0,0 +1,16 @@
+package org.got.web.gotweb.user.dto.user.response;
+
+/**
+ * Utilisateur trouvé par la recherche textuelle.
+ *
+ * @param score similarité entre le terme recherché et l'utilisateur, entre 0 et 1
+ */
+public record UserSearchHitDTO(
+    Long id,
+    String username,
+    String email,
+    String firstName,
+    String lastName,
+    boolean enabled,
+    double score
+) {}
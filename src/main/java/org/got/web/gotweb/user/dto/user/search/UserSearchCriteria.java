@@ -15,5 +15,8 @@ public record UserSearchCriteria(
     LocalDateTime lastLoginAtEnd,
     String role,
     String department,
-    String context
+    String context,
+    Long roleId,
+    Long departmentId,
+    Long contextId
 ) {}
@@ -1,11 +1,17 @@
 package org.got.web.gotweb.user.dto.user.search;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.got.web.gotweb.user.domain.Context;
 import org.got.web.gotweb.user.domain.Department;
 import org.got.web.gotweb.user.domain.GotUser;
 import org.got.web.gotweb.user.domain.Role;
+import org.got.web.gotweb.user.domain.UserAccess;
 import org.got.web.gotweb.user.domain.UserRole;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -57,6 +63,8 @@ public class UserSpecification {
             // Gestion des critères liés aux rôles, départements et contextes
             if (criteria.role() != null || criteria.department() != null || criteria.context() != null) {
                 Join<GotUser, UserRole> userRoleJoin = root.join("userRoles", JoinType.LEFT);
+                // Supprimer les doublons potentiels dus aux jointures
+                query.distinct(true);
                 LocalDateTime now = LocalDateTime.now();
                 
                 // Vérification de la validité temporelle
@@ -94,10 +102,41 @@ public class UserSpecification {
                 }
             }
 
-            // Supprimer les doublons potentiels dus aux jointures
-            query.distinct(true);
-            
+            // Critères par identifiant : une seule recherche sur les index GIN du modèle de lecture des accès
+            if (criteria.roleId() != null || criteria.departmentId() != null || criteria.contextId() != null) {
+                Subquery<Long> access = query.subquery(Long.class);
+                Root<UserAccess> accessRoot = access.from(UserAccess.class);
+                access.select(accessRoot.get("userId")).where(accessPredicate(cb, accessRoot, criteria));
+                predicates.add(root.get("id").in(access));
+            }
+
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
         };
     }
+
+    /**
+     * Un critère seul porte sur le tableau d'identifiants correspondant ; plusieurs critères doivent être satisfaits
+     * par une même affectation, et portent donc sur les clés d'affectation.
+     */
+    private static Predicate accessPredicate(CriteriaBuilder cb, Root<UserAccess> access, UserSearchCriteria criteria) {
+        int count = (criteria.roleId() != null ? 1 : 0) + (criteria.departmentId() != null ? 1 : 0) + (criteria.contextId() != null ? 1 : 0);
+        if (count > 1) {
+            return arrayContains(cb, access.get("assignmentKeys"),
+                    UserAccess.assignmentKey(criteria.roleId(), criteria.departmentId(), criteria.contextId()));
+        }
+        if (criteria.roleId() != null) {
+            return arrayContains(cb, access.get("roleIds"), criteria.roleId());
+        }
+        if (criteria.departmentId() != null) {
+            return arrayContains(cb, access.get("departmentIds"), criteria.departmentId());
+        }
+        return arrayContains(cb, access.get("contextIds"), criteria.contextId());
+    }
+
+    /**
+     * {@code array_contains} est rendu par Hibernate en {@code tableau @> ARRAY[valeur]} sur PostgreSQL, servi par l'index GIN.
+     */
+    private static Predicate arrayContains(CriteriaBuilder cb, Expression<?> array, Object value) {
+        return cb.isTrue(cb.function("array_contains", Boolean.class, array, cb.literal(value)));
+    }
 }
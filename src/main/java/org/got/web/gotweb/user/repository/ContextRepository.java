@@ -6,12 +6,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface ContextRepository extends JpaRepository<Context, Long> {
+public interface ContextRepository extends JpaRepository<Context, Long>, JpaSpecificationExecutor<Context> {
 
     boolean existsByName(@ToLowerCase String name);
 
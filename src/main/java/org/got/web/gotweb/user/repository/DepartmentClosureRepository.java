@@ -0,0 +1,100 @@
+package org.got.web.gotweb.user.repository;
+
+import org.got.web.gotweb.user.domain.Department;
+import org.got.web.gotweb.user.domain.DepartmentClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DepartmentClosureRepository extends JpaRepository<DepartmentClosure, DepartmentClosure.Key> {
+
+    /**
+     * @return true si {@code descendantId} est situé strictement sous {@code ancestorId}
+     */
+    @Query("""
+            SELECT COUNT(c) > 0 FROM DepartmentClosure c
+            WHERE c.id.ancestorId = :ancestorId AND c.id.descendantId = :descendantId AND c.depth > 0
+            """)
+    boolean isDescendant(@Param("descendantId") Long descendantId, @Param("ancestorId") Long ancestorId);
+
+    @Query("SELECT c.id.descendantId FROM DepartmentClosure c WHERE c.id.ancestorId = :ancestorId AND c.depth > 0")
+    List<Long> findDescendantIds(@Param("ancestorId") Long ancestorId);
+
+    @Query("""
+            SELECT d FROM Department d
+            WHERE d.id IN (SELECT c.id.descendantId FROM DepartmentClosure c WHERE c.id.ancestorId = :ancestorId AND c.depth > 0)
+            ORDER BY d.name
+            """)
+    List<Department> findDescendants(@Param("ancestorId") Long ancestorId);
+
+    /**
+     * Ajoute un nouveau département : lien réflexif puis un lien vers chaque ancêtre de son parent.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            SELECT :departmentId, :departmentId, 0
+            UNION ALL
+            SELECT c.ancestor_id, :departmentId, c.depth + 1
+            FROM department_closure c
+            WHERE c.descendant_id = :parentId
+            """)
+    int insertUnderParent(@Param("departmentId") Long departmentId, @Param("parentId") Long parentId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            VALUES (:departmentId, :departmentId, 0)
+            """)
+    int insertRoot(@Param("departmentId") Long departmentId);
+
+    /**
+     * Détache le sous-arbre du département de ses anciens ancêtres (les liens internes au sous-arbre sont conservés).
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM department_closure
+            WHERE descendant_id IN (SELECT s.descendant_id FROM department_closure s WHERE s.ancestor_id = :departmentId)
+              AND ancestor_id NOT IN (SELECT s.descendant_id FROM department_closure s WHERE s.ancestor_id = :departmentId)
+            """)
+    int detachSubtree(@Param("departmentId") Long departmentId);
+
+    /**
+     * Rattache le sous-arbre du département sous son nouveau parent (produit ancêtres du parent × sous-arbre).
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            SELECT p.ancestor_id, s.descendant_id, p.depth + s.depth + 1
+            FROM department_closure p
+            JOIN department_closure s ON s.ancestor_id = :departmentId
+            WHERE p.descendant_id = :parentId
+            """)
+    int attachSubtree(@Param("departmentId") Long departmentId, @Param("parentId") Long parentId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM department_closure WHERE ancestor_id = :departmentId OR descendant_id = :departmentId")
+    int deleteByDepartmentId(@Param("departmentId") Long departmentId);
+
+    /**
+     * Reconstruit la table entière à partir de {@code departments.parent_id}.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO department_closure (ancestor_id, descendant_id, depth)
+            WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+                SELECT d.id, d.id, 0 FROM departments d
+                UNION ALL
+                SELECT t.ancestor_id, d.id, t.depth + 1
+                FROM tree t
+                JOIN departments d ON d.parent_id = t.descendant_id
+            )
+            SELECT ancestor_id, descendant_id, depth FROM tree
+            """)
+    int rebuild();
+}
@@ -2,10 +2,12 @@ package org.got.web.gotweb.user.repository;
 
 import org.got.web.gotweb.common.annotations.ToLowerCase;
 import org.got.web.gotweb.user.domain.Department;
+import org.got.web.gotweb.user.repository.projection.DepartmentParentLink;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -14,7 +16,7 @@ import java.util.Optional;
 import java.util.Set;
 
 @Repository
-public interface DepartmentRepository extends JpaRepository<Department, Long> {
+public interface DepartmentRepository extends JpaRepository<Department, Long>, JpaSpecificationExecutor<Department> {
     Optional<Department> findByName(@ToLowerCase String name);
     List<Department> findByParentId(Long parentId);
     List<Department> findByParent(Department department);
@@ -27,4 +29,10 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
     @Query("SELECT CASE WHEN COUNT(d) > 0 THEN true ELSE false END FROM Department d JOIN d.defaultPermissions p WHERE p.id = :permissionId")
     boolean existsByDefaultPermissionId(Long permissionId);
+
+    @Query("""
+            SELECT new org.got.web.gotweb.user.repository.projection.DepartmentParentLink(d.id, p.id)
+            FROM Department d LEFT JOIN d.parent p
+            """)
+    List<DepartmentParentLink> findParentLinks();
 }
@@ -1,16 +1,26 @@
 package org.got.web.gotweb.user.repository;
 
+import jakarta.persistence.QueryHint;
 import org.got.web.gotweb.common.annotations.ToLowerCase;
 import org.got.web.gotweb.user.domain.GotUser;
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserSearchHit;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GotUserRepository extends JpaRepository<GotUser, Long>, JpaSpecificationExecutor<GotUser> {
@@ -36,18 +46,184 @@ public interface GotUserRepository extends JpaRepository<GotUser, Long>, JpaSpec
     
     Optional<GotUser> findByUsernameOrEmail(String username, String email);
 
+    /**
+     * Charge l'utilisateur avec ses rôles (nécessaires aux authorities Spring Security).
+     * Une ligne par affectation : les permissions sont lues séparément par projection (voir {@link UserRoleRepository}).
+     */
     @Query("""
             SELECT DISTINCT u FROM GotUser u
             LEFT JOIN FETCH u.userRoles ur
             LEFT JOIN FETCH ur.role r
-            LEFT JOIN FETCH r.permissions
-            LEFT JOIN FETCH ur.permissions
-            LEFT JOIN FETCH ur.department d
-            LEFT JOIN FETCH d.defaultPermissions
-            LEFT JOIN FETCH ur.context c
             WHERE u.username = :username
             """)
     Optional<GotUser> loadUserForAuthentication(@Param("username") @ToLowerCase String username);
 
+    /**
+     * Initialise les affectations (rôle, département, contexte) d'utilisateurs déjà chargés, en une requête.
+     * Sert après une lecture paginée : une jointure de collection dans la requête limitée ferait paginer Hibernate en mémoire.
+     */
+    @Query("""
+            SELECT DISTINCT u FROM GotUser u
+            LEFT JOIN FETCH u.userRoles ur
+            LEFT JOIN FETCH ur.role
+            LEFT JOIN FETCH ur.department
+            LEFT JOIN FETCH ur.context
+            WHERE u.id IN :userIds
+            """)
+    List<GotUser> fetchAssignments(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT u.id FROM GotUser u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") @ToLowerCase String username);
+
+    @Modifying
+    @Query("UPDATE GotUser u SET u.tokensNotBefore = :notBefore WHERE u.id = :userId")
+    int updateTokensNotBefore(@Param("userId") Long userId, @Param("notBefore") LocalDateTime notBefore);
+
+    @Query("SELECT u.id, u.tokensNotBefore FROM GotUser u WHERE u.tokensNotBefore > :since")
+    List<Object[]> findTokensNotBeforeSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("""
+            UPDATE GotUser u SET u.failedLoginAttempts = :failedAttempts, u.lastFailedLoginAttempt = :lastFailedAt,
+                u.lockedUntil = :lockedUntil
+            WHERE u.username = :username
+            """)
+    int updateLoginLockout(@Param("username") String username, @Param("failedAttempts") int failedAttempts,
+                           @Param("lastFailedAt") LocalDateTime lastFailedAt, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE GotUser u SET u.failedLoginAttempts = 0, u.lastFailedLoginAttempt = NULL, u.lockedUntil = NULL
+            WHERE u.username = :username
+            """)
+    int resetLoginFailures(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE GotUser u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Query("SELECT u.authzVersion FROM GotUser u WHERE u.id = :userId")
+    Optional<Long> findAuthzVersionById(@Param("userId") Long userId);
+
+    @Query("SELECT u.id, u.authzVersion FROM GotUser u WHERE u.id IN :userIds")
+    List<Object[]> findAuthzVersions(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT u.id, u.authzVersion FROM GotUser u WHERE u.authzVersion > :version")
+    List<Object[]> findAuthzVersionsAbove(@Param("version") long version);
+
+    @Query("SELECT u.id, u.authzVersion FROM GotUser u WHERE u.authzVersionUpdatedAt > :since")
+    List<Object[]> findAuthzVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("""
+            UPDATE GotUser u SET u.authzVersion = u.authzVersion + 1, u.authzVersionUpdatedAt = :updatedAt
+            WHERE u.id IN :userIds
+            """)
+    int incrementAuthzVersions(@Param("userIds") Collection<Long> userIds, @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Recherche en une seule requête les noms d'utilisateur et emails déjà utilisés parmi ceux fournis.
+     *
+     * @return des couples [username, email] des utilisateurs existants en conflit
+     */
+    @Query("SELECT u.username, u.email FROM GotUser u WHERE u.username IN :usernames OR u.email IN :emails")
+    List<Object[]> findConflictingUsernamesAndEmails(@Param("usernames") Collection<String> usernames,
+                                                     @Param("emails") Collection<String> emails);
+
+    /**
+     * Réserve {@code count} identifiants dans la séquence de la colonne identité de la table users.
+     */
+    @Query(value = "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> reserveIds(@Param("count") int count);
+
+    /**
+     * Parcourt tous les utilisateurs par identifiant croissant via un curseur côté serveur.
+     * Doit être consommé dans une transaction, et le flux fermé après usage.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new org.got.web.gotweb.user.repository.projection.UserExportRow(
+                u.id, u.username, u.email, u.firstName, u.lastName, u.enabled, u.emailVerified, u.createdAt, u.lastLoginAt)
+            FROM GotUser u
+            ORDER BY u.id
+            """)
+    Stream<UserExportRow> streamForExport();
+
+    /**
+     * Recherche textuelle par préfixe ou sous-chaîne, classée par pertinence.
+     * *
+     * Les candidats sont bornés avant le calcul du score : les {@code limit} premiers noms d'utilisateur commençant par
+     * le terme (index {@code idx_users_username_prefix}) et au plus {@code candidates} documents le contenant
+     * (index trigrammes {@code idx_users_search_document_trgm}, dont l'expression doit rester identique à celle du document).
+     * Un terme très fréquent ne fait donc jamais calculer la similarité sur toute la table.
+     * Les correspondances par préfixe du nom d'utilisateur sont classées en premier, puis par similarité décroissante.
+     *
+     * @param term terme en minuscules
+     * @param pattern motif LIKE {@code %terme%}, caractères spéciaux échappés
+     * @param prefix motif LIKE {@code terme%}, caractères spéciaux échappés
+     * @param candidates nombre maximal de documents retenus par sous-chaîne
+     */
+    @Query(value = """
+            WITH candidates AS MATERIALIZED (
+                (SELECT u.id FROM users u WHERE lower(u.username) LIKE :prefix ORDER BY lower(u.username) LIMIT :limit)
+                UNION
+                (SELECT u.id FROM users u
+                 WHERE lower(u.username || ' ' || u.email || ' ' || coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')) LIKE :pattern
+                 LIMIT :candidates)
+            )
+            SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName,
+                   u.last_name AS lastName, u.enabled AS enabled,
+                   word_similarity(:term, lower(u.username || ' ' || u.email || ' ' || coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, ''))) AS score
+            FROM users u
+            JOIN candidates c ON c.id = u.id
+            ORDER BY (lower(u.username) LIKE :prefix) DESC, score DESC, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSearchHit> searchByText(@Param("term") String term,
+                                     @Param("pattern") String pattern,
+                                     @Param("prefix") String prefix,
+                                     @Param("candidates") int candidates,
+                                     @Param("limit") int limit);
+
+    /**
+     * Recherche approchée ("dupnt" → "jdupont") par similarité de mots ({@code <%}), classée par similarité décroissante.
+     * Plus coûteuse que {@link #searchByText} : au plus {@code candidates} documents au-dessus du seuil sont évalués.
+     *
+     * @param term terme en minuscules
+     * @param candidates nombre maximal de documents évalués
+     */
+    @Query(value = """
+            WITH candidates AS MATERIALIZED (
+                SELECT u.id FROM users u
+                WHERE :term <% lower(u.username || ' ' || u.email || ' ' || coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, ''))
+                LIMIT :candidates
+            )
+            SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName,
+                   u.last_name AS lastName, u.enabled AS enabled,
+                   word_similarity(:term, lower(u.username || ' ' || u.email || ' ' || coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, ''))) AS score
+            FROM users u
+            JOIN candidates c ON c.id = u.id
+            ORDER BY score DESC, u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserSearchHit> searchBySimilarity(@Param("term") String term,
+                                           @Param("candidates") int candidates,
+                                           @Param("limit") int limit);
+
+    /**
+     * Impose des plans spécifiques aux valeurs pour la transaction courante.
+     * Selon la fréquence du terme, le meilleur plan est un parcours d'index ou un parcours séquentiel interrompu par la limite :
+     * un plan générique, préparé sans connaître le terme, perdrait ce choix.
+     */
+    @Query(value = "SELECT set_config('plan_cache_mode', 'force_custom_plan', true)", nativeQuery = true)
+    String forceCustomPlans();
 
+    /**
+     * Fixe le seuil de l'opérateur {@code <%} pour la transaction courante.
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
 }
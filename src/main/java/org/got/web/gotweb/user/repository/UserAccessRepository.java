@@ -0,0 +1,70 @@
+package org.got.web.gotweb.user.repository;
+
+import org.got.web.gotweb.user.domain.UserAccess;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserAccessRepository extends JpaRepository<UserAccess, Long> {
+
+    /**
+     * Agrège les affectations actives à {@code :now} de chaque utilisateur sélectionné.
+     * Les clés d'affectation reprennent le format de {@link UserAccess#assignmentKey}.
+     */
+    String REFRESH_SELECT = """
+            INSERT INTO user_access (user_id, role_ids, department_ids, context_ids, assignment_keys, next_change_at, refreshed_at)
+            SELECT u.id,
+                   COALESCE(array_agg(DISTINCT ur.role_id) FILTER (WHERE a.active), '{}'),
+                   COALESCE(array_agg(DISTINCT ur.department_id) FILTER (WHERE a.active), '{}'),
+                   COALESCE(array_agg(DISTINCT ur.context_id) FILTER (WHERE a.active AND ur.context_id IS NOT NULL), '{}'),
+                   COALESCE(array_agg(DISTINCT k.assignment_key) FILTER (WHERE a.active AND k.assignment_key IS NOT NULL), '{}'),
+                   LEAST(MIN(ur.valid_from) FILTER (WHERE ur.valid_from > :now),
+                         MIN(ur.valid_to) FILTER (WHERE ur.valid_to >= :now)),
+                   :now
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN LATERAL (
+                SELECT ur.id IS NOT NULL
+                       AND (ur.valid_from IS NULL OR ur.valid_from <= :now)
+                       AND (ur.valid_to IS NULL OR ur.valid_to >= :now) AS active
+            ) a ON true
+            LEFT JOIN LATERAL (
+                VALUES (ur.role_id || ':' || ur.department_id || ':'),
+                       (ur.role_id || '::' || ur.context_id),
+                       (':' || ur.department_id || ':' || ur.context_id),
+                       (ur.role_id || ':' || ur.department_id || ':' || ur.context_id)
+            ) k(assignment_key) ON true
+            """;
+
+    String REFRESH_UPSERT = """
+            GROUP BY u.id
+            ON CONFLICT (user_id) DO UPDATE SET
+                role_ids = EXCLUDED.role_ids,
+                department_ids = EXCLUDED.department_ids,
+                context_ids = EXCLUDED.context_ids,
+                assignment_keys = EXCLUDED.assignment_keys,
+                next_change_at = EXCLUDED.next_change_at,
+                refreshed_at = EXCLUDED.refreshed_at
+            """;
+
+    @Modifying
+    @Query(value = REFRESH_SELECT + " WHERE u.id IN (:userIds) " + REFRESH_UPSERT, nativeQuery = true)
+    int refresh(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Utilisateurs dont une borne de validité est atteinte : leurs accès sont à recalculer.
+     */
+    @Query("SELECT a.userId FROM UserAccess a WHERE a.nextChangeAt <= :now")
+    List<Long> findDueUserIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = REFRESH_SELECT + REFRESH_UPSERT, nativeQuery = true)
+    int refreshAll(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,154 @@
+package org.got.web.gotweb.user.repository;
+
+import org.got.web.gotweb.user.domain.UserRoleEffectivePermission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Accès à la matérialisation des permissions effectives par UserRole.
+ * Les mises à jour sont ensemblistes (upsert PostgreSQL sur le masque des sources) pour rester incrémentales.
+ */
+@Repository
+public interface UserRoleEffectivePermissionRepository extends JpaRepository<UserRoleEffectivePermission, UserRoleEffectivePermission.Key> {
+
+    @Query("""
+            SELECT DISTINCT e.id.permissionId FROM UserRoleEffectivePermission e
+            WHERE e.id.userRoleId IN (
+                SELECT ur.id FROM UserRole ur
+                WHERE ur.gotUser.id = :userId
+                  AND (ur.validFrom IS NULL OR ur.validFrom <= :now)
+                  AND (ur.validTo IS NULL OR ur.validTo >= :now))
+            """)
+    List<Long> findPermissionIdsByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO user_role_effective_permissions (user_role_id, permission_id, sources)
+            SELECT ur.id, p.id, :source FROM user_roles ur CROSS JOIN permissions p
+            WHERE ur.role_id = :roleId AND p.id IN (:permissionIds)
+            ON CONFLICT (user_role_id, permission_id)
+            DO UPDATE SET sources = user_role_effective_permissions.sources | EXCLUDED.sources
+            """)
+    int grantForRole(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO user_role_effective_permissions (user_role_id, permission_id, sources)
+            SELECT ur.id, p.id, :source FROM user_roles ur CROSS JOIN permissions p
+            WHERE ur.department_id = :departmentId AND p.id IN (:permissionIds)
+            ON CONFLICT (user_role_id, permission_id)
+            DO UPDATE SET sources = user_role_effective_permissions.sources | EXCLUDED.sources
+            """)
+    int grantForDepartment(@Param("departmentId") Long departmentId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO user_role_effective_permissions (user_role_id, permission_id, sources)
+            SELECT :userRoleId, p.id, :source FROM permissions p
+            WHERE p.id IN (:permissionIds)
+            ON CONFLICT (user_role_id, permission_id)
+            DO UPDATE SET sources = user_role_effective_permissions.sources | EXCLUDED.sources
+            """)
+    int grantForUserRole(@Param("userRoleId") Long userRoleId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE user_role_effective_permissions SET sources = sources & ~CAST(:source AS INTEGER)
+            WHERE permission_id IN (:permissionIds)
+            AND user_role_id IN (SELECT ur.id FROM user_roles ur WHERE ur.role_id = :roleId)
+            """)
+    int revokeForRole(@Param("roleId") Long roleId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE user_role_effective_permissions SET sources = sources & ~CAST(:source AS INTEGER)
+            WHERE permission_id IN (:permissionIds)
+            AND user_role_id IN (SELECT ur.id FROM user_roles ur WHERE ur.department_id = :departmentId)
+            """)
+    int revokeForDepartment(@Param("departmentId") Long departmentId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE user_role_effective_permissions SET sources = sources & ~CAST(:source AS INTEGER)
+            WHERE permission_id IN (:permissionIds) AND user_role_id = :userRoleId
+            """)
+    int revokeForUserRole(@Param("userRoleId") Long userRoleId, @Param("permissionIds") Collection<Long> permissionIds, @Param("source") int source);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM user_role_effective_permissions WHERE sources = 0")
+    int deleteOrphans();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "DELETE FROM user_role_effective_permissions WHERE user_role_id = :userRoleId")
+    int deleteByUserRoleId(@Param("userRoleId") Long userRoleId);
+
+    /**
+     * Recalcule toute la matérialisation à partir des trois sources (réconciliation, reconstruction complète).
+     * Les masques 1, 2 et 4 correspondent à {@code PermissionSource.USER_ROLE}, {@code ROLE} et {@code DEPARTMENT}.
+     * Seules les lignes absentes ou dont le masque diffère sont écrites.
+     *
+     * @return le nombre de lignes insérées ou corrigées
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO user_role_effective_permissions (user_role_id, permission_id, sources)
+            SELECT s.user_role_id, s.permission_id, BIT_OR(s.source) FROM (
+                SELECT urp.user_role_id, urp.permission_id, 1 AS source FROM user_role_permissions urp
+                UNION ALL
+                SELECT ur.id, rp.permission_id, 2 FROM user_roles ur JOIN role_permissions rp ON rp.role_id = ur.role_id
+                UNION ALL
+                SELECT ur.id, dp.permission_id, 4 FROM user_roles ur JOIN department_default_permissions dp ON dp.department_id = ur.department_id
+            ) s
+            GROUP BY s.user_role_id, s.permission_id
+            ON CONFLICT (user_role_id, permission_id) DO UPDATE SET sources = EXCLUDED.sources
+            WHERE user_role_effective_permissions.sources <> EXCLUDED.sources
+            """)
+    int rebuild();
+
+    /**
+     * Recalcule la matérialisation d'un seul UserRole, comme {@link #rebuild()}.
+     * Le filtre est répété dans chaque branche : chacune lit ses lignes par index au lieu de parcourir toutes les affectations.
+     *
+     * @return le nombre de lignes insérées ou corrigées
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO user_role_effective_permissions (user_role_id, permission_id, sources)
+            SELECT s.user_role_id, s.permission_id, BIT_OR(s.source) FROM (
+                SELECT urp.user_role_id, urp.permission_id, 1 AS source FROM user_role_permissions urp
+                WHERE urp.user_role_id = :userRoleId
+                UNION ALL
+                SELECT ur.id, rp.permission_id, 2 FROM user_roles ur JOIN role_permissions rp ON rp.role_id = ur.role_id
+                WHERE ur.id = :userRoleId
+                UNION ALL
+                SELECT ur.id, dp.permission_id, 4 FROM user_roles ur JOIN department_default_permissions dp ON dp.department_id = ur.department_id
+                WHERE ur.id = :userRoleId
+            ) s
+            GROUP BY s.user_role_id, s.permission_id
+            ON CONFLICT (user_role_id, permission_id) DO UPDATE SET sources = EXCLUDED.sources
+            WHERE user_role_effective_permissions.sources <> EXCLUDED.sources
+            """)
+    int rebuildForUserRole(@Param("userRoleId") Long userRoleId);
+
+    /**
+     * Supprime les lignes qu'aucune source n'accorde plus (dérive après une mise à jour incrémentale manquée).
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM user_role_effective_permissions e
+            WHERE NOT EXISTS (SELECT 1 FROM user_role_permissions urp
+                              WHERE urp.user_role_id = e.user_role_id AND urp.permission_id = e.permission_id)
+              AND NOT EXISTS (SELECT 1 FROM user_roles ur JOIN role_permissions rp ON rp.role_id = ur.role_id
+                              WHERE ur.id = e.user_role_id AND rp.permission_id = e.permission_id)
+              AND NOT EXISTS (SELECT 1 FROM user_roles ur JOIN department_default_permissions dp ON dp.department_id = ur.department_id
+                              WHERE ur.id = e.user_role_id AND dp.permission_id = e.permission_id)
+            """)
+    int deleteStale();
+}
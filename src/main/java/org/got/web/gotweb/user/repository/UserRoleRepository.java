@@ -2,11 +2,17 @@ package org.got.web.gotweb.user.repository;
 
 import org.got.web.gotweb.user.domain.GotUser;
 import org.got.web.gotweb.user.domain.UserRole;
+import org.got.web.gotweb.user.repository.projection.RoleAssignmentKey;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleValidityBoundary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,4 +35,53 @@ public interface UserRoleRepository extends JpaRepository<UserRole, Long> {
 
     @Query("SELECT ur FROM UserRole ur WHERE ur.gotUser.id = ?1 AND ur.role.id = ?2 AND ur.department.id = ?3 AND ur.context.id = ?4")
     Optional<UserRole> findByUserRoleDetails(Long userId, Long roleId, Long departmentId, Long contextId);
+
+    /**
+     * Affectations actives de l'utilisateur sous forme de tuples (rôle, département, contexte), sans entité managée.
+     * Le format du claim ROLE exigeant un contexte, les affectations sans contexte sont ignorées.
+     */
+    @Query("""
+            SELECT new org.got.web.gotweb.user.repository.projection.RoleAssignmentKey(ur.role.id, ur.department.id, c.id)
+            FROM UserRole ur
+            JOIN ur.context c
+            WHERE ur.gotUser.id = :userId
+              AND (ur.validFrom IS NULL OR ur.validFrom <= :now)
+              AND (ur.validTo IS NULL OR ur.validTo >= :now)
+            ORDER BY ur.id
+            """)
+    List<RoleAssignmentKey> findRoleAssignmentKeys(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Affectations de rôle d'un lot d'utilisateurs, pour l'export.
+     */
+    @Query("""
+            SELECT new org.got.web.gotweb.user.repository.projection.UserRoleExportRow(
+                ur.gotUser.id, r.name, d.name, c.name, ur.validFrom, ur.validTo)
+            FROM UserRole ur
+            JOIN ur.role r
+            JOIN ur.department d
+            LEFT JOIN ur.context c
+            WHERE ur.gotUser.id IN :userIds
+            ORDER BY ur.gotUser.id, ur.id
+            """)
+    List<UserRoleExportRow> findExportRowsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT DISTINCT ur.gotUser.id FROM UserRole ur WHERE ur.role.id = :roleId")
+    List<Long> findDistinctUserIdsByRoleId(@Param("roleId") Long roleId);
+
+    @Query("SELECT DISTINCT ur.gotUser.id FROM UserRole ur WHERE ur.department.id = :departmentId")
+    List<Long> findDistinctUserIdsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT DISTINCT ur.gotUser.id FROM UserRole ur")
+    List<Long> findDistinctUserIds();
+
+    /**
+     * Affectations dont une borne de validité est encore à venir.
+     */
+    @Query("""
+            SELECT new org.got.web.gotweb.user.repository.projection.UserRoleValidityBoundary(ur.id, ur.gotUser.id, ur.validFrom, ur.validTo)
+            FROM UserRole ur
+            WHERE ur.validFrom > :now OR ur.validTo >= :now
+            """)
+    List<UserRoleValidityBoundary> findUpcomingValidityBoundaries(@Param("now") LocalDateTime now);
 }
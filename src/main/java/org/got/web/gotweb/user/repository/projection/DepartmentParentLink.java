@@ -0,0 +1,7 @@
+package org.got.web.gotweb.user.repository.projection;
+
+/**
+ * Projection plate d'un lien de la hiérarchie des départements : identifiant du département et de son parent (null pour une racine).
+ */
+public record DepartmentParentLink(Long departmentId, Long parentId) {
+}
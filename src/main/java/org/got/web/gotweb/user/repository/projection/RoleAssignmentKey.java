@@ -0,0 +1,7 @@
+package org.got.web.gotweb.user.repository.projection;
+
+/**
+ * Projection plate d'une affectation de rôle : identifiants du rôle, du département et du contexte.
+ */
+public record RoleAssignmentKey(Long roleId, Long departmentId, Long contextId) {
+}
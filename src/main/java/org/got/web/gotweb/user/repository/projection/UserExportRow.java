@@ -0,0 +1,18 @@
+package org.got.web.gotweb.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection plate d'un utilisateur pour l'export : aucune entité n'est chargée dans le contexte de persistance.
+ */
+public record UserExportRow(
+        Long id,
+        String username,
+        String email,
+        String firstName,
+        String lastName,
+        boolean enabled,
+        boolean emailVerified,
+        LocalDateTime createdAt,
+        LocalDateTime lastLoginAt) {
+}
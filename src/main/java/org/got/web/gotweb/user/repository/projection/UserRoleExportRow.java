@@ -0,0 +1,15 @@
+package org.got.web.gotweb.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection plate d'une affectation de rôle pour l'export : noms du rôle, du département et du contexte.
+ */
+public record UserRoleExportRow(
+        Long userId,
+        String role,
+        String department,
+        String context,
+        LocalDateTime validFrom,
+        LocalDateTime validTo) {
+}
@@ -0,0 +1,9 @@
+package org.got.web.gotweb.user.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bornes de validité d'une affectation de rôle.
+ */
+public record UserRoleValidityBoundary(Long userRoleId, Long userId, LocalDateTime validFrom, LocalDateTime validTo) {
+}
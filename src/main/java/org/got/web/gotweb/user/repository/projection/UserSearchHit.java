@@ -0,0 +1,20 @@
+package org.got.web.gotweb.user.repository.projection;
+
+/**
+ * Résultat de la recherche textuelle des utilisateurs, avec son score de similarité.
+ */
+public interface UserSearchHit {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    boolean isEnabled();
+
+    double getScore();
+}
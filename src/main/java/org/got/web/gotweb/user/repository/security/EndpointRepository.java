@@ -5,12 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface EndpointRepository extends JpaRepository<Endpoint, Long> {
+public interface EndpointRepository extends JpaRepository<Endpoint, Long>, JpaSpecificationExecutor<Endpoint> {
     Optional<Endpoint> findByPatternAndHttpMethod(String pattern, String httpMethod);
     Page<Endpoint> findAll(Specification<Endpoint> specification, Pageable pageable);
 }
@@ -0,0 +1,23 @@
+package org.got.web.gotweb.user.repository.security;
+
+import org.got.web.gotweb.user.domain.security.RevokedTokenEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntry, String> {
+
+    List<RevokedTokenEntry> findAllByExpiresAtAfter(LocalDateTime now);
+
+    List<RevokedTokenEntry> findAllByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedTokenEntry r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
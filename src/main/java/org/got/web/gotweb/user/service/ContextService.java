@@ -1,6 +1,8 @@
 package org.got.web.gotweb.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.ContextException;
 import org.got.web.gotweb.user.domain.Context;
 import org.got.web.gotweb.user.domain.ContextType;
@@ -15,18 +17,25 @@ import org.got.web.gotweb.user.repository.ContextRepository;
 import org.got.web.gotweb.user.repository.UserRoleRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class ContextService {
 
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("name");
+
     private final ContextRepository contextRepository;
     private final ContextMapper contextMapper;
     private final DepartmentService departmentService;
     private final UserRoleRepository userRoleRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Crée un contexte
@@ -88,7 +97,8 @@ public class ContextService {
             Department department = departmentService.getDepartmentEntityById(updateDTO.departmentId());
             context.setDepartment(department);
         }
-        
+
+        referenceDataCache.evictContext(id);
         return contextRepository.save(context);
     }
 
@@ -104,6 +114,7 @@ public class ContextService {
             throw new ContextException.InvalidContextOperationException("Impossible de supprimer un contexte utilisé par un rôle");
         }
         contextRepository.deleteById(id);
+        referenceDataCache.evictContext(id);
     }
 
     /**
@@ -117,6 +128,17 @@ public class ContextService {
             .map(contextMapper::toResponseDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ContextResponseDTO> scrollContexts(ContextSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        return KeysetScroller.scroll(contextRepository, ContextSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, contextMapper::toResponseDTO);
+    }
+
     /**
      * Récupère un contexte par son identifiant
      * @param id Identifiant du contexte
@@ -1,9 +1,13 @@
 package org.got.web.gotweb.user.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.DepartmentException;
 import org.got.web.gotweb.exception.DepartmentException.DepartmentNotFoundException;
-import org.got.web.gotweb.exception.PermissionException;
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentsChangedEvent;
+import org.got.web.gotweb.security.jwt.AuthorizationVersionStore;
 import org.got.web.gotweb.user.domain.Department;
 import org.got.web.gotweb.user.domain.Permission;
 import org.got.web.gotweb.user.dto.department.request.DepartmentCreateDTO;
@@ -13,29 +17,50 @@ import org.got.web.gotweb.user.dto.department.search.DepartmentSearchCriteria;
 import org.got.web.gotweb.user.dto.department.search.DepartmentSpecification;
 import org.got.web.gotweb.user.mapper.DepartmentMapper;
 import org.got.web.gotweb.user.repository.ContextRepository;
+import org.got.web.gotweb.user.repository.DepartmentClosureRepository;
 import org.got.web.gotweb.user.repository.DepartmentRepository;
-import org.got.web.gotweb.user.repository.PermissionRepository;
 import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class DepartmentService {
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("name");
+
     private final DepartmentRepository departmentRepository;
-    private final PermissionRepository permissionRepository;
     private final ContextRepository contextRepository;
     private final UserRoleRepository userRoleRepository;
+    private final EffectivePermissionService effectivePermissionService;
+    private final DepartmentClosureRepository departmentClosureRepository;
     private final DepartmentMapper departmentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataCache referenceDataCache;
+    private final AuthorizationVersionStore authorizationVersionStore;
+
+    /**
+     * Initialise la table de fermeture de la hiérarchie au premier démarrage (table vide).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (departmentClosureRepository.count() == 0) {
+            int rows = departmentClosureRepository.rebuild();
+            log.info("Table de fermeture des départements initialisée : {} liens", rows);
+        }
+    }
 
     /**
      * Crée un département
@@ -56,30 +81,28 @@ public class DepartmentService {
             throw new DepartmentException.DepartmentAlreadyExistsException(createDTO.name());
         }
 
+        // Un nouveau département n'a pas de descendant : aucune hiérarchie circulaire n'est possible
         Department parent = null;
         if (createDTO.parentId() != null) {
             parent = departmentRepository.findById(createDTO.parentId())
                     .orElseThrow(() -> new DepartmentException.DepartmentNotFoundException(createDTO.parentId()));
-            // Vérification de la relation circulaire
-            if (isSubDepartmentOf(parent, Department.builder().name(createDTO.name()).build())) {
-                throw new DepartmentException.CircularHierarchyException("Entre le département '" + createDTO.name() + "' et son parent '" + parent.getName() + "'.");
-            }
         }
 
-        Set<Permission> defaultPermissions = new HashSet<>();
-        if (createDTO.defaultPermissions() != null && !createDTO.defaultPermissions().isEmpty()) {
-            defaultPermissions = createDTO.defaultPermissions().stream()
-                    .map(permissionId -> permissionRepository.findById(permissionId)
-                            .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId)))
-                    .collect(Collectors.toSet());
-        }
+        Set<Permission> defaultPermissions = new HashSet<>(referenceDataCache.getPermissions(createDTO.defaultPermissions()));
 
         Department department = new Department();
         department.setName(createDTO.name());
         department.setDescription(createDTO.description());
         department.setParent(parent);
         department.setDefaultPermissions(defaultPermissions);
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        if (parent == null) {
+            departmentClosureRepository.insertRoot(saved.getId());
+        } else {
+            departmentClosureRepository.insertUnderParent(saved.getId(), parent.getId());
+        }
+        eventPublisher.publishEvent(new DepartmentsChangedEvent("createDepartment:" + saved.getId()));
+        return saved;
     }
 
     /**
@@ -109,9 +132,31 @@ public class DepartmentService {
 
         department.setName(updateDTO.name());
         department.setDescription(updateDTO.description());
+
+        Long currentParentId = department.getParent() != null ? department.getParent().getId() : null;
+        if (updateDTO.parentId() != null && !updateDTO.parentId().equals(currentParentId)) {
+            moveDepartment(department, updateDTO.parentId());
+        }
+        referenceDataCache.evictDepartment(id);
         return departmentRepository.save(department);
     }
 
+    /**
+     * Déplace un département (et son sous-arbre) sous un nouveau parent.
+     */
+    private void moveDepartment(Department department, Long parentId) {
+        if (parentId.equals(department.getId()) || departmentClosureRepository.isDescendant(parentId, department.getId())) {
+            throw new DepartmentException.CircularHierarchyException(
+                    "Le département " + parentId + " est situé sous le département '" + department.getName() + "'.");
+        }
+        Department parent = departmentRepository.findById(parentId)
+                .orElseThrow(() -> new DepartmentNotFoundException(parentId));
+        department.setParent(parent);
+        departmentClosureRepository.detachSubtree(department.getId());
+        departmentClosureRepository.attachSubtree(department.getId(), parentId);
+        eventPublisher.publishEvent(new DepartmentsChangedEvent("moveDepartment:" + department.getId()));
+    }
+
     /**
      * Supprime un département
      * @param departmentId l'identifiant du département
@@ -130,6 +175,7 @@ public class DepartmentService {
             if (forceDeleteContexts) {
                 department.getContexts().forEach(context -> {
                     contextRepository.deleteById(context.getId());
+                    referenceDataCache.evictContext(context.getId());
                 });
             } else {
                 throw new DepartmentException.InvalidDepartmentOperationException("Impossible de supprimer un département qui a des contextes");
@@ -140,7 +186,10 @@ public class DepartmentService {
             throw new DepartmentException.InvalidDepartmentOperationException("Impossible de supprimer un département qui a des rôles utilisateurs associés");
         }
 
+        departmentClosureRepository.deleteByDepartmentId(department.getId());
         departmentRepository.deleteById(department.getId());
+        referenceDataCache.evictDepartment(department.getId());
+        eventPublisher.publishEvent(new DepartmentsChangedEvent("deleteDepartment:" + department.getId()));
     }
 
     /**
@@ -155,6 +204,17 @@ public class DepartmentService {
             .map(departmentMapper::toResponseDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<DepartmentResponseDTO> scrollDepartments(DepartmentSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        return KeysetScroller.scroll(departmentRepository, DepartmentSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, departmentMapper::toResponseDTO);
+    }
+
     /**
      * Récupère un département par son identifiant
      * @param id l'identifiant du département
@@ -220,19 +280,20 @@ public class DepartmentService {
             department.setDefaultPermissions(new HashSet<>());
         }
 
-        List<Permission> permissions = new ArrayList<>();
-        permissionIdSet.forEach(permissionId -> {
-            Permission permission = permissionRepository.findById(permissionId)
-                    .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId));
+        List<Permission> permissions = referenceDataCache.getPermissions(permissionIdSet);
+        permissions.forEach(permission -> {
             if(department.getDefaultPermissions().contains(permission)) {
                 throw new DepartmentException.InvalidDepartmentOperationException(
                         String.format("La permission '%s' est déjà assignée au département '%s", permission.getName(), department.getName()));
             }
-            permissions.add(permission);
         });
 
         department.getDefaultPermissions().addAll(permissions);
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        referenceDataCache.evictDepartment(departmentId);
+        effectivePermissionService.onDepartmentPermissionsAdded(departmentId, permissionIdSet);
+        authorizationVersionStore.bumpForDepartment(departmentId);
+        return saved;
     }
 
     /**
@@ -258,16 +319,18 @@ public class DepartmentService {
             throw new DepartmentException.InvalidDepartmentOperationException("Le département n'a pas de permissions par défaut");
         }
 
-        permissionIdSet.forEach(permissionId -> {
-            Permission permission = permissionRepository.findById(permissionId)
-                    .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId));
+        referenceDataCache.getPermissions(permissionIdSet).forEach(permission -> {
             if(!department.getDefaultPermissions().contains(permission)) {
-                throw new DepartmentException.InvalidDepartmentOperationException(String.format("La permission (%s) n'appartient pas au département", permissionId));
+                throw new DepartmentException.InvalidDepartmentOperationException(String.format("La permission (%s) n'appartient pas au département", permission.getId()));
             }
             department.getDefaultPermissions().remove(permission);
         });
 
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        referenceDataCache.evictDepartment(departmentId);
+        effectivePermissionService.onDepartmentPermissionsRemoved(departmentId, permissionIdSet);
+        authorizationVersionStore.bumpForDepartment(departmentId);
+        return saved;
     }
 
     /**
@@ -276,17 +339,26 @@ public class DepartmentService {
      * @param parent le département parent
      * @return true si le département enfant est un sous-département du département parent, sinon false
      */
+    @Transactional(readOnly = true)
     public boolean isSubDepartmentOf(Department child, Department parent) {
-        if (child == null || parent == null) {
+        if (child == null || parent == null || child.getId() == null || parent.getId() == null) {
             return false;
         }
-        Department current = child.getParent();
-        while (current != null) {
-            if (current.equals(parent)) {
-                return true;
-            }
-            current = current.getParent();
+        return departmentClosureRepository.isDescendant(child.getId(), parent.getId());
+    }
+
+    /**
+     * Récupère tous les descendants d'un département, quelle que soit leur profondeur
+     * @param departmentId l'identifiant du département
+     * @return les sous-départements, triés par nom
+     */
+    @Transactional(readOnly = true)
+    public List<DepartmentResponseDTO> getDescendants(Long departmentId) {
+        if (!departmentRepository.existsById(departmentId)) {
+            throw new DepartmentNotFoundException(departmentId);
         }
-        return false;
+        return departmentClosureRepository.findDescendants(departmentId).stream()
+                .map(departmentMapper::toResponseDTO)
+                .toList();
     }
 }
@@ -0,0 +1,119 @@
+package org.got.web.gotweb.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.security.jwt.AuthorizationVersionStore;
+import org.got.web.gotweb.user.domain.UserRole.PermissionSource;
+import org.got.web.gotweb.user.repository.UserRoleEffectivePermissionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintient la matérialisation des permissions effectives par UserRole (table {@code user_role_effective_permissions}).
+ * *
+ * Chaque modification d'une source (permissions d'un Role, permissions par défaut d'un Department,
+ * permissions directes d'un UserRole) ne touche que les lignes concernées : le bit de la source est posé ou retiré,
+ * et les lignes dont le masque devient nul sont supprimées. La génération des tokens lit alors une seule table indexée.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class EffectivePermissionService {
+
+    private final UserRoleEffectivePermissionRepository effectivePermissionRepository;
+    private final AuthorizationVersionStore authorizationVersionStore;
+
+    /**
+     * Réconcilie la matérialisation avec ses sources à chaque démarrage : initialisation au premier démarrage,
+     * et correction de toute dérive laissée par une mise à jour incrémentale en échec.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * @return les identifiants distincts des permissions effectives des affectations actives de l'utilisateur
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getPermissionIds(Long userId, LocalDateTime now) {
+        return effectivePermissionRepository.findPermissionIdsByUserId(userId, now);
+    }
+
+    public void onRolePermissionsAdded(Long roleId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.grantForRole(roleId, permissionIds, PermissionSource.ROLE.mask());
+    }
+
+    public void onRolePermissionsRemoved(Long roleId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.revokeForRole(roleId, permissionIds, PermissionSource.ROLE.mask());
+        effectivePermissionRepository.deleteOrphans();
+    }
+
+    public void onDepartmentPermissionsAdded(Long departmentId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.grantForDepartment(departmentId, permissionIds, PermissionSource.DEPARTMENT.mask());
+    }
+
+    public void onDepartmentPermissionsRemoved(Long departmentId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.revokeForDepartment(departmentId, permissionIds, PermissionSource.DEPARTMENT.mask());
+        effectivePermissionRepository.deleteOrphans();
+    }
+
+    public void onUserRolePermissionsAdded(Long userRoleId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.grantForUserRole(userRoleId, permissionIds, PermissionSource.USER_ROLE.mask());
+    }
+
+    public void onUserRolePermissionsRemoved(Long userRoleId, Collection<Long> permissionIds) {
+        if (permissionIds.isEmpty()) return;
+        effectivePermissionRepository.revokeForUserRole(userRoleId, permissionIds, PermissionSource.USER_ROLE.mask());
+        effectivePermissionRepository.deleteOrphans();
+    }
+
+    /**
+     * Recalcule les permissions effectives d'un UserRole à partir de ses trois sources (création d'affectation).
+     */
+    public void rebuild(Long userRoleId) {
+        effectivePermissionRepository.deleteByUserRoleId(userRoleId);
+        effectivePermissionRepository.rebuildForUserRole(userRoleId);
+    }
+
+    public void onUserRoleRemoved(Long userRoleId) {
+        effectivePermissionRepository.deleteByUserRoleId(userRoleId);
+    }
+
+    /**
+     * Corrige la matérialisation sans la vider : lignes manquantes ou de masque erroné réécrites, lignes orphelines supprimées.
+     * Une dérive corrigée peut avoir été embarquée dans des tokens : les versions des autorisations sont alors incrémentées,
+     * faute de savoir quels utilisateurs étaient concernés.
+     */
+    public void reconcile() {
+        int upserted = effectivePermissionRepository.rebuild();
+        int deleted = effectivePermissionRepository.deleteStale();
+        if (upserted > 0 || deleted > 0) {
+            log.warn("Permissions effectives réconciliées : {} lignes insérées ou corrigées, {} supprimées", upserted, deleted);
+            authorizationVersionStore.bumpAllAssigned();
+        } else {
+            log.info("Permissions effectives à jour");
+        }
+    }
+
+    /**
+     * Recalcule entièrement la matérialisation.
+     */
+    public void rebuildAll() {
+        effectivePermissionRepository.deleteAllInBatch();
+        int rows = effectivePermissionRepository.rebuild();
+        log.info("Permissions effectives matérialisées : {} lignes", rows);
+    }
+}
@@ -6,14 +6,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.got.web.gotweb.common.annotations.ToLowerCase;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.ContextException;
-import org.got.web.gotweb.exception.DepartmentException;
-import org.got.web.gotweb.exception.PermissionException;
 import org.got.web.gotweb.exception.RoleException;
 import org.got.web.gotweb.exception.TokenException;
 import org.got.web.gotweb.exception.UserException;
 import org.got.web.gotweb.exception.UserRoleException;
 import org.got.web.gotweb.mail.service.EmailService;
+import org.got.web.gotweb.security.jwt.AuthorizationVersionStore;
+import org.got.web.gotweb.security.jwt.JwtService;
 import org.got.web.gotweb.security.service.CryptoService;
 import org.got.web.gotweb.user.domain.Context;
 import org.got.web.gotweb.user.domain.Department;
@@ -38,24 +40,32 @@ import org.got.web.gotweb.user.mapper.UserRoleMapper;
 import org.got.web.gotweb.user.repository.ContextRepository;
 import org.got.web.gotweb.user.repository.DepartmentRepository;
 import org.got.web.gotweb.user.repository.GotUserRepository;
-import org.got.web.gotweb.user.repository.PermissionRepository;
 import org.got.web.gotweb.user.repository.RoleRepository;
 import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 @Validated
 @RequiredArgsConstructor
 @Slf4j
 public class GotUserService {
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("username", "email");
+
     private final GotUserRepository userRepository;
     private final GotUserMapper userMapper;
     private final UserRoleMapper userRoleMapper;
@@ -65,7 +75,12 @@ public class GotUserService {
     private final RoleRepository roleRepository;
     private final DepartmentRepository departmentRepository;
     private final ContextRepository contextRepository;
-    private final PermissionRepository permissionRepository;
+    private final JwtService jwtService;
+    private final EffectivePermissionService effectivePermissionService;
+    private final UserAccessService userAccessService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataCache referenceDataCache;
+    private final AuthorizationVersionStore authorizationVersionStore;
 
     @Transactional
     public GotUser createUser(@Valid UserCreateDTO createUserDto) {
@@ -150,6 +165,7 @@ public class GotUserService {
             throw new UserException.UserNotFoundException(id);
         }
         userRepository.deleteById(id);
+        userAccessService.onUserDeleted(id);
         log.info("Utilisateur supprimé avec succès, ID: {}", id);
     }
 
@@ -182,6 +198,23 @@ public class GotUserService {
                 .map(userMapper::toResponseFullDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     * La page est lue sans jointure de collection (la limite reste appliquée en base), puis les affectations
+     * de ses utilisateurs sont chargées en une seule requête avant le mapping.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserResponseFullDTO> scrollUsers(UserSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        KeysetPage<GotUser> page = KeysetScroller.scroll(userRepository, UserSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, Function.identity());
+        if (!page.content().isEmpty()) {
+            userRepository.fetchAssignments(page.content().stream().map(GotUser::getId).toList());
+        }
+        return page.map(userMapper::toResponseFullDTO);
+    }
+
     public GotUser verifyEmail(@NotBlank String token) {
         GotUser user = userRepository.findByEmailVerificationToken(token)
                 .orElseThrow(() -> new TokenException.InvalidTokenException(token, TokenException.VERIFICATION_EMAIL, null));
@@ -206,15 +239,14 @@ public class GotUserService {
         }
 
         user.setPassword(cryptoService.hashPassword(updatePasswordDto.newPassword()));
+        GotUser savedUser = userRepository.save(user);
+        // Le changement de mot de passe invalide toutes les sessions existantes
+        jwtService.revokeTokens(savedUser.getId());
 
-        try {
-            emailService.sendPasswordChangeNotification(user);
-        } catch (Exception e) {
-            log.error("Erreur lors de l'envoi de l'email de notification de changement de mot de passe pour l'utilisateur avec l'email {}:", user.getEmail(), e);
-            //TODO : Implémenter un système de notification avec Retry et Dead Letter Queue
-        }
+        // Notification envoyée via l'outbox (nouvelles tentatives et dead letter gérées par EmailDispatcher)
+        emailService.sendPasswordChangeNotification(savedUser);
 
-        return userRepository.save(user);
+        return savedUser;
     }
 
     public GotUser resetPassword(ResetPasswordDto dto) {
@@ -229,13 +261,10 @@ public class GotUserService {
         user.setResetPasswordToken(null);
         user.setResetPasswordTokenExpiresAt(null);
         GotUser savedUser = userRepository.save(user);
+        jwtService.revokeTokens(savedUser.getId());
 
-        try {
-            emailService.sendPasswordChangeNotification(user);
-        } catch (Exception e) {
-            log.error("Erreur lors de l'envoi de l'email de notification de changement de mot de passe pour l'utilisateur avec l'email {}:", user.getEmail(), e);
-            //TODO : Implémenter un système de notification avec Retry et Dead Letter Queue
-        }
+        // Notification envoyée via l'outbox (nouvelles tentatives et dead letter gérées par EmailDispatcher)
+        emailService.sendPasswordChangeNotification(user);
 
         return savedUser;
     }
@@ -270,7 +299,8 @@ public class GotUserService {
 
         user.setEnabled(enabled);
         if (!enabled) {
-            // Invalider les sessions actives si nécessaire
+            // Invalide les sessions actives
+            jwtService.revokeTokens(userId);
             log.info("Désactivation du compte utilisateur: {}", userId);
         } else {
             log.info("Activation du compte utilisateur: {}", userId);
@@ -293,9 +323,8 @@ public class GotUserService {
         userRoleRepository.findByUserRoleDetails(userId, dto.roleId(), dto.departmentId(), dto.contextId())
                 .ifPresent(userRole -> {throw new UserRoleException.DuplicateRoleException(user.getUsername());});
 
-            // Récupération des entités nécessaires
-            Role role = roleRepository.findById(dto.roleId())
-                    .orElseThrow(() -> new RoleException.RoleNotFoundException(dto.roleId()));
+            // Récupération des entités nécessaires (cache de référence : entités détachées, utilisées pour la validation)
+            Role role = referenceDataCache.getRole(dto.roleId());
             // Vérification si le rôle peut être multiple
             if (!role.getAllowsMultiple()) {
                 boolean hasRole = user.getUserRoles().stream()
@@ -305,13 +334,12 @@ public class GotUserService {
                 }
             }
 
-            Department department = departmentRepository.findById(dto.departmentId())
-                    .orElseThrow(() -> new DepartmentException.DepartmentNotFoundException(dto.departmentId()));
-            Context context = contextRepository.findById(dto.contextId())
-                    .orElseThrow(() -> new ContextException.ContextNotFoundException(dto.contextId()));
+            Department department = referenceDataCache.getDepartment(dto.departmentId());
+            Context context = referenceDataCache.getContext(dto.contextId());
 
-            boolean isContextInDepartment = department.getContexts().stream()
-                    .anyMatch(c -> c.getId().equals(context.getId()));
+            // L'identifiant du département se lit sur le proxy sans charger l'association
+            boolean isContextInDepartment = context.getDepartment() != null
+                    && department.getId().equals(context.getDepartment().getId());
 
             if (!isContextInDepartment) {
                 throw new ContextException.InvalidContextOperationException(
@@ -321,9 +349,9 @@ public class GotUserService {
             // Création du nouveau UserRole
             UserRole userRole = UserRole.builder()
                     .gotUser(user)
-                    .role(role)
-                    .department(department)
-                    .context(context)
+                    .role(roleRepository.getReferenceById(role.getId()))
+                    .department(departmentRepository.getReferenceById(department.getId()))
+                    .context(contextRepository.getReferenceById(context.getId()))
                     .validFrom(dto.validFrom())
                     .validTo(dto.validTo())
                     .permissions(new HashSet<>())
@@ -331,9 +359,7 @@ public class GotUserService {
 
         // Ajout des permissions spécifiques si fournies
         if (dto.permissionIds() != null) {
-            for (Long permissionId : dto.permissionIds()) {
-                Permission permission = permissionRepository.findById(permissionId)
-                        .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId));
+            for (Permission permission : referenceDataCache.getPermissions(dto.permissionIds())) {
                 // Utilise la nouvelle méthode pour ajouter uniquement les permissions non héritées
                 if (userRole.addDirectPermission(permission)) {
                     log.debug("Permission directe ajoutée à l'utilisateur {}: {}", 
@@ -345,8 +371,12 @@ public class GotUserService {
             }
         }
 
-        // Sauvegarde du UserRole
-        userRole = userRoleRepository.save(userRole);
+        // Sauvegarde du UserRole puis matérialisation de ses permissions effectives
+        userRole = userRoleRepository.saveAndFlush(userRole);
+        effectivePermissionService.rebuild(userRole.getId());
+        userAccessService.refresh(userId);
+        authorizationVersionStore.bump(userId);
+        publishValidityChanged(userRole, userId);
         return userRole;
     }
 
@@ -370,7 +400,18 @@ public class GotUserService {
         }
         userRole.setValidFrom(dto.validFrom());
         userRole.setValidTo(dto.validTo());
-        return userRoleRepository.save(userRole);
+        userRole = userRoleRepository.saveAndFlush(userRole);
+        userAccessService.refresh(userId);
+        authorizationVersionStore.bump(userId);
+        publishValidityChanged(userRole, userId);
+        return userRole;
+    }
+
+    private void publishValidityChanged(UserRole userRole, Long userId) {
+        if (userRole.getValidFrom() != null || userRole.getValidTo() != null) {
+            eventPublisher.publishEvent(new UserRoleValidityChangedEvent(
+                    userRole.getId(), userId, userRole.getValidFrom(), userRole.getValidTo()));
+        }
     }
 
     @Transactional
@@ -381,7 +422,11 @@ public class GotUserService {
                 userId, dto.roleId(), dto.departmentId(), dto.contextId())
             .orElseThrow(() -> new UserRoleException.UserRoleNotFoundException(
                     String.format("[User:%s-Role:%s-Department:%s-Context%s]", userId, dto.roleId(), dto.departmentId(), dto.contextId())));
+        effectivePermissionService.onUserRoleRemoved(userRole.getId());
         userRoleRepository.deleteById(userRole.getId());
+        userRoleRepository.flush();
+        userAccessService.refresh(userId);
+        authorizationVersionStore.bump(userId);
     }
 
     @Transactional
@@ -398,14 +443,19 @@ public class GotUserService {
             .orElseThrow(() -> new UserRoleException.UserRoleNotFoundException(
                     String.format("[User:%s-Role:%s-Department:%s-Context:%s]", userId, dto.roleId(), dto.departmentId(), dto.contextId())));
         
-        for (Long permissionId : dto.permissionIds()) {
-            Permission permission = permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId));
+        List<Long> addedIds = new ArrayList<>();
+        for (Permission permission : referenceDataCache.getPermissions(dto.permissionIds())) {
             if (!userRole.hasPermission(permission.getName())) {
                 userRole.getPermissions().add(permission);
+                addedIds.add(permission.getId());
             }
         }
-        return userRoleRepository.save(userRole);
+        UserRole saved = userRoleRepository.save(userRole);
+        effectivePermissionService.onUserRolePermissionsAdded(saved.getId(), addedIds);
+        if (!addedIds.isEmpty()) {
+            authorizationVersionStore.bump(userId);
+        }
+        return saved;
     }
 
     @Transactional
@@ -422,12 +472,13 @@ public class GotUserService {
             .orElseThrow(() -> new UserRoleException.UserRoleNotFoundException(
                     String.format("[User:%s-Role:%s-Department:%s-Context%s]", userId, dto.roleId(), dto.departmentId(), dto.contextId())));
 
-        for (Long permissionId : dto.permissionIds()) {
-            Permission permission = permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId));
+        for (Permission permission : referenceDataCache.getPermissions(dto.permissionIds())) {
             userRole.getPermissions().remove(permission);
         }
-        return userRoleRepository.save(userRole);
+        UserRole saved = userRoleRepository.save(userRole);
+        effectivePermissionService.onUserRolePermissionsRemoved(saved.getId(), dto.permissionIds());
+        authorizationVersionStore.bump(userId);
+        return saved;
     }
 
     @Transactional(readOnly = true)
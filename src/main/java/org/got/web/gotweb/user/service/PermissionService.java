@@ -1,6 +1,8 @@
 package org.got.web.gotweb.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.PermissionException;
 import org.got.web.gotweb.user.domain.Permission;
 import org.got.web.gotweb.user.domain.PermissionType;
@@ -16,6 +18,7 @@ import org.got.web.gotweb.user.repository.RoleRepository;
 import org.got.web.gotweb.user.repository.UserRoleRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,11 +29,15 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class PermissionService {
 
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("name");
+
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
     private final RoleRepository roleRepository;
     private final DepartmentRepository departmentRepository;
     private final UserRoleRepository userRoleRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     public PermissionResponseDTO createPermissionDTO(PermissionCreateDTO createDTO) {
         return permissionMapper.toResponseDTO(createPermission(createDTO));
@@ -64,6 +71,7 @@ public class PermissionService {
         permission.setDescription(updateDTO.description());
         permission.setType(PermissionType.valueOf(updateDTO.type()));
 
+        referenceDataCache.evictPermission(id);
         return permissionRepository.save(permission);
     }
 
@@ -87,6 +95,7 @@ public class PermissionService {
         }
 
         permissionRepository.deleteById(permission.getId());
+        referenceDataCache.evictPermission(permission.getId());
     }
 
     @Transactional(readOnly = true)
@@ -95,6 +104,17 @@ public class PermissionService {
             .map(permissionMapper::toResponseDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<PermissionResponseDTO> scrollPermissions(PermissionSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        return KeysetScroller.scroll(permissionRepository, PermissionSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, permissionMapper::toResponseDTO);
+    }
+
     public Set<Permission> getPermissionsEntitiesByIds(Set<Long> permissionIds) {
         return permissionRepository.findByIdIn(permissionIds);
     }
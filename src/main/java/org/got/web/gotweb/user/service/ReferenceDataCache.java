@@ -0,0 +1,127 @@
+package org.got.web.gotweb.user.service;
+
+import org.got.web.gotweb.common.cache.ReadThroughCache;
+import org.got.web.gotweb.exception.ContextException;
+import org.got.web.gotweb.exception.DepartmentException;
+import org.got.web.gotweb.exception.PermissionException;
+import org.got.web.gotweb.exception.RoleException;
+import org.got.web.gotweb.exception.TechnicalException;
+import org.got.web.gotweb.user.domain.Context;
+import org.got.web.gotweb.user.domain.Department;
+import org.got.web.gotweb.user.domain.Permission;
+import org.got.web.gotweb.user.domain.Role;
+import org.got.web.gotweb.user.repository.ContextRepository;
+import org.got.web.gotweb.user.repository.DepartmentRepository;
+import org.got.web.gotweb.user.repository.PermissionRepository;
+import org.got.web.gotweb.user.repository.RoleRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.got.web.gotweb.config.CacheConfig.CACHE_CONTEXTS;
+import static org.got.web.gotweb.config.CacheConfig.CACHE_DEPARTMENTS;
+import static org.got.web.gotweb.config.CacheConfig.CACHE_PERMISSIONS;
+import static org.got.web.gotweb.config.CacheConfig.CACHE_ROLES;
+
+/**
+ * Caches en lecture traversante des entités de référence : rôles, permissions, départements et contextes.
+ * *
+ * Les caches sont transactionnels : une éviction (ou une mise en cache) faite dans une transaction n'est appliquée
+ * qu'après son commit, ce qui évite de recharger l'ancienne valeur avant que la modification soit visible.
+ * Les services modifiant ces entités doivent appeler la méthode {@code evict*} correspondante.
+ * *
+ * Les entités retournées sont détachées (voir {@link ReadThroughCache}) : pour les associer à une entité gérée
+ * et parcourir leurs relations, utiliser {@code getReferenceById} sur le repository.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final ReadThroughCache<Role> roles;
+    private final ReadThroughCache<Permission> permissions;
+    private final ReadThroughCache<Department> departments;
+    private final ReadThroughCache<Context> contexts;
+
+    public ReferenceDataCache(CacheManager cacheManager,
+                              RoleRepository roleRepository,
+                              PermissionRepository permissionRepository,
+                              DepartmentRepository departmentRepository,
+                              ContextRepository contextRepository) {
+        this.roles = new ReadThroughCache<>(transactional(cacheManager, CACHE_ROLES), Role.class,
+                roleRepository::findAllById, Role::getId);
+        this.permissions = new ReadThroughCache<>(transactional(cacheManager, CACHE_PERMISSIONS), Permission.class,
+                permissionRepository::findAllById, Permission::getId);
+        this.departments = new ReadThroughCache<>(transactional(cacheManager, CACHE_DEPARTMENTS), Department.class,
+                departmentRepository::findAllById, Department::getId);
+        this.contexts = new ReadThroughCache<>(transactional(cacheManager, CACHE_CONTEXTS), Context.class,
+                contextRepository::findAllById, Context::getId);
+    }
+
+    private static Cache transactional(CacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new TechnicalException("Cache '" + name + "' non configuré");
+        }
+        return new TransactionAwareCacheDecorator(cache);
+    }
+
+    public Role getRole(Long id) {
+        return roles.get(id).orElseThrow(() -> new RoleException.RoleNotFoundException(id));
+    }
+
+    public Department getDepartment(Long id) {
+        return departments.get(id).orElseThrow(() -> new DepartmentException.DepartmentNotFoundException(id));
+    }
+
+    public Context getContext(Long id) {
+        return contexts.get(id).orElseThrow(() -> new ContextException.ContextNotFoundException(id));
+    }
+
+    public Permission getPermission(Long id) {
+        return permissions.get(id).orElseThrow(() -> new PermissionException.PermissionNotFoundException(id));
+    }
+
+    /**
+     * Récupère des permissions en un seul chargement groupé pour les identifiants absents du cache.
+     *
+     * @return les permissions, dans l'ordre des identifiants demandés (sans doublon)
+     * @throws PermissionException.PermissionNotFoundException pour le premier identifiant inconnu
+     */
+    public List<Permission> getPermissions(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Permission> found = permissions.getAll(ids);
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                throw new PermissionException.PermissionNotFoundException(id);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    public void evictRole(Long id) {
+        roles.evict(id);
+    }
+
+    public void evictPermission(Long id) {
+        permissions.evict(id);
+    }
+
+    public void evictDepartment(Long id) {
+        departments.evict(id);
+    }
+
+    public void evictContext(Long id) {
+        contexts.evict(id);
+    }
+
+    public void evictContexts(Collection<Long> ids) {
+        contexts.evictAll(ids);
+    }
+}
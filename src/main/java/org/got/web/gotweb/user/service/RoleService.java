@@ -1,8 +1,11 @@
 package org.got.web.gotweb.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.PermissionException;
 import org.got.web.gotweb.exception.RoleException;
+import org.got.web.gotweb.security.jwt.AuthorizationVersionStore;
 import org.got.web.gotweb.user.domain.Permission;
 import org.got.web.gotweb.user.domain.Role;
 import org.got.web.gotweb.user.dto.role.request.RoleCreateDTO;
@@ -12,26 +15,31 @@ import org.got.web.gotweb.user.dto.role.response.RoleResponseDTO;
 import org.got.web.gotweb.user.dto.role.search.RoleSearchCriteria;
 import org.got.web.gotweb.user.dto.role.search.RoleSpecification;
 import org.got.web.gotweb.user.mapper.RoleMapper;
-import org.got.web.gotweb.user.repository.PermissionRepository;
 import org.got.web.gotweb.user.repository.RoleRepository;
 import org.got.web.gotweb.user.repository.UserRoleRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
 public class RoleService {
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("name");
+
     private final RoleRepository roleRepository;
     private final RoleMapper roleMapper;
-    private final PermissionRepository permissionRepository;
     private final UserRoleRepository userRoleRepository;
+    private final EffectivePermissionService effectivePermissionService;
+    private final ReferenceDataCache referenceDataCache;
+    private final AuthorizationVersionStore authorizationVersionStore;
 
     public RoleResponseDTO createRoleDTO(RoleCreateDTO createDTO) {
         return roleMapper.toResponseDTO(createRole(createDTO));
@@ -42,13 +50,7 @@ public class RoleService {
             throw new RoleException.RoleAlreadyExistsException(createDTO.name());
         }
 
-        Set<Permission> permissions = new HashSet<>();
-        if (createDTO.permissionIds() != null && !createDTO.permissionIds().isEmpty()) {
-            permissions = createDTO.permissionIds().stream()
-                .map(permissionId -> permissionRepository.findById(permissionId)
-                    .orElseThrow(() -> new RoleException.RoleNotFoundException(permissionId)))
-                .collect(Collectors.toSet());
-        }
+        Set<Permission> permissions = new HashSet<>(referenceDataCache.getPermissions(createDTO.permissionIds()));
 
         Role role = new Role();
         role.setName(createDTO.name());
@@ -75,6 +77,7 @@ public class RoleService {
         role.setDescription(updateDTO.description());
         role.setAllowsMultiple(updateDTO.allowsMultiple());
 
+        referenceDataCache.evictRole(id);
         return roleRepository.save(role);
     }
 
@@ -89,6 +92,7 @@ public class RoleService {
             throw new RoleException.InvalidRoleOperationException("Impossible de supprimer un role assigné à des utilisateurs");
         }
         roleRepository.deleteById(id);
+        referenceDataCache.evictRole(id);
     }
 
     @Transactional(readOnly = true)
@@ -97,6 +101,17 @@ public class RoleService {
             .map(roleMapper::toResponseDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<RoleResponseDTO> scrollRoles(RoleSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        return KeysetScroller.scroll(roleRepository, RoleSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, roleMapper::toResponseDTO);
+    }
+
     public RoleResponseDTO getRoleById(Long id) {
         return roleMapper.toResponseDTO(getRoleEntityById(id));
     }
@@ -135,16 +150,17 @@ public class RoleService {
                     String.format("Toutes les permissions sont déjà assignées au rôle '%s'", role.getName()));
         }
 
-        Set<Permission> permissions = idsToAdd.stream()
-            .map(permissionId -> permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId)))
-            .collect(Collectors.toSet());
+        List<Permission> permissions = referenceDataCache.getPermissions(idsToAdd);
 
         if(role.getPermissions() == null) {
             role.setPermissions(new HashSet<>());
         }
         role.getPermissions().addAll(permissions);
-        return roleMapper.toResponseDTO(roleRepository.save(role));
+        Role saved = roleRepository.save(role);
+        referenceDataCache.evictRole(roleId);
+        effectivePermissionService.onRolePermissionsAdded(roleId, idsToAdd);
+        authorizationVersionStore.bumpForRole(roleId);
+        return roleMapper.toResponseDTO(saved);
     }
 
     public RoleResponseDTO removePermissionFromRole(Long roleId, RolePermissionDTO dto) {
@@ -159,14 +175,15 @@ public class RoleService {
                         String.format("Permission (%s) n'appartient pas au rôle (%s)", permissionId, role.getName()));
             }
         });
-        Set<Permission> permissionsToRemove = dto.permissionIds().stream()
-            .map(permissionId -> permissionRepository.findById(permissionId)
-                .orElseThrow(() -> new PermissionException.PermissionNotFoundException(permissionId)))
-            .collect(Collectors.toSet());
+        List<Permission> permissionsToRemove = referenceDataCache.getPermissions(dto.permissionIds());
 
         if (role.getPermissions() != null && !role.getPermissions().isEmpty()) {
             role.getPermissions().removeAll(permissionsToRemove);
-            return roleMapper.toResponseDTO(roleRepository.save(role));
+            Role saved = roleRepository.save(role);
+            referenceDataCache.evictRole(roleId);
+            effectivePermissionService.onRolePermissionsRemoved(roleId, dto.permissionIds());
+            authorizationVersionStore.bumpForRole(roleId);
+            return roleMapper.toResponseDTO(saved);
         }
         return roleMapper.toResponseDTO(role);
     }
@@ -0,0 +1,69 @@
+package org.got.web.gotweb.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.repository.UserAccessRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintient le modèle de lecture des accès courants par utilisateur (table {@code user_access}).
+ * *
+ * La ligne d'un utilisateur est recalculée dans la transaction de chaque écriture sur ses UserRole,
+ * ainsi qu'au passage de chaque borne de validité de ses affectations ({@link UserRoleValidityScheduler}).
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class UserAccessService {
+
+    private final UserAccessRepository userAccessRepository;
+
+    /**
+     * Initialise le modèle de lecture au premier démarrage (table vide).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (userAccessRepository.count() == 0) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Recalcule les accès de l'utilisateur. Les écritures sur ses UserRole doivent avoir été flushées.
+     */
+    public void refresh(Long userId) {
+        userAccessRepository.refresh(List.of(userId), LocalDateTime.now());
+    }
+
+    public void onUserDeleted(Long userId) {
+        userAccessRepository.deleteById(userId);
+    }
+
+    /**
+     * Recalcule les utilisateurs dont une borne de validité ({@code next_change_at}) est dépassée,
+     * par exemple pendant un arrêt de l'application.
+     *
+     * @return les utilisateurs recalculés, dont les autorisations en cours doivent être périmées
+     */
+    public List<Long> refreshDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> userIds = userAccessRepository.findDueUserIds(now);
+        if (!userIds.isEmpty()) {
+            userAccessRepository.refresh(userIds, now);
+            log.debug("Accès recalculés après passage d'une borne de validité : {} utilisateurs", userIds.size());
+        }
+        return userIds;
+    }
+
+    public void rebuildAll() {
+        int rows = userAccessRepository.refreshAll(LocalDateTime.now());
+        log.info("Modèle de lecture des accès utilisateurs reconstruit : {} utilisateurs", rows);
+    }
+}
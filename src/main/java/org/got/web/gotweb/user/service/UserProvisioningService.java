@@ -0,0 +1,230 @@
+package org.got.web.gotweb.user.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.mail.service.EmailService;
+import org.got.web.gotweb.security.service.CryptoService;
+import org.got.web.gotweb.security.service.PasswordHashingPool;
+import org.got.web.gotweb.user.domain.GotUser;
+import org.got.web.gotweb.user.dto.user.request.UserBulkCreateDTO;
+import org.got.web.gotweb.user.dto.user.request.UserCreateDTO;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO.Row;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO.Status;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Création d'utilisateurs en masse.
+ * *
+ * Contrairement à {@link GotUserService#createUser}, le traitement est ensembliste :
+ * - hachage BCrypt en parallèle sur un pool borné, hors transaction : aucune connexion n'est retenue pendant le calcul
+ * - puis, dans une transaction courte : une seule requête pour détecter les noms d'utilisateur et emails déjà pris,
+ *   identifiants réservés en une fois dans la séquence de la table, et insertion multi-lignes {@code ON CONFLICT DO NOTHING}
+ * - une ligne insérée entre-temps par une requête concurrente n'est pas retournée par l'insertion :
+ *   elle est marquée en doublon au lieu de faire échouer tout le lot sur la contrainte d'unicité
+ * - emails de vérification déposés dans l'outbox, envoyés après validation de la transaction
+ * *
+ * Chaque ligne reçoit son propre statut : une ligne rejetée n'empêche pas la création des autres.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserProvisioningService {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private static final String INSERT_USERS = """
+            INSERT INTO users (id, username, password, email, first_name, last_name, enabled, email_verified,
+                               email_verification_token, email_verification_token_expires_at, failed_login_attempts, created_at)
+            VALUES %s
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+    private static final String INSERT_USER_VALUES = "(?, ?, ?, ?, ?, ?, ?, false, ?, ?, 0, ?)";
+
+    private final GotUserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final PasswordHashingPool passwordHashingPool;
+    private final CryptoService cryptoService;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserBulkCreateResponseDTO createUsers(UserBulkCreateDTO bulkCreateDto) {
+        List<UserCreateDTO> users = bulkCreateDto.users();
+        log.info("Création en masse de {} utilisateurs", users.size());
+
+        Row[] rows = new Row[users.size()];
+        List<Integer> candidates = validate(users, rows);
+
+        if (!candidates.isEmpty()) {
+            // Hachage avant toute requête : aucune connexion n'est ouverte pendant le calcul BCrypt
+            List<String> hashes = passwordHashingPool.hashAll(candidates.stream().map(i -> users.get(i).password()).toList());
+            String[] passwordHashes = new String[users.size()];
+            for (int k = 0; k < candidates.size(); k++) {
+                passwordHashes[candidates.get(k)] = hashes.get(k);
+            }
+            // Contrôle des conflits et insertion dans une même transaction courte
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Integer> accepted = rejectExisting(users, candidates, rows);
+                if (!accepted.isEmpty()) {
+                    insert(users, accepted, passwordHashes, rows);
+                }
+            });
+        }
+
+        List<Row> result = List.of(rows);
+        int created = (int) result.stream().filter(row -> row.status() == Status.CREATED).count();
+        log.info("Création en masse terminée : {} créés, {} rejetés", created, rows.length - created);
+        return new UserBulkCreateResponseDTO(created, rows.length - created, result);
+    }
+
+    /**
+     * Valide chaque ligne et écarte les doublons internes à la requête.
+     *
+     * @return les index des lignes retenues
+     */
+    private List<Integer> validate(List<UserCreateDTO> users, Row[] rows) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            UserCreateDTO user = users.get(i);
+            if (user == null) {
+                rows[i] = new Row(i, null, Status.INVALID, null, "Ligne vide");
+                continue;
+            }
+            Set<ConstraintViolation<UserCreateDTO>> violations = validator.validate(user);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                rows[i] = new Row(i, user.username(), Status.INVALID, null, message);
+            } else if (!usernames.add(normalize(user.username()))) {
+                rows[i] = duplicate(i, user, Status.DUPLICATE_USERNAME, "nom d'utilisateur en double dans la requête");
+            } else if (!emails.add(normalize(user.email()))) {
+                rows[i] = duplicate(i, user, Status.DUPLICATE_EMAIL, "email en double dans la requête");
+            } else {
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Écarte les lignes dont le nom d'utilisateur ou l'email existe déjà, en une seule requête.
+     *
+     * @return les index des lignes sans conflit
+     */
+    private List<Integer> rejectExisting(List<UserCreateDTO> users, List<Integer> candidates, Row[] rows) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Set<String> usernames = new HashSet<>(candidates.size());
+        Set<String> emails = new HashSet<>(candidates.size());
+        for (int i : candidates) {
+            usernames.add(normalize(users.get(i).username()));
+            emails.add(normalize(users.get(i).email()));
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (Object[] existing : userRepository.findConflictingUsernamesAndEmails(usernames, emails)) {
+            takenUsernames.add(normalize((String) existing[0]));
+            takenEmails.add(normalize((String) existing[1]));
+        }
+
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            UserCreateDTO user = users.get(i);
+            if (takenUsernames.contains(normalize(user.username()))) {
+                rows[i] = duplicate(i, user, Status.DUPLICATE_USERNAME, "nom d'utilisateur déjà utilisé");
+            } else if (takenEmails.contains(normalize(user.email()))) {
+                rows[i] = duplicate(i, user, Status.DUPLICATE_EMAIL, "email déjà utilisé");
+            } else {
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    private void insert(List<UserCreateDTO> users, List<Integer> accepted, String[] passwordHashes, Row[] rows) {
+        List<Long> ids = userRepository.reserveIds(accepted.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp tokenExpiresAt = Timestamp.valueOf(now.plusHours(24));
+        List<GotUser> created = new ArrayList<>(accepted.size());
+        List<Object[]> batch = new ArrayList<>(accepted.size());
+
+        for (int k = 0; k < accepted.size(); k++) {
+            UserCreateDTO user = users.get(accepted.get(k));
+            GotUser gotUser = GotUser.builder()
+                    .id(ids.get(k))
+                    .username(normalize(user.username()))
+                    .email(normalize(user.email()))
+                    .firstName(user.firstName())
+                    .lastName(user.lastName())
+                    .enabled(user.enabled())
+                    .emailVerificationToken(cryptoService.generateRandomVerificationToken())
+                    .build();
+            created.add(gotUser);
+            batch.add(new Object[]{
+                    gotUser.getId(), gotUser.getUsername(), passwordHashes[accepted.get(k)], gotUser.getEmail(),
+                    gotUser.getFirstName(), gotUser.getLastName(), gotUser.isEnabled(),
+                    gotUser.getEmailVerificationToken(), tokenExpiresAt, createdAt
+            });
+        }
+
+        Set<Long> inserted = new HashSet<>(accepted.size());
+        for (int from = 0; from < batch.size(); from += INSERT_BATCH_SIZE) {
+            List<Object[]> chunk = batch.subList(from, Math.min(from + INSERT_BATCH_SIZE, batch.size()));
+            String sql = INSERT_USERS.formatted(String.join(", ", Collections.nCopies(chunk.size(), INSERT_USER_VALUES)));
+            inserted.addAll(jdbcTemplate.queryForList(sql, Long.class, chunk.stream().flatMap(Arrays::stream).toArray()));
+        }
+
+        List<Integer> conflicting = new ArrayList<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            int index = accepted.get(k);
+            GotUser gotUser = created.get(k);
+            if (!inserted.contains(gotUser.getId())) {
+                conflicting.add(index);
+                continue;
+            }
+            rows[index] = new Row(index, gotUser.getUsername(), Status.CREATED, gotUser.getId(), null);
+            emailService.sendVerificationEmail(gotUser, gotUser.getEmailVerificationToken());
+        }
+
+        if (!conflicting.isEmpty()) {
+            // Créés par une requête concurrente après le contrôle : le conflit est désormais visible
+            log.info("{} utilisateurs créés simultanément par une autre requête", conflicting.size());
+            for (int index : rejectExisting(users, conflicting, rows)) {
+                rows[index] = duplicate(index, users.get(index), Status.DUPLICATE_USERNAME, "utilisateur créé simultanément");
+            }
+        }
+    }
+
+    private static Row duplicate(int index, UserCreateDTO user, Status status, String message) {
+        return new Row(index, user.username(), status, null, message);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase();
+    }
+}
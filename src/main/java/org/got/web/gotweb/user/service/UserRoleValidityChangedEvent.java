@@ -0,0 +1,9 @@
+package org.got.web.gotweb.user.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publié lorsqu'une affectation de rôle est créée ou que ses bornes de validité changent.
+ */
+public record UserRoleValidityChangedEvent(Long userRoleId, Long userId, LocalDateTime validFrom, LocalDateTime validTo) {
+}
@@ -0,0 +1,127 @@
+package org.got.web.gotweb.user.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.common.scheduling.TimingWheel;
+import org.got.web.gotweb.security.jwt.AuthorizationVersionStore;
+import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.got.web.gotweb.user.repository.projection.UserRoleValidityBoundary;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applique les bornes de validité des UserRole ({@code validFrom}/{@code validTo}) au moment où elles sont atteintes.
+ * *
+ * Les bornes à venir sont chargées une fois au démarrage dans une {@link TimingWheel}, puis tenues à jour par
+ * les {@link UserRoleValidityChangedEvent} : aucune interrogation périodique de la table.
+ * Au passage d'une borne, les utilisateurs dont le modèle de lecture est échu ({@code next_change_at}) sont recalculés
+ * et la version de leurs autorisations est incrémentée : leurs tokens sont périmés, et le prochain refresh n'embarque
+ * que les affectations alors actives. Les bornes passées pendant un arrêt suivent le même chemin au démarrage.
+ * *
+ * {@code next_change_at} étant dérivé des affectations courantes, une borne dont l'affectation a été supprimée
+ * ou modifiée depuis sa planification ne trouve rien à recalculer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserRoleValidityScheduler {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final int SLOTS = 512;
+
+    private final UserRoleRepository userRoleRepository;
+    private final UserAccessService userAccessService;
+    private final AuthorizationVersionStore authorizationVersionStore;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(TICK, SLOTS, Instant.now());
+    private ScheduledExecutorService ticker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Bornes passées pendant l'arrêt de l'application
+        applyDue();
+
+        List<UserRoleValidityBoundary> boundaries = userRoleRepository.findUpcomingValidityBoundaries(LocalDateTime.now());
+        for (UserRoleValidityBoundary boundary : boundaries) {
+            register(boundary.userId(), boundary.validFrom(), boundary.validTo());
+        }
+        log.info("Bornes de validité des rôles planifiées : {} affectations", boundaries.size());
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-role-validity");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, TICK.toMillis(), TICK.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onValidityChanged(UserRoleValidityChangedEvent event) {
+        register(event.userId(), event.validFrom(), event.validTo());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void register(Long userId, LocalDateTime validFrom, LocalDateTime validTo) {
+        Instant now = Instant.now();
+        if (validFrom != null) {
+            schedule(userId, toInstant(validFrom), now);
+        }
+        if (validTo != null) {
+            // L'affectation reste active jusqu'à validTo inclus : elle devient inactive au tick suivant
+            schedule(userId, toInstant(validTo).plus(TICK), now);
+        }
+    }
+
+    private void schedule(Long userId, Instant deadline, Instant now) {
+        if (deadline.isAfter(now)) {
+            wheel.schedule(deadline, userId);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Long> expired = new ArrayList<>();
+            wheel.advance(Instant.now(), expired::add);
+            if (!expired.isEmpty()) {
+                applyDue();
+            }
+        } catch (Exception e) {
+            // Une exception interromprait définitivement la planification
+            log.error("Erreur lors du traitement des bornes de validité des rôles", e);
+        }
+    }
+
+    /**
+     * Recalcule les accès échus et périme les autorisations des utilisateurs concernés.
+     */
+    private void applyDue() {
+        List<Long> userIds = userAccessService.refreshDue();
+        if (!userIds.isEmpty()) {
+            authorizationVersionStore.bump(userIds);
+            log.info("Bornes de validité atteintes : accès recalculés et autorisations périmées pour les utilisateurs {}", userIds);
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
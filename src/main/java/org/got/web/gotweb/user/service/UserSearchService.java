@@ -0,0 +1,60 @@
+package org.got.web.gotweb.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.exception.UserException;
+import org.got.web.gotweb.user.config.UserSearchConfig;
+import org.got.web.gotweb.user.dto.user.response.UserSearchHitDTO;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.projection.UserSearchHit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recherche textuelle des utilisateurs sur l'index trigrammes (pg_trgm).
+ * *
+ * Un même terme retrouve les correspondances par préfixe ("jdu" → "jdupont"), par sous-chaîne ("pont" → "jdupont")
+ * et approchées ("dupnt" → "jdupont") sur le nom d'utilisateur, l'email, le prénom et le nom.
+ * L'index est maintenu par PostgreSQL : aucune synchronisation n'est nécessaire lors des écritures.
+ * *
+ * La recherche approchée, plus coûteuse, n'est lancée que si aucun utilisateur ne contient le terme.
+ * Le terme doit comporter au moins trois caractères : en deçà, il ne forme aucun trigramme exploitable par l'index.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final GotUserRepository userRepository;
+    private final UserSearchConfig userSearchConfig;
+
+    @Transactional(readOnly = true)
+    public List<UserSearchHitDTO> search(String query, Integer limit) {
+        String term = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (term.length() < MIN_TERM_LENGTH) {
+            throw new UserException("Le terme recherché doit contenir au moins " + MIN_TERM_LENGTH + " caractères");
+        }
+        int maxResults = userSearchConfig.getMaxResults();
+        int effectiveLimit = limit == null ? maxResults : Math.clamp(limit, 1, maxResults);
+        int candidates = Math.max(effectiveLimit, userSearchConfig.getMaxCandidates());
+
+        userRepository.forceCustomPlans();
+        String escaped = escapeLike(term);
+        List<UserSearchHit> hits = userRepository.searchByText(term, "%" + escaped + "%", escaped + "%", candidates, effectiveLimit);
+        if (hits.isEmpty()) {
+            userRepository.setWordSimilarityThreshold(Double.toString(userSearchConfig.getSimilarityThreshold()));
+            hits = userRepository.searchBySimilarity(term, candidates, effectiveLimit);
+        }
+        return hits.stream()
+                .map(hit -> new UserSearchHitDTO(hit.getId(), hit.getUsername(), hit.getEmail(),
+                        hit.getFirstName(), hit.getLastName(), hit.isEnabled(), hit.getScore()))
+                .toList();
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
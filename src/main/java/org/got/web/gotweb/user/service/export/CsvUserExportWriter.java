@@ -0,0 +1,89 @@
+package org.got.web.gotweb.user.service.export;
+
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Export CSV (RFC 4180) : une ligne par utilisateur.
+ * Les affectations de rôle sont regroupées dans une colonne, au format {@code rôle@département/contexte},
+ * séparées par {@code |}.
+ * Les cellules commençant par {@code =}, {@code +}, {@code -}, {@code @}, une tabulation ou un retour chariot
+ * sont préfixées d'une apostrophe pour qu'un tableur ne les interprète pas comme une formule
+ * (les tableurs ignorent ces deux caractères blancs avant d'analyser la cellule).
+ */
+final class CsvUserExportWriter implements UserExportWriter {
+
+    private static final String HEADER = "id,username,email,firstName,lastName,enabled,emailVerified,createdAt,lastLoginAt,roles";
+
+    private final BufferedWriter writer;
+    private final StringBuilder roles = new StringBuilder();
+
+    CsvUserExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(UserExportRow user, List<UserRoleExportRow> userRoles) throws IOException {
+        writer.write(String.valueOf(user.id()));
+        writeField(user.username());
+        writeField(user.email());
+        writeField(user.firstName());
+        writeField(user.lastName());
+        writeField(String.valueOf(user.enabled()));
+        writeField(String.valueOf(user.emailVerified()));
+        writeField(user.createdAt() != null ? user.createdAt().toString() : null);
+        writeField(user.lastLoginAt() != null ? user.lastLoginAt().toString() : null);
+
+        roles.setLength(0);
+        for (UserRoleExportRow role : userRoles) {
+            if (!roles.isEmpty()) {
+                roles.append('|');
+            }
+            roles.append(role.role()).append('@').append(role.department());
+            if (role.context() != null) {
+                roles.append('/').append(role.context());
+            }
+        }
+        writeField(roles.toString());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (isFormulaTrigger(value.charAt(0))) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean isFormulaTrigger(char first) {
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
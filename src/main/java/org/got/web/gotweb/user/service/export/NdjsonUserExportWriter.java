@@ -0,0 +1,69 @@
+package org.got.web.gotweb.user.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Export NDJSON : un objet JSON par utilisateur et par ligne, ses affectations de rôle imbriquées.
+ */
+final class NdjsonUserExportWriter implements UserExportWriter {
+
+    private final JsonGenerator generator;
+
+    NdjsonUserExportWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void writeHeader() {
+        // Pas d'en-tête en NDJSON
+    }
+
+    @Override
+    public void write(UserExportRow user, List<UserRoleExportRow> roles) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", user.id());
+        generator.writeStringField("username", user.username());
+        generator.writeStringField("email", user.email());
+        generator.writeStringField("firstName", user.firstName());
+        generator.writeStringField("lastName", user.lastName());
+        generator.writeBooleanField("enabled", user.enabled());
+        generator.writeBooleanField("emailVerified", user.emailVerified());
+        writeDateTime("createdAt", user.createdAt());
+        writeDateTime("lastLoginAt", user.lastLoginAt());
+        generator.writeArrayFieldStart("roles");
+        for (UserRoleExportRow role : roles) {
+            generator.writeStartObject();
+            generator.writeStringField("role", role.role());
+            generator.writeStringField("department", role.department());
+            generator.writeStringField("context", role.context());
+            writeDateTime("validFrom", role.validFrom());
+            writeDateTime("validTo", role.validTo());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    private void writeDateTime(String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+}
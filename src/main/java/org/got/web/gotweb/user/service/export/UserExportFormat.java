@@ -0,0 +1,36 @@
+package org.got.web.gotweb.user.service.export;
+
+import org.got.web.gotweb.exception.UserException;
+
+/**
+ * Formats d'export des utilisateurs.
+ */
+public enum UserExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    UserExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static UserExportFormat from(String value) {
+        for (UserExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new UserException("Format d'export inconnu : " + value);
+    }
+}
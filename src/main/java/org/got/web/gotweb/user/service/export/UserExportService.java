@@ -0,0 +1,85 @@
+package org.got.web.gotweb.user.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Export complet des utilisateurs et de leurs affectations de rôle, en mémoire constante.
+ * *
+ * Les utilisateurs sont lus par un curseur côté serveur (projection, sans entité gérée), par tranches de {@link #CHUNK_SIZE}.
+ * Les affectations de rôle de chaque tranche sont chargées en une requête, puis la tranche est écrite et vidée vers le client.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final GotUserRepository userRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Écrit l'export dans le flux fourni. Le flux n'est pas fermé.
+     *
+     * @return le nombre d'utilisateurs exportés
+     */
+    @Transactional(readOnly = true)
+    public long export(UserExportFormat format, OutputStream out) throws IOException {
+        UserExportWriter writer = switch (format) {
+            case NDJSON -> new NdjsonUserExportWriter(objectMapper, out);
+            case CSV -> new CsvUserExportWriter(out);
+        };
+        writer.writeHeader();
+
+        long count = 0;
+        List<UserExportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<UserExportRow> users = userRepository.streamForExport()) {
+            Iterator<UserExportRow> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(writer, chunk);
+                    count += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Export {} terminé : {} utilisateurs", format, count);
+        return count;
+    }
+
+    private void writeChunk(UserExportWriter writer, List<UserExportRow> chunk) throws IOException {
+        List<Long> userIds = new ArrayList<>(chunk.size());
+        for (UserExportRow user : chunk) {
+            userIds.add(user.id());
+        }
+        // Les deux listes sont triées par identifiant utilisateur : un parcours fusionné suffit
+        List<UserRoleExportRow> roles = userRoleRepository.findExportRowsByUserIds(userIds);
+        int r = 0;
+        for (UserExportRow user : chunk) {
+            int from = r;
+            while (r < roles.size() && roles.get(r).userId().equals(user.id())) {
+                r++;
+            }
+            writer.write(user, roles.subList(from, r));
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,19 @@
+package org.got.web.gotweb.user.service.export;
+
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Écriture incrémentale d'un export : chaque utilisateur est écrit dès qu'il est lu, sans rien accumuler.
+ */
+interface UserExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(UserExportRow user, List<UserRoleExportRow> roles) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -2,8 +2,10 @@ package org.got.web.gotweb.user.service.security;
 
 import lombok.RequiredArgsConstructor;
 import org.got.web.gotweb.exception.AccessConditionGroupException;
+import org.got.web.gotweb.security.evaluator.routing.EndpointsChangedEvent;
 import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
 import org.got.web.gotweb.user.repository.security.AccessConditionGroupRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.List;
 public class AccessConditionGroupService {
 
     private final AccessConditionGroupRepository conditionGroupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<AccessConditionGroup> getAllConditionGroups() {
         return conditionGroupRepository.findAll();
@@ -32,12 +35,15 @@ public class AccessConditionGroupService {
         existingGroup.setConditions(updatedGroup.getConditions());
         existingGroup.setCombinationOperator(updatedGroup.getCombinationOperator());
         existingGroup.setDescription(updatedGroup.getDescription());
-        return conditionGroupRepository.save(existingGroup);
+        AccessConditionGroup saved = conditionGroupRepository.save(existingGroup);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("updateConditionGroup:" + id));
+        return saved;
     }
 
     public void deleteConditionGroup(Long id) {
         AccessConditionGroup existingGroup = getConditionGroupById(id);
         conditionGroupRepository.delete(existingGroup);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("deleteConditionGroup:" + id));
     }
 }
 
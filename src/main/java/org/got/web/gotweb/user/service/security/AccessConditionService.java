@@ -2,8 +2,10 @@ package org.got.web.gotweb.user.service.security;
 
 import lombok.RequiredArgsConstructor;
 import org.got.web.gotweb.exception.AccessConditionException;
+import org.got.web.gotweb.security.evaluator.routing.EndpointsChangedEvent;
 import org.got.web.gotweb.user.domain.security.AccessCondition;
 import org.got.web.gotweb.user.repository.security.AccessConditionRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.List;
 public class AccessConditionService {
 
     private final AccessConditionRepository conditionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<AccessCondition> getAllConditions() {
         return conditionRepository.findAll();
@@ -33,11 +36,14 @@ public class AccessConditionService {
         existing.setOperator(condition.getOperator());
         existing.setValues(condition.getValues());
         existing.setNegate(condition.isNegate());
-        return conditionRepository.save(existing);
+        AccessCondition saved = conditionRepository.save(existing);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("updateCondition:" + id));
+        return saved;
     }
 
     public void deleteCondition(Long id) {
         AccessCondition existing = getConditionById(id);
         conditionRepository.delete(existing);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("deleteCondition:" + id));
     }
 }
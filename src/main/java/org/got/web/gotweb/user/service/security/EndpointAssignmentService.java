@@ -2,6 +2,7 @@ package org.got.web.gotweb.user.service.security;
 
 import lombok.RequiredArgsConstructor;
 import org.got.web.gotweb.exception.EndpointException;
+import org.got.web.gotweb.security.evaluator.routing.EndpointsChangedEvent;
 import org.got.web.gotweb.user.domain.security.AccessCondition;
 import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
 import org.got.web.gotweb.user.domain.security.Endpoint;
@@ -11,6 +12,7 @@ import org.got.web.gotweb.user.dto.security.EndpointConditionGroupAssignmentDTO;
 import org.got.web.gotweb.user.repository.security.AccessConditionGroupRepository;
 import org.got.web.gotweb.user.repository.security.AccessConditionRepository;
 import org.got.web.gotweb.user.repository.security.EndpointRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ public class EndpointAssignmentService {
     private final EndpointRepository endpointRepository;
     private final AccessConditionRepository conditionRepository;
     private final AccessConditionGroupRepository conditionGroupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Assigne (remplace) les groupes de conditions à l'endpoint identifié par pattern et httpMethod.
@@ -52,7 +55,9 @@ public class EndpointAssignmentService {
         // Affectation des groupes sauvegardés à l'endpoint
         endpoint.setConditionGroups(groups);
 
-        return endpointRepository.save(endpoint);
+        Endpoint saved = endpointRepository.save(endpoint);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("assignConditionGroupsToEndpoint:" + saved.getId()));
+        return saved;
     }
 
     /**
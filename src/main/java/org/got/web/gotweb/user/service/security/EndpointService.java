@@ -1,7 +1,10 @@
 package org.got.web.gotweb.user.service.security;
 
 import lombok.RequiredArgsConstructor;
+import org.got.web.gotweb.common.pagination.KeysetPage;
+import org.got.web.gotweb.common.pagination.KeysetScroller;
 import org.got.web.gotweb.exception.EndpointException;
+import org.got.web.gotweb.security.evaluator.routing.EndpointsChangedEvent;
 import org.got.web.gotweb.user.domain.security.Endpoint;
 import org.got.web.gotweb.user.domain.security.EndpointStatus;
 import org.got.web.gotweb.user.dto.endpoint.request.EndpointUpdateDTO;
@@ -11,14 +14,17 @@ import org.got.web.gotweb.user.dto.endpoint.search.EndpointSpecification;
 import org.got.web.gotweb.user.dto.security.EndpointInfo;
 import org.got.web.gotweb.user.mapper.EndpointMapper;
 import org.got.web.gotweb.user.repository.security.EndpointRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -27,8 +33,12 @@ import java.util.stream.Collectors;
 @Transactional
 public class EndpointService {
 
+    /** Champs non nuls acceptés par la pagination par curseur (l'identifiant l'est toujours). */
+    private static final Set<String> SCROLL_SORT_FIELDS = Set.of("pattern");
+
     private final EndpointRepository endpointRepository;
     private final EndpointMapper endpointMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Endpoint> getAllEndpoints() {
@@ -47,6 +57,17 @@ public class EndpointService {
                 .map(endpointMapper::toResponseDTO);
     }
 
+    /**
+     * Recherche paginée par curseur : ni total ni {@code OFFSET}, le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param cursor jeton de continuation renvoyé par la page précédente (null pour la première page)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<EndpointResponseDTO> scrollEndpoints(EndpointSearchCriteria criteria, String sortBy, Sort.Direction direction, int size, String cursor) {
+        return KeysetScroller.scroll(endpointRepository, EndpointSpecification.createSpecification(criteria),
+                SCROLL_SORT_FIELDS, sortBy, direction, size, cursor, endpointMapper::toResponseDTO);
+    }
+
     public Endpoint updateEndpoint(Long id, EndpointUpdateDTO updatedEndpoint) {
         Endpoint existing = getEndpointById(id);
         existing.setName(updatedEndpoint.name());
@@ -54,7 +75,9 @@ public class EndpointService {
         existing.setLastUpdated(LocalDateTime.now());
         existing.setDescription(updatedEndpoint.description());
 
-        return endpointRepository.save(existing);
+        Endpoint saved = endpointRepository.save(existing);
+        eventPublisher.publishEvent(new EndpointsChangedEvent("updateEndpoint:" + id));
+        return saved;
     }
 
     /**
@@ -107,6 +130,8 @@ public class EndpointService {
             obsolete.setLastUpdated(LocalDateTime.now());
             endpointRepository.save(obsolete);
         }
+
+        eventPublisher.publishEvent(new EndpointsChangedEvent("synchronizeEndpoints"));
     }
 
 }
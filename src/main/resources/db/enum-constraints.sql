@@ -0,0 +1,8 @@
+-- Contraintes CHECK des colonnes @Enumerated(STRING), générées par Hibernate à la création des tables.
+-- ddl-auto=update ne les modifie jamais : elles sont recréées ici pour accepter les valeurs ajoutées depuis.
+-- Toute nouvelle valeur d'une énumération persistée doit être reportée dans ce fichier.
+
+-- CriterionType : DEPARTMENT_SUBTREE
+ALTER TABLE access_conditions DROP CONSTRAINT IF EXISTS access_conditions_type_check;
+ALTER TABLE access_conditions ADD CONSTRAINT access_conditions_type_check
+    CHECK (type IN ('ROLE', 'PERMISSION', 'DEPARTMENT', 'DEPARTMENT_SUBTREE', 'CONTEXT', 'USER'));
@@ -0,0 +1,6 @@
+-- Extensions PostgreSQL requises par db/search-indexes.sql (index trigrammes et recherche approchée des utilisateurs).
+-- Étape d'exploitation, hors démarrage de l'application : la création d'une extension exige le droit CREATE sur la base,
+-- que le rôle applicatif n'a pas à détenir. À exécuter une fois par base avec un rôle suffisamment privilégié :
+--   psql -d got_web -f src/main/resources/db/extensions.sql
+-- En développement, si le rôle applicatif possède la base, le script peut être ajouté à SQL_INIT_SCHEMA_LOCATIONS.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
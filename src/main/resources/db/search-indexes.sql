@@ -0,0 +1,24 @@
+-- Index des recherches, non exprimables en JPA (exécuté après la mise à jour du schéma par Hibernate).
+-- Index trigrammes : les recherches LIKE '%terme%' des spécifications et la recherche plein texte des utilisateurs s'appuient dessus.
+-- Prérequis : extension pg_trgm installée au préalable par l'exploitation (voir db/extensions.sql).
+
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+
+-- Document de recherche : l'expression doit rester identique à celle de GotUserRepository.searchByText
+CREATE INDEX IF NOT EXISTS idx_users_search_document_trgm ON users USING gin (
+    lower(username || ' ' || email || ' ' || coalesce(first_name, '') || ' ' || coalesce(last_name, '')) gin_trgm_ops);
+-- Préfixe du nom d'utilisateur : parcours ordonné interrompu par la limite, quel que soit le nombre de correspondances
+CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_roles_name_trgm ON roles USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_departments_name_trgm ON departments USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_contexts_name_trgm ON contexts USING gin (lower(name) gin_trgm_ops);
+
+-- Modèle de lecture des accès utilisateurs (UserAccess) : "qui a le rôle X dans le département Y" en une recherche d'index
+CREATE INDEX IF NOT EXISTS idx_user_access_role_ids ON user_access USING gin (role_ids);
+CREATE INDEX IF NOT EXISTS idx_user_access_department_ids ON user_access USING gin (department_ids);
+CREATE INDEX IF NOT EXISTS idx_user_access_context_ids ON user_access USING gin (context_ids);
+CREATE INDEX IF NOT EXISTS idx_user_access_assignment_keys ON user_access USING gin (assignment_keys);
@@ -0,0 +1,92 @@
+package org.got.web.gotweb.common.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie l'absence de faux négatif, le taux de faux positifs obtenu et les ajouts concurrents.
+ */
+class BloomFilterTest {
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        assertFalse(filter.mightContain("jti"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void neverReturnsFalseNegatives() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String value = UUID.randomUUID().toString();
+            values.add(value);
+            filter.put(value);
+        }
+
+        values.forEach(value -> assertTrue(filter.mightContain(value), value));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        int insertions = 20_000;
+        BloomFilter filter = BloomFilter.create(insertions, 0.01);
+        for (int i = 0; i < insertions; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("valid-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "Taux de faux positifs trop élevé : " + rate);
+    }
+
+    @Test
+    void saturatedFilterAcceptsEverything() {
+        BloomFilter filter = BloomFilter.create(1, 0.5);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        assertTrue(filter.mightContain("never-added"));
+    }
+
+    @Test
+    void concurrentPutsAreNotLost() throws InterruptedException {
+        BloomFilter filter = BloomFilter.create(40_000, 0.01);
+        int threads = 4;
+        int perThread = 10_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    filter.put("jti-" + (offset + i));
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int i = 0; i < threads * perThread; i++) {
+            assertTrue(filter.mightContain("jti-" + i));
+        }
+    }
+}
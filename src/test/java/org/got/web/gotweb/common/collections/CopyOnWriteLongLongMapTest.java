@@ -0,0 +1,146 @@
+package org.got.web.gotweb.common.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Vérifie la table primitive : clé 0 stockée à part, croissance, fusions et lectures concurrentes sur instantané.
+ */
+class CopyOnWriteLongLongMapTest {
+
+    private static final long ABSENT = -1L;
+
+    @Test
+    void emptyMapReturnsDefault() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+
+        assertEquals(0, map.size());
+        assertEquals(ABSENT, map.get(0, ABSENT));
+        assertEquals(ABSENT, map.get(42, ABSENT));
+    }
+
+    @Test
+    void storesZeroAndNegativeKeys() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+
+        map.put(0, 10);
+        map.put(-7, 20);
+        map.put(Long.MIN_VALUE, 30);
+        map.put(0, 11);
+
+        assertEquals(3, map.size());
+        assertEquals(11, map.get(0, ABSENT));
+        assertEquals(20, map.get(-7, ABSENT));
+        assertEquals(30, map.get(Long.MIN_VALUE, ABSENT));
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 64, key);
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals(key, map.get(key * 64, ABSENT));
+        }
+        assertEquals(ABSENT, map.get(65, ABSENT));
+    }
+
+    @Test
+    void mergeCombinesWithExistingValue() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+
+        map.merge(1, 5, Math::max);
+        map.merge(1, 3, Math::max);
+        map.merge(0, 2, Long::sum);
+        map.merge(0, 2, Long::sum);
+
+        assertEquals(5, map.get(1, ABSENT));
+        assertEquals(4, map.get(0, ABSENT));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void mergeAllAppliesDuplicatesInOrder() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+        map.put(1, 100);
+
+        map.mergeAll(new long[]{1, 2, 2, 3}, new long[]{50, 7, 9, 1}, Math::max);
+
+        assertEquals(3, map.size());
+        assertEquals(100, map.get(1, ABSENT));
+        assertEquals(9, map.get(2, ABSENT));
+        assertEquals(1, map.get(3, ABSENT));
+    }
+
+    @Test
+    void replaceAllDropsPreviousEntries() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+        map.put(1, 1);
+
+        map.replaceAll(new long[]{2, 0}, new long[]{20, 0});
+
+        assertEquals(2, map.size());
+        assertEquals(ABSENT, map.get(1, ABSENT));
+        assertEquals(20, map.get(2, ABSENT));
+        assertEquals(0, map.get(0, ABSENT));
+    }
+
+    @Test
+    void removeValuesBelowKeepsThreshold() {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+        map.replaceAll(new long[]{0, 1, 2, 3}, new long[]{5, 9, 10, 11});
+
+        map.removeValuesBelow(10);
+
+        assertEquals(2, map.size());
+        assertEquals(ABSENT, map.get(0, ABSENT));
+        assertEquals(ABSENT, map.get(1, ABSENT));
+        assertEquals(10, map.get(2, ABSENT));
+        assertEquals(11, map.get(3, ABSENT));
+    }
+
+    /**
+     * Un lecteur ne doit jamais voir une valeur régresser ni une clé déjà publiée disparaître pendant les copies.
+     */
+    @Test
+    void readersSeeMonotonicSnapshotsDuringWrites() throws InterruptedException {
+        CopyOnWriteLongLongMap map = new CopyOnWriteLongLongMap();
+        int keys = 2_000;
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            long[] lastSeen = new long[keys + 1];
+            while (!done.get() && failure.get() == null) {
+                for (int key = 1; key <= keys; key++) {
+                    long value = map.get(key, 0);
+                    if (value < lastSeen[key]) {
+                        failure.set("Valeur régressée pour la clé " + key + " : " + value + " < " + lastSeen[key]);
+                        return;
+                    }
+                    lastSeen[key] = value;
+                }
+            }
+        });
+        reader.start();
+
+        for (int round = 1; round <= 5; round++) {
+            for (int key = 1; key <= keys; key++) {
+                map.merge(key, round, Math::max);
+            }
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(keys, map.size());
+    }
+}
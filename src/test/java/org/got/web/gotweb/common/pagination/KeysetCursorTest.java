@@ -0,0 +1,88 @@
+package org.got.web.gotweb.common.pagination;
+
+import org.got.web.gotweb.user.domain.security.EndpointStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie l'aller-retour du jeton de pagination, son rattachement au tri demandé et le refus des champs non triables.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsEveryValueType() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("name", "Épée de Glace");
+        keys.put("count", 42);
+        keys.put("enabled", true);
+        keys.put("createdAt", LocalDateTime.of(2024, 2, 29, 23, 59, 59, 123_456_789));
+        keys.put("description", null);
+        keys.put("id", Long.MAX_VALUE);
+
+        String cursor = KeysetCursor.encode("name", Sort.Direction.DESC, ScrollPosition.forward(keys));
+        KeysetScrollPosition position = KeysetCursor.decode(cursor, "name", Sort.Direction.DESC);
+
+        assertEquals(keys, position.getKeys());
+        assertEquals(keys.keySet().stream().toList(), position.getKeys().keySet().stream().toList());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String cursor = KeysetCursor.encode("name", Sort.Direction.ASC,
+                ScrollPosition.forward(Map.of("name", "???>>>~~~", "id", 1L)));
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void missingCursorStartsFromTheBeginning() {
+        assertTrue(KeysetCursor.decode(null, "name", Sort.Direction.ASC).isInitial());
+        assertTrue(KeysetCursor.decode("  ", "name", Sort.Direction.ASC).isInitial());
+    }
+
+    @Test
+    void rejectsTokenIssuedForAnotherSort() {
+        String cursor = KeysetCursor.encode("name", Sort.Direction.ASC, ScrollPosition.forward(Map.of("name", "a", "id", 1L)));
+
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.decode(cursor, "email", Sort.Direction.ASC));
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.decode(cursor, "name", Sort.Direction.DESC));
+    }
+
+    @Test
+    void rejectsUnreadableTokens() {
+        String cursor = KeysetCursor.encode("name", Sort.Direction.ASC, ScrollPosition.forward(Map.of("name", "a", "id", 1L)));
+        String truncated = cursor.substring(0, cursor.length() - 4);
+        String otherVersion = Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[]{9, 0, 4, 'n', 'a', 'm', 'e'});
+
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.decode("%%%", "name", Sort.Direction.ASC));
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.decode(truncated, "name", Sort.Direction.ASC));
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.decode(otherVersion, "name", Sort.Direction.ASC));
+    }
+
+    /**
+     * Un champ énuméré n'est pas encodable : le scroller doit le refuser avant d'interroger la base
+     * (le dépôt nul ferait échouer toute requête).
+     */
+    @Test
+    void scrollerRejectsUndeclaredSortFieldBeforeQuerying() {
+        assertThrows(KeysetCursor.InvalidCursorException.class, () -> KeysetCursor.encode("status", Sort.Direction.ASC,
+                ScrollPosition.forward(Map.of("status", EndpointStatus.ACTIVE, "id", 1L))));
+
+        assertThrows(KeysetScroller.UnsupportedSortException.class, () -> KeysetScroller.scroll(null, null,
+                Set.of("pattern"), "status", Sort.Direction.ASC, 10, null, endpoint -> endpoint));
+        assertThrows(KeysetScroller.UnsupportedSortException.class, () -> KeysetScroller.scroll(null, null,
+                Set.of("username", "email"), "lastLoginAt", Sort.Direction.ASC, 10, null, user -> user));
+    }
+}
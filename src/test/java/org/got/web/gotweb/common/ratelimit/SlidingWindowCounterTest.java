@@ -0,0 +1,158 @@
+package org.got.web.gotweb.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie l'estimation glissante et l'état compacté dans un seul long : bascule de fenêtre, saturation des compteurs
+ * et débordement de l'index de fenêtre sur 32 bits.
+ */
+class SlidingWindowCounterTest {
+
+    private static final long WINDOW = 1_000;
+
+    @Test
+    void rejectsInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowCounter(Duration.ofSeconds(1), 0));
+    }
+
+    @Test
+    void countsEventsWithinWindow() {
+        SlidingWindowCounter counter = counter();
+        long start = 5 * WINDOW;
+
+        assertEquals(0, counter.estimate("ip", start));
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i, counter.incrementAndEstimate("ip", start + i));
+        }
+        assertEquals(10, counter.estimate("ip", start + WINDOW - 1));
+        assertEquals(0, counter.estimate("autre", start));
+    }
+
+    @Test
+    void weighsPreviousWindowByRemainingShare() {
+        SlidingWindowCounter counter = counter();
+        long start = 5 * WINDOW;
+        for (int i = 0; i < 10; i++) {
+            counter.incrementAndEstimate("ip", start + 100);
+        }
+
+        assertEquals(10, counter.estimate("ip", start + WINDOW));
+        assertEquals(5, counter.estimate("ip", start + WINDOW + 500));
+        assertEquals(0, counter.estimate("ip", start + 2 * WINDOW - 1));
+        assertEquals(1 + 7, counter.incrementAndEstimate("ip", start + WINDOW + 250));
+    }
+
+    @Test
+    void forgetsWindowsOlderThanPrevious() {
+        SlidingWindowCounter counter = counter();
+        long start = 5 * WINDOW;
+        for (int i = 0; i < 10; i++) {
+            counter.incrementAndEstimate("ip", start);
+        }
+
+        assertEquals(0, counter.estimate("ip", start + 2 * WINDOW));
+        assertEquals(1, counter.incrementAndEstimate("ip", start + 3 * WINDOW));
+    }
+
+    /**
+     * Le compteur courant sature à 16 bits sans déborder sur le compteur de la fenêtre précédente.
+     */
+    @Test
+    void saturatesCurrentCount() {
+        SlidingWindowCounter counter = counter();
+        long start = 5 * WINDOW;
+        for (int i = 0; i < 70_000; i++) {
+            counter.incrementAndEstimate("ip", start);
+        }
+
+        assertEquals(0xFFFF, counter.estimate("ip", start));
+        assertEquals(0xFFFF, counter.estimate("ip", start + WINDOW));
+        assertEquals(1 + 0xFFFF / 2, counter.incrementAndEstimate("ip", start + WINDOW + 500));
+    }
+
+    /**
+     * L'index de fenêtre est tronqué à 32 bits : la fenêtre précédente doit être reconnue de part et d'autre du débordement.
+     */
+    @Test
+    void keepsPreviousWindowAcrossIndexWrap() {
+        SlidingWindowCounter counter = counter();
+        long lastBeforeWrap = 0xFFFFFFFFL * WINDOW;
+
+        counter.incrementAndEstimate("ip", lastBeforeWrap);
+        counter.incrementAndEstimate("ip", lastBeforeWrap);
+
+        assertEquals(2, counter.estimate("ip", lastBeforeWrap));
+        assertEquals(1 + 2, counter.incrementAndEstimate("ip", lastBeforeWrap + WINDOW));
+        assertEquals(1, counter.estimate("ip", lastBeforeWrap + 2 * WINDOW));
+    }
+
+    /**
+     * Le délai retourné est le plus court au terme duquel l'estimation est repassée sous la limite.
+     */
+    @Test
+    void computesDelayUntilBelowLimit() {
+        SlidingWindowCounter counter = counter();
+        long start = 5 * WINDOW;
+        for (int i = 0; i < 10; i++) {
+            counter.incrementAndEstimate("ip", start + 100);
+        }
+
+        assertEquals(0, counter.millisUntilBelow("inconnue", 1, start));
+        assertEquals(0, counter.millisUntilBelow("ip", 11, start + 100));
+        // Fenêtre courante pleine : il faut attendre sa fin puis la décroissance de sa part
+        long delay = counter.millisUntilBelow("ip", 5, start + 100);
+        assertEquals(WINDOW - 100 + 501, delay);
+        assertEquals(5, counter.estimate("ip", start + 100 + delay - 1));
+        assertEquals(4, counter.estimate("ip", start + 100 + delay));
+        // Déjà dans la fenêtre suivante : seule la part restante de la précédente compte
+        long later = start + WINDOW + 400;
+        delay = counter.millisUntilBelow("ip", 5, later);
+        assertEquals(101, delay);
+        assertEquals(4, counter.estimate("ip", later + delay));
+    }
+
+    @Test
+    void resetForgetsKey() {
+        SlidingWindowCounter counter = counter();
+        counter.incrementAndEstimate("ip", 0);
+        counter.incrementAndEstimate("ip", 1);
+
+        counter.reset("ip");
+
+        assertEquals(0, counter.estimate("ip", 2));
+        assertEquals(1, counter.incrementAndEstimate("ip", 3));
+    }
+
+    @Test
+    void countsConcurrentIncrementsExactly() throws InterruptedException {
+        SlidingWindowCounter counter = counter();
+        long now = 5 * WINDOW;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    counter.incrementAndEstimate("ip", now);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8_000, counter.estimate("ip", now));
+    }
+
+    private static SlidingWindowCounter counter() {
+        return new SlidingWindowCounter(Duration.ofMillis(WINDOW), 1_000);
+    }
+}
@@ -0,0 +1,116 @@
+package org.got.web.gotweb.common.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie les échéances de la roue : jamais en avance, au plus un tick de retard, y compris au-delà d'un tour de roue.
+ */
+class TimingWheelTest {
+
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final Instant ORIGIN = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void rejectsSubMillisecondTick() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<String>(Duration.ofNanos(10), 8, ORIGIN));
+    }
+
+    @Test
+    void neverExpiresBeforeDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        wheel.schedule(ORIGIN.plusMillis(2_500), "a");
+
+        assertEquals(List.of(), advance(wheel, ORIGIN.plusMillis(2_000)));
+        assertEquals(List.of(), advance(wheel, ORIGIN.plusMillis(2_999)));
+        assertEquals(List.of("a"), advance(wheel, ORIGIN.plusMillis(3_000)));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineOnTickBoundaryExpiresOnThatTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        wheel.schedule(ORIGIN.plusSeconds(2), "a");
+
+        assertEquals(List.of(), advance(wheel, ORIGIN.plusMillis(1_999)));
+        assertEquals(List.of("a"), advance(wheel, ORIGIN.plusSeconds(2)));
+    }
+
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        advance(wheel, ORIGIN.plusSeconds(10));
+        wheel.schedule(ORIGIN.plusSeconds(3), "late");
+
+        assertEquals(List.of("late"), advance(wheel, ORIGIN.plusSeconds(11)));
+    }
+
+    /**
+     * Une échéance à plus d'un tour partage son compartiment avec celles du tour courant sans expirer avec elles.
+     */
+    @Test
+    void keepsEntriesBeyondOneRotation() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        wheel.schedule(ORIGIN.plusSeconds(3), "tour 1");
+        wheel.schedule(ORIGIN.plusSeconds(3 + 8), "tour 2");
+        wheel.schedule(ORIGIN.plusSeconds(3 + 16), "tour 3");
+
+        assertEquals(List.of("tour 1"), advance(wheel, ORIGIN.plusSeconds(3)));
+        assertEquals(2, wheel.size());
+        assertEquals(List.of(), advance(wheel, ORIGIN.plusSeconds(10)));
+        assertEquals(List.of("tour 2"), advance(wheel, ORIGIN.plusSeconds(11)));
+        assertEquals(List.of("tour 3"), advance(wheel, ORIGIN.plusSeconds(19)));
+    }
+
+    @Test
+    void catchesUpAfterLongPause() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        for (int second = 1; second <= 40; second++) {
+            wheel.schedule(ORIGIN.plusSeconds(second), second);
+        }
+
+        List<Integer> expired = advance(wheel, ORIGIN.plusSeconds(30));
+
+        assertEquals(30, expired.size());
+        assertTrue(expired.stream().allMatch(second -> second <= 30));
+        assertEquals(10, wheel.size());
+        assertEquals(10, advance(wheel, ORIGIN.plusSeconds(40)).size());
+    }
+
+    @Test
+    void ignoresClockGoingBackwards() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 8, ORIGIN);
+        advance(wheel, ORIGIN.plusSeconds(5));
+        wheel.schedule(ORIGIN.plusSeconds(6), "a");
+
+        assertEquals(List.of(), advance(wheel, ORIGIN.plusSeconds(2)));
+        assertEquals(List.of("a"), advance(wheel, ORIGIN.plusSeconds(6)));
+    }
+
+    @Test
+    void expiresEachEntryOnce() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, ORIGIN);
+        wheel.schedule(ORIGIN.plusSeconds(1), "a");
+        wheel.schedule(ORIGIN.plusSeconds(1), "b");
+
+        List<String> expired = advance(wheel, ORIGIN.plusSeconds(1));
+        expired.addAll(advance(wheel, ORIGIN.plusSeconds(100)));
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+    }
+
+    private static <T> List<T> advance(TimingWheel<T> wheel, Instant now) {
+        List<T> expired = new ArrayList<>();
+        wheel.advance(now, expired::add);
+        return expired;
+    }
+}
@@ -0,0 +1,61 @@
+package org.got.web.gotweb.mail.repository;
+
+import org.got.web.gotweb.mail.domain.EmailOutboxMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie sur PostgreSQL la réservation des messages de l'outbox : un message réservé est invisible
+ * jusqu'à l'expiration de son bail, puis repris par le cycle suivant (nœud arrêté pendant l'envoi).
+ * Chaque test est annulé en fin d'exécution.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EmailOutboxRepositoryTest {
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Test
+    void leasedMessageIsReclaimedAfterLeaseExpiry() {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = save(now.minusSeconds(1)).getId();
+
+        List<Long> claimed = outboxRepository.lockDueIds(now, 1_000);
+        assertTrue(claimed.contains(id));
+        outboxRepository.lease(List.of(id), now.plusMinutes(5));
+
+        assertFalse(outboxRepository.lockDueIds(now, 1_000).contains(id));
+        assertFalse(outboxRepository.lockDueIds(now.plusMinutes(5).minusNanos(1_000), 1_000).contains(id));
+        assertTrue(outboxRepository.lockDueIds(now.plusMinutes(5), 1_000).contains(id));
+    }
+
+    @Test
+    void scheduledRetryIsNotClaimedBeforeItsTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Long id = save(now.plusSeconds(30)).getId();
+
+        assertFalse(outboxRepository.lockDueIds(now, 1_000).contains(id));
+        assertTrue(outboxRepository.lockDueIds(now.plusSeconds(30), 1_000).contains(id));
+    }
+
+    private EmailOutboxMessage save(LocalDateTime nextAttemptAt) {
+        return outboxRepository.save(EmailOutboxMessage.builder()
+                .recipient("arya@got.fr")
+                .subject("Vérification")
+                .template("verification-email")
+                .variables("{}")
+                .attempts(0)
+                .nextAttemptAt(nextAttemptAt)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
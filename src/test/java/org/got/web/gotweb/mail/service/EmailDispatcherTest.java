@@ -0,0 +1,264 @@
+package org.got.web.gotweb.mail.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.got.web.gotweb.mail.config.EmailOutboxConfig;
+import org.got.web.gotweb.mail.domain.EmailOutboxMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie l'envoi des lots de l'outbox contre un serveur SMTP local minimal : en cas d'échec partiel
+ * ({@link org.springframework.mail.MailSendException}), seuls les messages refusés sont replanifiés,
+ * les autres sont supprimés de l'outbox.
+ */
+class EmailDispatcherTest {
+
+    private FakeSmtpServer smtpServer;
+    private JavaMailSenderImpl mailSender;
+    private EmailOutboxService outboxService;
+    private EmailService emailService;
+    private EmailOutboxConfig config;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new FakeSmtpServer(Set.of("inconnu@got.fr"));
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.port());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+        mailSender.setJavaMailProperties(properties);
+
+        outboxService = mock(EmailOutboxService.class);
+        emailService = mock(EmailService.class);
+        when(outboxService.readVariables(any())).thenReturn(Map.of());
+        when(emailService.buildMessage(anyString(), anyString(), anyString(), any())).thenAnswer(invocation -> {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            helper.setFrom("noreply@got.fr");
+            helper.setTo(invocation.<String>getArgument(0));
+            helper.setSubject(invocation.getArgument(1));
+            helper.setText("<p>Bonjour</p>", true);
+            return message;
+        });
+
+        config = new EmailOutboxConfig();
+        config.setWorkers(1);
+        dispatcher = new EmailDispatcher(outboxService, emailService, mailSender, config);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.shutdown();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsBatchOnOneConnection() {
+        claims(message(1L, "arya@got.fr"), message(2L, "jon@got.fr"), message(3L, "sansa@got.fr"));
+
+        dispatcher.drain();
+
+        assertEquals(Set.of(1L, 2L, 3L), sentIds());
+        verify(outboxService, never()).markFailed(anyLong(), any());
+        assertEquals(Set.of("arya@got.fr", "jon@got.fr", "sansa@got.fr"), Set.copyOf(smtpServer.delivered()));
+        assertEquals(1, smtpServer.connections());
+    }
+
+    /**
+     * Le serveur refuse un destinataire : seul ce message est replanifié, les autres du lot sont supprimés de l'outbox.
+     */
+    @Test
+    void retriesOnlyRejectedMessagesOfPartialFailure() {
+        claims(message(1L, "arya@got.fr"), message(2L, "inconnu@got.fr"), message(3L, "sansa@got.fr"));
+
+        dispatcher.drain();
+
+        assertEquals(Set.of(1L, 3L), sentIds());
+        ArgumentCaptor<Throwable> failure = ArgumentCaptor.forClass(Throwable.class);
+        verify(outboxService).markFailed(eq(2L), failure.capture());
+        assertTrue(failure.getValue() instanceof MessagingException);
+        verify(outboxService, never()).markFailed(eq(1L), any());
+        verify(outboxService, never()).markFailed(eq(3L), any());
+        assertEquals(Set.of("arya@got.fr", "sansa@got.fr"), Set.copyOf(smtpServer.delivered()));
+    }
+
+    @Test
+    void retriesWholeChunkWhenServerIsUnreachable() throws Exception {
+        smtpServer.close();
+        claims(message(1L, "arya@got.fr"), message(2L, "jon@got.fr"));
+
+        dispatcher.drain();
+
+        verify(outboxService).markFailed(eq(1L), any());
+        verify(outboxService).markFailed(eq(2L), any());
+        assertEquals(Set.of(), sentIds());
+    }
+
+    /**
+     * Un message impossible à construire (template, variables) échoue seul, sans bloquer l'envoi du reste du lot.
+     */
+    @Test
+    void retriesMessageThatCannotBeBuilt() throws Exception {
+        when(emailService.buildMessage(eq("casse@got.fr"), anyString(), anyString(), any()))
+                .thenThrow(new MessagingException("template illisible"));
+        claims(message(1L, "casse@got.fr"), message(2L, "jon@got.fr"));
+
+        dispatcher.drain();
+
+        verify(outboxService).markFailed(eq(1L), any(MessagingException.class));
+        assertEquals(Set.of(2L), sentIds());
+    }
+
+    @Test
+    void splitsBatchIntoConnections() {
+        config.setMessagesPerConnection(2);
+        claims(message(1L, "arya@got.fr"), message(2L, "jon@got.fr"), message(3L, "sansa@got.fr"));
+
+        dispatcher.drain();
+
+        assertEquals(2, smtpServer.connections());
+        assertEquals(3, smtpServer.delivered().size());
+    }
+
+    private void claims(EmailOutboxMessage... batch) {
+        when(outboxService.claim()).thenReturn(List.of(batch), List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> sentIds() {
+        ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxService, atLeast(0)).markSent(sent.capture());
+        Set<Long> ids = new HashSet<>();
+        sent.getAllValues().forEach(ids::addAll);
+        return ids;
+    }
+
+    private static EmailOutboxMessage message(long id, String recipient) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Vérification")
+                .template("verification-email")
+                .variables("{}")
+                .build();
+    }
+
+    /**
+     * Serveur SMTP minimal : accepte tout, sauf les destinataires listés, refusés par un 550 au {@code RCPT TO}.
+     * Ses threads sont des threads plateforme : l'envoi, bloqué dans les méthodes synchronisées de JavaMail,
+     * immobilise le thread porteur du thread virtuel du dispatcher.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+
+        private final ServerSocket socket = new ServerSocket(0);
+        private final Set<String> rejected;
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        FakeSmtpServer(Set<String> rejected) throws IOException {
+            this.rejected = rejected;
+            Thread.ofPlatform().daemon().start(this::accept);
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        List<String> delivered() {
+            return delivered;
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        private void accept() {
+            while (!socket.isClosed()) {
+                try {
+                    Socket client = socket.accept();
+                    connections.incrementAndGet();
+                    Thread.ofPlatform().daemon().start(() -> serve(client));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket client) {
+            try (client;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(client.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost ESMTP");
+                String recipient = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        reply(out, rejected.contains(recipient) ? "550 5.1.1 Mailbox unavailable" : "250 OK");
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Contenu du message ignoré
+                        }
+                        delivered.add(recipient);
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                // Connexion interrompue par le client
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.got.web.gotweb.mail.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.got.web.gotweb.mail.config.EmailOutboxConfig;
+import org.got.web.gotweb.mail.domain.EmailDeadLetter;
+import org.got.web.gotweb.mail.domain.EmailOutboxMessage;
+import org.got.web.gotweb.mail.repository.EmailDeadLetterRepository;
+import org.got.web.gotweb.mail.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie la planification des nouvelles tentatives (backoff exponentiel plafonné), le passage en dead letter
+ * au nombre maximal de tentatives et la durée du bail posé par la réservation.
+ */
+class EmailOutboxServiceTest {
+
+    private EmailOutboxRepository outboxRepository;
+    private EmailDeadLetterRepository deadLetterRepository;
+    private EmailOutboxConfig config;
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(EmailOutboxRepository.class);
+        deadLetterRepository = mock(EmailDeadLetterRepository.class);
+        config = new EmailOutboxConfig();
+        config.setMaxAttempts(4);
+        config.setInitialBackoff(1_000);
+        config.setMaxBackoff(5_000);
+        service = new EmailOutboxService(outboxRepository, deadLetterRepository, config, new ObjectMapper(),
+                mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void schedulesRetryWithExponentialBackoff() {
+        assertRetryScheduled(0, 1_000);
+        assertRetryScheduled(1, 2_000);
+        assertRetryScheduled(2, 4_000);
+    }
+
+    @Test
+    void capsBackoff() {
+        config.setMaxAttempts(50);
+
+        assertRetryScheduled(3, 5_000);
+        assertRetryScheduled(40, 5_000);
+    }
+
+    @Test
+    void keepsLastErrorForRetry() {
+        EmailOutboxMessage message = message(0);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        service.markFailed(1L, new IllegalStateException("x".repeat(2_000)));
+
+        assertEquals(1, message.getAttempts());
+        assertEquals(1_024, message.getLastError().length());
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    @Test
+    void movesToDeadLetterAfterMaxAttempts() {
+        EmailOutboxMessage message = message(3);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        service.markFailed(1L, new IllegalStateException("550 boîte inexistante"));
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        verify(outboxRepository).delete(message);
+        assertEquals(4, deadLetter.getValue().getAttempts());
+        assertEquals("arya@got.fr", deadLetter.getValue().getRecipient());
+        assertEquals("verification-email", deadLetter.getValue().getTemplate());
+        assertEquals("{\"username\":\"arya\"}", deadLetter.getValue().getVariables());
+        assertEquals("550 boîte inexistante", deadLetter.getValue().getLastError());
+        assertEquals(message.getCreatedAt(), deadLetter.getValue().getCreatedAt());
+    }
+
+    @Test
+    void ignoresMessageAlreadyRemoved() {
+        when(outboxRepository.findById(1L)).thenReturn(Optional.empty());
+
+        service.markFailed(1L, new IllegalStateException());
+
+        verify(deadLetterRepository, never()).save(any());
+    }
+
+    /**
+     * La réservation repousse la prochaine tentative de la durée du bail : le message redevient dû à son expiration.
+     */
+    @Test
+    void claimLeasesForLeaseDuration() {
+        config.setLeaseDuration(60_000);
+        when(outboxRepository.lockDueIds(any(), eq(config.getBatchSize()))).thenReturn(List.of(1L, 2L));
+        when(outboxRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(message(0), message(0)));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(2, service.claim().size());
+        LocalDateTime after = LocalDateTime.now();
+
+        ArgumentCaptor<LocalDateTime> leaseUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxRepository).lease(eq(List.of(1L, 2L)), leaseUntil.capture());
+        assertFalse(leaseUntil.getValue().isBefore(before.plusMinutes(1)));
+        assertFalse(leaseUntil.getValue().isAfter(after.plusMinutes(1)));
+    }
+
+    @Test
+    void claimWithoutDueMessageLeasesNothing() {
+        when(outboxRepository.lockDueIds(any(), eq(config.getBatchSize()))).thenReturn(List.of());
+
+        assertTrue(service.claim().isEmpty());
+        verify(outboxRepository, never()).lease(any(), any());
+    }
+
+    /**
+     * Vérifie qu'après l'échec d'un message ayant déjà {@code attempts} échecs, la tentative suivante est planifiée
+     * {@code expectedDelay} ms plus tard.
+     */
+    private void assertRetryScheduled(int attempts, long expectedDelay) {
+        EmailOutboxMessage message = message(attempts);
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(message));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.markFailed(1L, new IllegalStateException("421 indisponible"));
+        LocalDateTime after = LocalDateTime.now();
+
+        assertEquals(attempts + 1, message.getAttempts());
+        assertEquals("421 indisponible", message.getLastError());
+        Duration delay = Duration.ofMillis(expectedDelay);
+        assertFalse(message.getNextAttemptAt().isBefore(before.plus(delay)));
+        assertFalse(message.getNextAttemptAt().isAfter(after.plus(delay)));
+    }
+
+    private static EmailOutboxMessage message(int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(1L)
+                .recipient("arya@got.fr")
+                .subject("Vérification")
+                .template("verification-email")
+                .variables("{\"username\":\"arya\"}")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now().minusHours(1))
+                .build();
+    }
+}
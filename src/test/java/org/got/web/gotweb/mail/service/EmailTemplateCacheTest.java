@@ -0,0 +1,151 @@
+package org.got.web.gotweb.mail.service;
+
+import org.got.web.gotweb.mail.config.MailConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que le rendu pré-compilé est identique au rendu Thymeleaf et qu'il substitue les valeurs attendues.
+ * Le débit comparé des deux rendus est mesuré par {@code EmailTemplateRenderingBenchmark} (src/jmh).
+ */
+class EmailTemplateCacheTest {
+
+    private static final String APP_NAME = "GOT ERP";
+    private static final List<String> TEMPLATES = List.of("email-verification", "password-reset", "password-changed");
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateCache templateCache;
+
+    @BeforeEach
+    void setUp() {
+        MailConfig mailConfig = new MailConfig();
+        templateEngine = mailConfig.thymeleafTemplateEngine(mailConfig.thymeleafTemplateResolver());
+        templateCache = new EmailTemplateCache(templateEngine, APP_NAME);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void precompiledRenderingMatchesThymeleaf() {
+        for (String template : TEMPLATES) {
+            // Premier rendu : pré-compilation ; second rendu : substitution, avec des caractères à échapper
+            templateCache.render(template, variables(0));
+            Map<String, Object> variables = variables(1);
+            ((Map<String, Object>) variables.get("user")).put("firstName", "Zoé <\"l'admin\"> & co");
+            assertEquals(renderWithThymeleaf(template, variables), templateCache.render(template, variables), template);
+        }
+    }
+
+    @Test
+    void substitutesKnownVariables() {
+        templateCache.render("email-verification", variables(0));
+
+        String html = templateCache.render("email-verification", variables(7));
+
+        assertTrue(html.contains("Bienvenue sur <span>GOT ERP</span>"), html);
+        assertTrue(html.contains("Bonjour <span>Utilisateur7</span>,"), html);
+        assertTrue(html.contains("href=\"http://localhost:8080/verify-email?token=token-7\""), html);
+        assertFalse(html.contains(PrecompiledEmailTemplate.SLOT_MARK), html);
+        assertFalse(html.contains("Utilisateur0"), html);
+    }
+
+    @Test
+    void escapesSubstitutedValues() {
+        Map<String, Object> variables = variables(0);
+        user(variables).put("firstName", "<b>Zoé</b> & \"co\"");
+
+        templateCache.render("email-verification", variables(1));
+        String html = templateCache.render("email-verification", variables);
+
+        assertTrue(html.contains("Bonjour <span>&lt;b&gt;Zoé&lt;/b&gt; &amp; &quot;co&quot;</span>,"), html);
+    }
+
+    /**
+     * Un appel dont les variables n'ont pas la forme du premier ne doit pas réutiliser ses emplacements.
+     */
+    @Test
+    void rendersEachVariableShapeWithItsOwnSlots() {
+        Map<String, Object> withoutUrl = variables(0);
+        withoutUrl.remove("verificationUrl");
+        templateCache.render("email-verification", withoutUrl);
+
+        Map<String, Object> complete = variables(3);
+        String html = templateCache.render("email-verification", complete);
+
+        assertEquals(renderWithThymeleaf("email-verification", complete), html);
+        assertTrue(html.contains("href=\"http://localhost:8080/verify-email?token=token-3\""), html);
+    }
+
+    /**
+     * Une condition portant sur la valeur d'une variable change le HTML hors des emplacements : le template
+     * est rendu par Thymeleaf à chaque appel.
+     */
+    @Test
+    void rendersConditionalTemplateWithThymeleaf() {
+        templateCache.render("conditional-greeting", variables(0));
+
+        Map<String, Object> withoutLastName = variables(1);
+        user(withoutLastName).put("lastName", "");
+        String html = templateCache.render("conditional-greeting", withoutLastName);
+
+        assertEquals(renderWithThymeleaf("conditional-greeting", withoutLastName), html);
+        assertFalse(html.contains("Nom"), html);
+        assertEquals(renderWithThymeleaf("conditional-greeting", variables(2)),
+                templateCache.render("conditional-greeting", variables(2)));
+    }
+
+    /**
+     * Les variables nulles ou booléennes font partie de la forme : chaque valeur a son propre pré-rendu.
+     */
+    @Test
+    void rendersNullAndBooleanVariablesLikeThymeleaf() {
+        Map<String, Object> admin = variables(0);
+        admin.put("admin", true);
+        Map<String, Object> notAdmin = variables(1);
+        notAdmin.put("admin", false);
+        user(notAdmin).put("firstName", null);
+
+        templateCache.render("email-verification", notAdmin);
+        templateCache.render("conditional-greeting", admin);
+        for (String template : List.of("email-verification", "conditional-greeting")) {
+            assertEquals(renderWithThymeleaf(template, admin), templateCache.render(template, admin), template);
+            assertEquals(renderWithThymeleaf(template, notAdmin), templateCache.render(template, notAdmin), template);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> user(Map<String, Object> variables) {
+        return (Map<String, Object>) variables.get("user");
+    }
+
+    private String renderWithThymeleaf(String template, Map<String, Object> variables) {
+        Map<String, Object> withAppName = new HashMap<>(variables);
+        withAppName.put("appName", APP_NAME);
+        Context context = new Context();
+        context.setVariables(withAppName);
+        return templateEngine.process(template, context);
+    }
+
+    private static Map<String, Object> variables(int index) {
+        Map<String, Object> user = new HashMap<>();
+        user.put("username", "user" + index);
+        user.put("firstName", "Utilisateur" + index);
+        user.put("lastName", "Nom" + index);
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("user", user);
+        variables.put("verificationUrl", "http://localhost:8080/verify-email?token=token-" + index);
+        variables.put("resetUrl", "http://localhost:8080/reset-password");
+        variables.put("appName", APP_NAME);
+        return variables;
+    }
+}
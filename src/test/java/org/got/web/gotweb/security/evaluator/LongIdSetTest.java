@@ -0,0 +1,131 @@
+package org.got.web.gotweb.security.evaluator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le choix de représentation et les opérations d'appartenance des deux implémentations.
+ */
+class LongIdSetTest {
+
+    @Test
+    void emptyBuilderReturnsSharedEmptySet() {
+        LongIdSet set = LongIdSet.builder().build();
+
+        assertSame(LongIdSet.EMPTY, set);
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.containsAny(new long[]{1, 2}));
+        assertTrue(set.containsAll(new long[0]));
+    }
+
+    @Test
+    void sortsAndDeduplicates() {
+        LongIdSet set = build(5, 3, 5, 1, 3);
+
+        assertEquals(3, set.size());
+        assertEquals("[1, 3, 5]", set.toString());
+    }
+
+    @Test
+    void smallSetsStaySorted() {
+        long[] values = new long[LongIdSet.BITSET_MIN_SIZE - 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+
+        assertInstanceOf(LongIdSet.Sorted.class, build(values));
+    }
+
+    @Test
+    void denseSetsUseBitset() {
+        long[] values = new long[LongIdSet.BITSET_MIN_SIZE];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + i * 3L;
+        }
+
+        LongIdSet set = build(values);
+
+        assertInstanceOf(LongIdSet.Bits.class, set);
+        assertEquals(values.length, set.size());
+        for (long value : values) {
+            assertTrue(set.contains(value));
+            assertFalse(set.contains(value + 1));
+        }
+        assertFalse(set.contains(999));
+        assertFalse(set.contains(1_000 + 64L * 64));
+        assertFalse(set.contains(Long.MIN_VALUE));
+    }
+
+    @Test
+    void sparseOrNegativeSetsStaySorted() {
+        long[] sparse = new long[LongIdSet.BITSET_MIN_SIZE];
+        long[] negative = new long[LongIdSet.BITSET_MIN_SIZE];
+        for (int i = 0; i < sparse.length; i++) {
+            sparse[i] = i * 1_000L;
+            negative[i] = i - 5L;
+        }
+
+        assertInstanceOf(LongIdSet.Sorted.class, build(sparse));
+        LongIdSet set = build(negative);
+        assertInstanceOf(LongIdSet.Sorted.class, set);
+        assertTrue(set.contains(-5));
+        assertFalse(set.contains(-6));
+    }
+
+    @Test
+    void bitsetHandlesWordBoundaries() {
+        List<Long> values = new ArrayList<>();
+        for (long value = 60; value < 200; value += 4) {
+            values.add(value);
+        }
+        values.add(63L);
+        values.add(64L);
+        values.add(127L);
+        values.add(128L);
+
+        LongIdSet set = build(values.stream().mapToLong(Long::longValue).toArray());
+
+        assertInstanceOf(LongIdSet.Bits.class, set);
+        assertTrue(set.containsAll(new long[]{60, 63, 64, 127, 128, 196}));
+        assertFalse(set.containsAll(new long[]{60, 61}));
+        assertTrue(set.anyMatch(value -> value == 127));
+        assertFalse(set.anyMatch(value -> value == 65));
+    }
+
+    @Test
+    void multiValueChecksAgreeBetweenRepresentations() {
+        long[] values = new long[32];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 2L;
+        }
+        LongIdSet bits = build(values);
+        LongIdSet sorted = build(0, 2, 4, 6, 8, 10, 12, 14, 16, 18, 20, 22, 24, 26, 28, 30, 32, 34, 36, 38, 40, 42, 44, 46, 48, 50, 52, 54, 56, 58, 60, 10_000);
+        assertInstanceOf(LongIdSet.Bits.class, bits);
+        assertInstanceOf(LongIdSet.Sorted.class, sorted);
+
+        for (LongIdSet set : List.of(bits, sorted)) {
+            assertTrue(set.containsAll(new long[]{0, 30, 62 - 2}));
+            assertFalse(set.containsAll(new long[]{0, 31}));
+            assertTrue(set.containsAny(new long[]{-1, 1, 3, 58}));
+            assertFalse(set.containsAny(new long[]{-1, 1, 3, 59}));
+            assertFalse(set.containsAny(new long[0]));
+        }
+    }
+
+    private static LongIdSet build(long... values) {
+        LongIdSet.Builder builder = LongIdSet.builder();
+        for (long value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,118 @@
+package org.got.web.gotweb.security.evaluator.hierarchy;
+
+import org.got.web.gotweb.user.repository.projection.DepartmentParentLink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie les tests d'appartenance à un sous-arbre, avec index direct ou dichotomique, et la tolérance aux données incohérentes.
+ */
+class DepartmentTreeTest {
+
+    @Test
+    void emptyLinksGiveEmptyTree() {
+        DepartmentTree tree = DepartmentTree.build(List.of());
+
+        assertSame(DepartmentTree.EMPTY, tree);
+        assertFalse(tree.isWithin(1, 1));
+        assertFalse(tree.isWithinAny(1, new long[]{1}));
+    }
+
+    /**
+     * 1 ─┬─ 2 ── 4
+     *    └─ 3
+     * 5 (seconde racine)
+     */
+    @Test
+    void resolvesSubtreesAtAnyDepth() {
+        DepartmentTree tree = DepartmentTree.build(List.of(
+                link(4, 2), link(2, 1), link(3, 1), root(1), root(5)));
+
+        assertEquals(5, tree.size());
+        assertTrue(tree.isWithin(4, 4));
+        assertTrue(tree.isWithin(4, 2));
+        assertTrue(tree.isWithin(4, 1));
+        assertTrue(tree.isWithin(3, 1));
+        assertFalse(tree.isWithin(1, 4));
+        assertFalse(tree.isWithin(3, 2));
+        assertFalse(tree.isWithin(4, 5));
+        assertFalse(tree.isWithin(99, 1));
+        assertFalse(tree.isWithin(4, 99));
+        assertTrue(tree.isWithinAny(4, new long[]{5, 2}));
+        assertFalse(tree.isWithinAny(3, new long[]{5, 2}));
+        assertFalse(tree.isWithinAny(3, new long[0]));
+    }
+
+    /**
+     * Identifiants dispersés : recherche dichotomique au lieu de la table d'accès direct.
+     */
+    @Test
+    void sparseIdentifiersGiveSameAnswers() {
+        long top = 1_000_000_000L;
+        long child = 5L;
+        long grandChild = Long.MAX_VALUE - 1;
+        DepartmentTree tree = DepartmentTree.build(List.of(
+                root(top), link(child, top), link(grandChild, child)));
+
+        assertTrue(tree.isWithin(grandChild, top));
+        assertTrue(tree.isWithin(child, top));
+        assertFalse(tree.isWithin(top, child));
+        assertFalse(tree.isWithin(6, top));
+    }
+
+    /**
+     * Chaîne plus longue qu'un mot de 64 bits : les bitsets d'ancêtres s'étendent sur plusieurs mots.
+     */
+    @Test
+    void handlesDeepChainsAcrossWords() {
+        List<DepartmentParentLink> links = new ArrayList<>();
+        links.add(root(1));
+        for (long id = 2; id <= 200; id++) {
+            links.add(link(id, id - 1));
+        }
+
+        DepartmentTree tree = DepartmentTree.build(links);
+
+        assertTrue(tree.isWithin(200, 1));
+        assertTrue(tree.isWithin(200, 64));
+        assertTrue(tree.isWithin(200, 65));
+        assertTrue(tree.isWithin(130, 129));
+        assertFalse(tree.isWithin(129, 130));
+        assertFalse(tree.isWithin(64, 65));
+    }
+
+    @Test
+    void unknownParentAttachesToRoot() {
+        DepartmentTree tree = DepartmentTree.build(List.of(root(1), link(2, 42)));
+
+        assertTrue(tree.isWithin(2, 2));
+        assertFalse(tree.isWithin(2, 1));
+        assertFalse(tree.isWithin(2, 42));
+    }
+
+    @Test
+    void loopInDataDoesNotHang() {
+        DepartmentTree tree = DepartmentTree.build(List.of(link(1, 2), link(2, 1), link(3, 1)));
+
+        assertEquals(3, tree.size());
+        assertTrue(tree.isWithin(1, 1));
+        assertTrue(tree.isWithin(2, 2));
+        assertFalse(tree.isWithin(1, 2) && tree.isWithin(2, 1));
+        assertTrue(tree.isWithin(3, 1));
+    }
+
+    private static DepartmentParentLink root(long departmentId) {
+        return new DepartmentParentLink(departmentId, null);
+    }
+
+    private static DepartmentParentLink link(long departmentId, long parentId) {
+        return new DepartmentParentLink(departmentId, parentId);
+    }
+}
@@ -0,0 +1,113 @@
+package org.got.web.gotweb.security.evaluator.policy;
+
+import org.got.web.gotweb.user.domain.security.AccessCondition;
+import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
+import org.got.web.gotweb.user.domain.security.CriterionType;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+import org.got.web.gotweb.user.domain.security.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie la compilation des conditions : parsing des valeurs, opérateurs par défaut
+ * et refus total dès qu'une condition est vide ou invalide.
+ */
+class AccessPolicyCompilerTest {
+
+    @Test
+    void parsesTrimsAndSortsValues() {
+        CompiledCondition compiled = AccessPolicyCompiler.compile(condition(Operator.ONE_OF, " 30,1 , 7"));
+
+        assertArrayEquals(new long[]{1, 7, 30}, compiled.values());
+        assertEquals(CriterionType.ROLE, compiled.type());
+        assertEquals(Operator.ONE_OF, compiled.operator());
+        assertFalse(compiled.negate());
+    }
+
+    @Test
+    void rejectsConditionWithoutValue() {
+        for (String values : Arrays.asList(null, "", "   ")) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> AccessPolicyCompiler.compile(condition(Operator.ALL_OF, values)));
+        }
+    }
+
+    /**
+     * Une condition vide ne doit jamais ouvrir l'accès, quel que soit son opérateur.
+     */
+    @Test
+    void endpointWithBlankConditionDeniesAll() {
+        for (Operator operator : Operator.values()) {
+            for (String values : Arrays.asList(null, "", " ")) {
+                assertSame(AccessPolicy.DENY_ALL, AccessPolicyCompiler.compile(endpoint(group(condition(operator, values)))));
+            }
+        }
+    }
+
+    @Test
+    void endpointWithMalformedValueDeniesAll() {
+        for (String values : List.of("1,x", "1,,2", " , ", "1.5")) {
+            assertSame(AccessPolicy.DENY_ALL, AccessPolicyCompiler.compile(endpoint(group(condition(Operator.ONE_OF, values)))));
+        }
+    }
+
+    @Test
+    void oneInvalidGroupDeniesWholeEndpoint() {
+        AccessPolicy policy = AccessPolicyCompiler.compile(endpoint(
+                group(condition(Operator.ONE_OF, "1")),
+                group(condition(Operator.NONE_OF, ""))));
+
+        assertSame(AccessPolicy.DENY_ALL, policy);
+    }
+
+    @Test
+    void endpointWithoutGroupDeniesAll() {
+        assertSame(AccessPolicy.DENY_ALL, AccessPolicyCompiler.compile(endpoint()));
+
+        Endpoint withoutGroups = endpoint();
+        withoutGroups.setConditionGroups(null);
+        assertSame(AccessPolicy.DENY_ALL, AccessPolicyCompiler.compile(withoutGroups));
+    }
+
+    @Test
+    void appliesDefaultOperators() {
+        AccessConditionGroup group = group(condition(Operator.ONE_OF, "1"));
+        group.setCombinationOperator(null);
+        Endpoint endpoint = endpoint(group);
+        endpoint.setGlobalCombinationOperator(null);
+
+        AccessPolicy policy = AccessPolicyCompiler.compile(endpoint);
+
+        assertEquals(LogicalOperator.OR, policy.globalCombinationOperator());
+        assertEquals(1, policy.groups().length);
+        assertEquals(LogicalOperator.AND, policy.groups()[0].combinationOperator());
+    }
+
+    private static AccessCondition condition(Operator operator, String values) {
+        return AccessCondition.builder().type(CriterionType.ROLE).operator(operator).values(values).build();
+    }
+
+    private static AccessConditionGroup group(AccessCondition... conditions) {
+        return AccessConditionGroup.builder()
+                .combinationOperator(LogicalOperator.AND)
+                .description("groupe " + Arrays.toString(conditions))
+                .conditions(List.of(conditions))
+                .build();
+    }
+
+    private static Endpoint endpoint(AccessConditionGroup... groups) {
+        Set<AccessConditionGroup> conditionGroups = new LinkedHashSet<>(List.of(groups));
+        return Endpoint.builder().pattern("/api/test").httpMethod("GET").conditionGroups(conditionGroups).build();
+    }
+}
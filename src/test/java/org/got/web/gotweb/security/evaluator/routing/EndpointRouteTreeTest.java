@@ -0,0 +1,79 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Vérifie la sélection de la route la plus spécifique, le repli sur les endpoints sans méthode ({@code *})
+ * et l'absence de route pour une méthode ou un chemin non indexé.
+ */
+class EndpointRouteTreeTest {
+
+    @Test
+    void exactPatternWinsOverWildcards() {
+        EndpointRouteTree tree = EndpointRouteTree.build(List.of(
+                endpoint(1L, "GET", "/api/users/**"),
+                endpoint(2L, "GET", "/api/users/{id}"),
+                endpoint(3L, "GET", "/api/users/me"),
+                endpoint(4L, "GET", "/api/users/{id}/roles")));
+
+        assertEquals(3L, idOf(tree.find("GET", "/api/users/me")));
+        assertEquals(2L, idOf(tree.find("GET", "/api/users/42")));
+        assertEquals(4L, idOf(tree.find("GET", "/api/users/42/roles")));
+        assertEquals(1L, idOf(tree.find("GET", "/api/users/42/roles/7")));
+        assertEquals(1L, idOf(tree.find("GET", "/api/users")));
+    }
+
+    /**
+     * Un endpoint de la méthode demandée l'emporte sur un endpoint sans méthode, même moins spécifique :
+     * ce dernier n'est consulté qu'en l'absence de correspondance pour la méthode.
+     */
+    @Test
+    void fallsBackToAnyMethod() {
+        EndpointRouteTree tree = EndpointRouteTree.build(List.of(
+                endpoint(1L, null, "/api/users/{id}"),
+                endpoint(2L, "GET", "/api/users/**"),
+                endpoint(3L, null, "/api/departments/**")));
+
+        assertEquals(2L, idOf(tree.find("GET", "/api/users/42")));
+        assertEquals(2L, idOf(tree.find("get", "/api/users/42")));
+        assertEquals(1L, idOf(tree.find("DELETE", "/api/users/42")));
+        assertEquals(3L, idOf(tree.find("GET", "/api/departments/1")));
+        assertEquals(3L, idOf(tree.find(null, "/api/departments/1")));
+    }
+
+    @Test
+    void returnsNullWithoutMatchingRoute() {
+        EndpointRouteTree tree = EndpointRouteTree.build(List.of(
+                endpoint(1L, "GET", "/api/users/{id}"),
+                endpoint(2L, "POST", "/api/users")));
+
+        assertNull(tree.find("PUT", "/api/users/42"));
+        assertNull(tree.find("GET", "/api/users"));
+        assertNull(tree.find("GET", "/api/users/42/roles"));
+        assertNull(tree.find("GET", "/api/departments"));
+    }
+
+    @Test
+    void skipsInvalidPatterns() {
+        EndpointRouteTree tree = EndpointRouteTree.build(List.of(
+                endpoint(1L, "GET", "/api/{id"),
+                endpoint(2L, "GET", "/api/users")));
+
+        assertEquals(1, tree.size());
+        assertEquals(2L, idOf(tree.find("GET", "/api/users")));
+    }
+
+    static Endpoint endpoint(Long id, String httpMethod, String pattern) {
+        return Endpoint.builder().id(id).httpMethod(httpMethod).pattern(pattern).build();
+    }
+
+    static Long idOf(EndpointRoute route) {
+        return route != null ? route.endpoint().getId() : null;
+    }
+}
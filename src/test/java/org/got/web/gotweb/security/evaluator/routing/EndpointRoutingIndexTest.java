@@ -0,0 +1,57 @@
+package org.got.web.gotweb.security.evaluator.routing;
+
+import org.got.web.gotweb.user.repository.security.EndpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.got.web.gotweb.security.evaluator.routing.EndpointRouteTreeTest.endpoint;
+import static org.got.web.gotweb.security.evaluator.routing.EndpointRouteTreeTest.idOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie que l'index lit la base une seule fois par construction et ne voit les modifications d'endpoints
+ * qu'après un {@link EndpointsChangedEvent}.
+ */
+class EndpointRoutingIndexTest {
+
+    private EndpointRepository endpointRepository;
+    private EndpointRoutingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        endpointRepository = mock(EndpointRepository.class);
+        index = new EndpointRoutingIndex(endpointRepository);
+    }
+
+    @Test
+    void buildsOnFirstLookupThenServesFromMemory() {
+        when(endpointRepository.findAll()).thenReturn(List.of(endpoint(1L, "GET", "/api/users/{id}")));
+
+        assertEquals(1L, idOf(index.find("GET", "/api/users/1")));
+        assertEquals(1L, idOf(index.find("GET", "/api/users/2")));
+        assertNull(index.find("POST", "/api/users/2"));
+        verify(endpointRepository, times(1)).findAll();
+    }
+
+    @Test
+    void rebuildsAfterEndpointsChanged() {
+        when(endpointRepository.findAll()).thenReturn(
+                List.of(endpoint(1L, "GET", "/api/users/**")),
+                List.of(endpoint(1L, "GET", "/api/users/**"), endpoint(2L, "GET", "/api/users/{id}")));
+        index.onApplicationReady();
+        assertEquals(1L, idOf(index.find("GET", "/api/users/42")));
+
+        index.onEndpointsChanged(new EndpointsChangedEvent("updateEndpoint:2"));
+
+        assertEquals(2L, idOf(index.find("GET", "/api/users/42")));
+        assertEquals(1L, idOf(index.find("GET", "/api/users/42/roles")));
+        verify(endpointRepository, times(2)).findAll();
+    }
+}
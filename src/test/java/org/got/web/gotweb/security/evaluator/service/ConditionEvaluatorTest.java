@@ -0,0 +1,304 @@
+package org.got.web.gotweb.security.evaluator.service;
+
+import org.got.web.gotweb.security.evaluator.LongIdSet;
+import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.got.web.gotweb.security.evaluator.hierarchy.DepartmentHierarchyIndex;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicy;
+import org.got.web.gotweb.security.evaluator.policy.AccessPolicyCompiler;
+import org.got.web.gotweb.security.evaluator.policy.CompiledCondition;
+import org.got.web.gotweb.security.evaluator.policy.CompiledConditionGroup;
+import org.got.web.gotweb.user.domain.security.AccessCondition;
+import org.got.web.gotweb.user.domain.security.AccessConditionGroup;
+import org.got.web.gotweb.user.domain.security.CriterionType;
+import org.got.web.gotweb.user.domain.security.Endpoint;
+import org.got.web.gotweb.user.domain.security.LogicalOperator;
+import org.got.web.gotweb.user.domain.security.Operator;
+import org.got.web.gotweb.user.repository.DepartmentRepository;
+import org.got.web.gotweb.user.repository.projection.DepartmentParentLink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie chaque opérateur sur les critères ensemblistes et sur le critère USER,
+ * avec des valeurs vides, uniques et multiples, ainsi que la combinaison des groupes.
+ * Le critère DEPARTMENT_SUBTREE est vérifié sur les deux représentations des départements de l'utilisateur.
+ */
+class ConditionEvaluatorTest {
+
+    private static final RuleContext NOBODY = context(null);
+    private static final RuleContext USER_5 = context(5L, 1, 2, 3);
+
+    private DepartmentRepository departmentRepository;
+    private ConditionEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository = mock(DepartmentRepository.class);
+        when(departmentRepository.findParentLinks()).thenReturn(List.of());
+        evaluator = new ConditionEvaluator(new DepartmentHierarchyIndex(departmentRepository));
+    }
+
+    @Test
+    void allOfRequiresEveryValue() {
+        assertTrue(evaluate(CriterionType.ROLE, Operator.ALL_OF, USER_5, 2));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.ALL_OF, USER_5, 1, 3));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.ALL_OF, USER_5, 1, 4));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.ALL_OF, NOBODY, 1));
+    }
+
+    @Test
+    void noneOfRejectsAnyValue() {
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NONE_OF, USER_5, 4));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NONE_OF, USER_5, 4, 9));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.NONE_OF, USER_5, 3));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.NONE_OF, USER_5, 4, 3));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NONE_OF, NOBODY, 1));
+    }
+
+    @Test
+    void oneOfRequiresAnyValue() {
+        assertTrue(evaluate(CriterionType.ROLE, Operator.ONE_OF, USER_5, 3));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.ONE_OF, USER_5, 4, 3));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.ONE_OF, USER_5, 4));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.ONE_OF, USER_5, 4, 9));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.ONE_OF, NOBODY, 1));
+    }
+
+    @Test
+    void equalsRequiresSingleMatchingValue() {
+        RuleContext single = context(5L, 7);
+
+        assertTrue(evaluate(CriterionType.ROLE, Operator.EQUALS, single, 7));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.EQUALS, single, 8));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.EQUALS, single, 7, 8));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.EQUALS, USER_5, 1));
+        assertFalse(evaluate(CriterionType.ROLE, Operator.EQUALS, NOBODY, 1));
+    }
+
+    @Test
+    void notEqualsNegatesEquals() {
+        RuleContext single = context(5L, 7);
+
+        assertFalse(evaluate(CriterionType.ROLE, Operator.NOT_EQUALS, single, 7));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NOT_EQUALS, single, 8));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NOT_EQUALS, single, 7, 8));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NOT_EQUALS, USER_5, 1));
+        assertTrue(evaluate(CriterionType.ROLE, Operator.NOT_EQUALS, NOBODY, 1));
+    }
+
+    /**
+     * Chaque critère ensembliste lit son propre ensemble du contexte.
+     */
+    @Test
+    void readsTheSetMatchingTheCriterion() {
+        RuleContext context = new RuleContext(set(1), set(2), set(3), set(4), 5L);
+
+        assertTrue(evaluate(CriterionType.ROLE, Operator.ONE_OF, context, 1));
+        assertTrue(evaluate(CriterionType.PERMISSION, Operator.ONE_OF, context, 2));
+        assertTrue(evaluate(CriterionType.DEPARTMENT, Operator.ONE_OF, context, 3));
+        assertTrue(evaluate(CriterionType.CONTEXT, Operator.ONE_OF, context, 4));
+        assertFalse(evaluate(CriterionType.PERMISSION, Operator.ONE_OF, context, 1));
+    }
+
+    @Test
+    void userCriterionEveryOperator() {
+        assertTrue(evaluate(CriterionType.USER, Operator.ALL_OF, USER_5, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.ALL_OF, USER_5, 5, 6));
+        assertFalse(evaluate(CriterionType.USER, Operator.ALL_OF, USER_5, 6));
+
+        assertTrue(evaluate(CriterionType.USER, Operator.ONE_OF, USER_5, 5));
+        assertTrue(evaluate(CriterionType.USER, Operator.ONE_OF, USER_5, 4, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.ONE_OF, USER_5, 4, 6));
+
+        assertFalse(evaluate(CriterionType.USER, Operator.NONE_OF, USER_5, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.NONE_OF, USER_5, 4, 5));
+        assertTrue(evaluate(CriterionType.USER, Operator.NONE_OF, USER_5, 4, 6));
+
+        assertTrue(evaluate(CriterionType.USER, Operator.EQUALS, USER_5, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.EQUALS, USER_5, 5, 6));
+        assertFalse(evaluate(CriterionType.USER, Operator.EQUALS, USER_5, 6));
+
+        assertFalse(evaluate(CriterionType.USER, Operator.NOT_EQUALS, USER_5, 5));
+        assertTrue(evaluate(CriterionType.USER, Operator.NOT_EQUALS, USER_5, 5, 6));
+        assertTrue(evaluate(CriterionType.USER, Operator.NOT_EQUALS, USER_5, 6));
+    }
+
+    @Test
+    void anonymousUserMatchesNoPositiveOperator() {
+        assertFalse(evaluate(CriterionType.USER, Operator.ALL_OF, NOBODY, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.ONE_OF, NOBODY, 5));
+        assertFalse(evaluate(CriterionType.USER, Operator.EQUALS, NOBODY, 5));
+        assertTrue(evaluate(CriterionType.USER, Operator.NONE_OF, NOBODY, 5));
+        assertTrue(evaluate(CriterionType.USER, Operator.NOT_EQUALS, NOBODY, 5));
+    }
+
+    @Test
+    void negateInvertsResult() {
+        CompiledCondition negated = new CompiledCondition(CriterionType.ROLE, Operator.ONE_OF, new long[]{1}, true);
+
+        assertFalse(evaluator.evaluate(policy(LogicalOperator.OR, group(LogicalOperator.AND, negated)), USER_5));
+        assertTrue(evaluator.evaluate(policy(LogicalOperator.OR, group(LogicalOperator.AND, negated)), NOBODY));
+    }
+
+    /**
+     * Une condition sans valeur, stockée en base avant la validation du DTO, refuse tout accès pour chaque opérateur
+     * et chaque critère, y compris ceux qui seraient trivialement vrais sur un ensemble vide.
+     */
+    @Test
+    void blankValuesDenyEveryone() {
+        for (CriterionType type : CriterionType.values()) {
+            for (Operator operator : Operator.values()) {
+                for (boolean negate : new boolean[]{false, true}) {
+                    AccessCondition condition = AccessCondition.builder()
+                            .type(type).operator(operator).values(" ").negate(negate).build();
+                    AccessConditionGroup group = AccessConditionGroup.builder()
+                            .combinationOperator(LogicalOperator.AND).conditions(List.of(condition)).build();
+                    AccessPolicy policy = AccessPolicyCompiler.compile(Endpoint.builder()
+                            .pattern("/api/test").httpMethod("GET").conditionGroups(Set.of(group)).build());
+
+                    assertFalse(evaluator.evaluate(policy, USER_5), type + " " + operator + " negate=" + negate);
+                    assertFalse(evaluator.evaluate(policy, NOBODY), type + " " + operator + " negate=" + negate);
+                }
+            }
+        }
+    }
+
+    @Test
+    void combinesConditionsAndGroups() {
+        CompiledCondition hasRole1 = condition(CriterionType.ROLE, Operator.ONE_OF, 1);
+        CompiledCondition hasRole4 = condition(CriterionType.ROLE, Operator.ONE_OF, 4);
+
+        assertFalse(evaluator.evaluate(policy(LogicalOperator.OR, group(LogicalOperator.AND, hasRole1, hasRole4)), USER_5));
+        assertTrue(evaluator.evaluate(policy(LogicalOperator.OR, group(LogicalOperator.OR, hasRole1, hasRole4)), USER_5));
+        assertTrue(evaluator.evaluate(policy(LogicalOperator.OR,
+                group(LogicalOperator.AND, hasRole4), group(LogicalOperator.AND, hasRole1)), USER_5));
+        assertFalse(evaluator.evaluate(policy(LogicalOperator.AND,
+                group(LogicalOperator.AND, hasRole4), group(LogicalOperator.AND, hasRole1)), USER_5));
+        assertFalse(evaluator.evaluate(AccessPolicy.DENY_ALL, USER_5));
+        assertFalse(evaluator.evaluate(null, USER_5));
+    }
+
+    /**
+     * 1 ─┬─ 2 ── 4
+     *    └─ 3
+     * 5 (seconde racine)
+     */
+    @Test
+    void subtreeEveryOperator() {
+        departmentLinks();
+
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(4), 1));
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(4), 3, 2));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(4), 3));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(2), 4));
+
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ALL_OF, departments(4, 3), 2, 3));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ALL_OF, departments(4), 2, 3));
+
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NONE_OF, departments(4), 3, 5));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NONE_OF, departments(4), 1));
+
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, departments(4, 3), 1));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, departments(4, 3), 2));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, departments(4), 1, 2));
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NOT_EQUALS, departments(4, 3), 2));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NOT_EQUALS, departments(4, 3), 1));
+    }
+
+    /**
+     * Sans département, seul un opérateur négatif est satisfait ; un département inconnu de l'arbre n'appartient à aucun sous-arbre.
+     */
+    @Test
+    void subtreeWithoutOrUnknownDepartments() {
+        departmentLinks();
+
+        for (RuleContext context : List.of(NOBODY, departments(99))) {
+            assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, context, 1));
+            assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ALL_OF, context, 1));
+            assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, context, 1));
+            assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NONE_OF, context, 1));
+            assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.NOT_EQUALS, context, 1));
+        }
+    }
+
+    /**
+     * Départements 10 à 29 sous la racine 5 : l'ensemble de l'utilisateur est un bitset.
+     */
+    @Test
+    void subtreeOverBitsetDepartments() {
+        departmentLinks();
+        long[] underFive = new long[20];
+        for (int i = 0; i < underFive.length; i++) {
+            underFive[i] = 10 + i;
+        }
+        long[] withFour = Arrays.copyOf(underFive, underFive.length + 1);
+        withFour[underFive.length] = 4;
+        assertInstanceOf(LongIdSet.Bits.class, departments(underFive).departments());
+        assertInstanceOf(LongIdSet.Bits.class, departments(withFour).departments());
+
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, departments(underFive), 5));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(underFive), 1));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.EQUALS, departments(withFour), 5));
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ONE_OF, departments(withFour), 3, 2));
+        assertTrue(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ALL_OF, departments(withFour), 2, 5));
+        assertFalse(evaluate(CriterionType.DEPARTMENT_SUBTREE, Operator.ALL_OF, departments(withFour), 3, 5));
+    }
+
+    private void departmentLinks() {
+        List<DepartmentParentLink> links = new ArrayList<>(List.of(
+                new DepartmentParentLink(1L, null), new DepartmentParentLink(2L, 1L), new DepartmentParentLink(3L, 1L),
+                new DepartmentParentLink(4L, 2L), new DepartmentParentLink(5L, null)));
+        for (long department = 10; department < 30; department++) {
+            links.add(new DepartmentParentLink(department, 5L));
+        }
+        when(departmentRepository.findParentLinks()).thenReturn(links);
+    }
+
+    private boolean evaluate(CriterionType type, Operator operator, RuleContext context, long... values) {
+        return evaluator.evaluate(policy(LogicalOperator.OR, group(LogicalOperator.AND, condition(type, operator, values))), context);
+    }
+
+    /**
+     * Les valeurs compilées sont triées, comme celles produites par {@link AccessPolicyCompiler}.
+     */
+    private static CompiledCondition condition(CriterionType type, Operator operator, long... values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new CompiledCondition(type, operator, sorted, false);
+    }
+
+    private static CompiledConditionGroup group(LogicalOperator operator, CompiledCondition... conditions) {
+        return new CompiledConditionGroup(operator, conditions);
+    }
+
+    private static AccessPolicy policy(LogicalOperator operator, CompiledConditionGroup... groups) {
+        return new AccessPolicy(operator, groups);
+    }
+
+    private static RuleContext context(Long user, long... roles) {
+        return new RuleContext(set(roles), LongIdSet.EMPTY, LongIdSet.EMPTY, LongIdSet.EMPTY, user);
+    }
+
+    private static RuleContext departments(long... departments) {
+        return new RuleContext(LongIdSet.EMPTY, LongIdSet.EMPTY, set(departments), LongIdSet.EMPTY, 5L);
+    }
+
+    private static LongIdSet set(long... values) {
+        LongIdSet.Builder builder = LongIdSet.builder();
+        for (long value : values) {
+            builder.add(value);
+        }
+        return builder.build();
+    }
+}
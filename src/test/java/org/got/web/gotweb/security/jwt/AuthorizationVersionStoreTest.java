@@ -0,0 +1,75 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.UserRoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie que les versions incrémentées par un autre nœud rendent les tokens périmés après synchronisation.
+ */
+class AuthorizationVersionStoreTest {
+
+    private GotUserRepository userRepository;
+    private AuthorizationVersionStore store;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(GotUserRepository.class);
+        when(userRepository.findAuthzVersionsAbove(anyLong())).thenReturn(rows(1L, 2L));
+        when(userRepository.findAuthzVersionsUpdatedSince(any())).thenReturn(List.of());
+        store = new AuthorizationVersionStore(userRepository, mock(UserRoleRepository.class), event -> { },
+                new JwtConfig(new DefaultResourceLoader()));
+        store.load();
+    }
+
+    @Test
+    void synchronizationMakesRemoteBumpsVisible() {
+        assertFalse(store.isStale(1L, 2L));
+        assertFalse(store.isStale(9L, 0L));
+
+        when(userRepository.findAuthzVersionsUpdatedSince(any())).thenReturn(rows(1L, 3L, 9L, 1L));
+        store.synchronize();
+
+        assertTrue(store.isStale(1L, 2L));
+        assertFalse(store.isStale(1L, 3L));
+        assertTrue(store.isStale(9L, 0L));
+        assertEquals(1L, store.current(9L));
+    }
+
+    /**
+     * Une ligne relue lors du chevauchement, ou plus ancienne qu'un incrément local déjà intégré, ne fait pas reculer la version.
+     */
+    @Test
+    void synchronizationNeverLowersVersion() {
+        when(userRepository.findAuthzVersions(any())).thenReturn(rows(1L, 5L));
+        store.onVersionChanged(new AuthorizationVersionChangedEvent(List.of(1L)));
+
+        when(userRepository.findAuthzVersionsUpdatedSince(any())).thenReturn(rows(1L, 4L));
+        store.synchronize();
+
+        assertEquals(5L, store.current(1L));
+        assertTrue(store.isStale(1L, 4L));
+    }
+
+    private static List<Object[]> rows(long... userIdVersionPairs) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < userIdVersionPairs.length; i += 2) {
+            rows.add(new Object[]{userIdVersionPairs[i], userIdVersionPairs[i + 1]});
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,142 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.evaluator.RuleContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie l'aller-retour du claim compact (format texte et RuleContext), le choix de représentation des permissions
+ * et le rejet des claims corrompus.
+ */
+class CompactAccessClaimsTest {
+
+    private static final int DELTAS = 0;
+    private static final int BITMAP = 1;
+
+    @Test
+    void roundTripsRolesAndPermissions() {
+        List<String> roles = List.of("ROLE_3:20:null", "ROLE_1:50:7", "ROLE_1:10:0", "ROLE_3:5:null");
+        List<String> permissions = List.of("PERM_42", "PERM_7", "PERM_42", "PERM_1000000");
+
+        String encoded = CompactAccessClaims.encode(roles, permissions);
+        JwtTokens.UserClaims claims = CompactAccessClaims.toUserClaims(encoded, 9L, "arya", 4L);
+
+        assertEquals(List.of("ROLE_1:10:0", "ROLE_1:50:7", "ROLE_3:5:null", "ROLE_3:20:null"), claims.roles());
+        assertEquals(List.of("PERM_7", "PERM_42", "PERM_1000000"), claims.permissions());
+        assertEquals(9L, claims.userId());
+        assertEquals("arya", claims.username());
+        assertEquals(4L, claims.authzVersion());
+        assertEquals(encoded, CompactAccessClaims.encode(claims.roles(), claims.permissions()));
+    }
+
+    @Test
+    void decodesIntoRuleContext() {
+        String encoded = CompactAccessClaims.encode(
+                List.of("ROLE_3:20:null", "ROLE_1:50:7", "ROLE_1:10:0"),
+                List.of("PERM_7", "PERM_42"));
+
+        RuleContext context = CompactAccessClaims.toRuleContext(encoded, 9L);
+
+        assertEquals("[1, 3]", context.roles().toString());
+        assertEquals("[10, 20, 50]", context.departments().toString());
+        assertEquals("[0, 7]", context.contexts().toString());
+        assertEquals("[7, 42]", context.permissions().toString());
+        assertEquals(9L, context.user());
+    }
+
+    @Test
+    void encodesEmptyClaims() {
+        String encoded = CompactAccessClaims.encode(List.of(), List.of());
+
+        assertEquals(DELTAS, bytes(encoded)[2]);
+        JwtTokens.UserClaims claims = CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null);
+        assertEquals(List.of(), claims.roles());
+        assertEquals(List.of(), claims.permissions());
+        assertTrue(CompactAccessClaims.toRuleContext(encoded, 1L).permissions().isEmpty());
+    }
+
+    @Test
+    void handlesLargeIdentifiersAndDecreasingDepartments() {
+        long big = 1L << 40;
+        List<String> roles = List.of("ROLE_1:" + big + ":" + (big + 1), "ROLE_2:1:null", "ROLE_3:" + big + ":0");
+
+        String encoded = CompactAccessClaims.encode(roles, List.of("PERM_" + big));
+
+        assertEquals(roles, CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null).roles());
+        assertEquals(List.of("PERM_" + big), CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null).permissions());
+    }
+
+    @Test
+    void sparsePermissionsUseDeltas() {
+        List<String> permissions = List.of("PERM_1", "PERM_5000", "PERM_90000");
+
+        String encoded = CompactAccessClaims.encode(List.of(), permissions);
+
+        assertEquals(DELTAS, bytes(encoded)[2]);
+        assertEquals(permissions, CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null).permissions());
+    }
+
+    /**
+     * Permissions denses sur plusieurs octets de bitmap, premier et dernier bit de chaque octet compris.
+     */
+    @Test
+    void densePermissionsUseBitmap() {
+        List<String> permissions = new ArrayList<>();
+        LongStream.rangeClosed(100, 300).filter(id -> id % 3 != 0 || id % 8 == 0 || id % 8 == 7)
+                .forEach(id -> permissions.add("PERM_" + id));
+
+        String encoded = CompactAccessClaims.encode(List.of(), permissions);
+
+        assertEquals(BITMAP, bytes(encoded)[2]);
+        assertEquals(permissions, CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null).permissions());
+        assertEquals(permissions.size(), CompactAccessClaims.toRuleContext(encoded, 1L).permissions().size());
+    }
+
+    @Test
+    void acceptsIdentifiersWithoutPrefix() {
+        String encoded = CompactAccessClaims.encode(List.of("1:2:3"), List.of("4"));
+
+        JwtTokens.UserClaims claims = CompactAccessClaims.toUserClaims(encoded, 1L, "jon", null);
+
+        assertEquals(List.of("ROLE_1:2:3"), claims.roles());
+        assertEquals(List.of("PERM_4"), claims.permissions());
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> CompactAccessClaims.encode(List.of("ROLE_1:2"), List.of()));
+        assertThrows(NumberFormatException.class, () -> CompactAccessClaims.encode(List.of(), List.of("PERM_x")));
+    }
+
+    @Test
+    void rejectsCorruptedClaims() {
+        String encoded = CompactAccessClaims.encode(List.of("ROLE_1:2:3", "ROLE_4:5:6"), List.of("PERM_7"));
+        byte[] bytes = bytes(encoded);
+
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 2;
+        byte[] hugeCount = bytes.clone();
+        hugeCount[1] = 0x7F;
+        byte[] unknownKind = bytes.clone();
+        unknownKind[bytes.length - 3] = 9;
+
+        for (byte[] corrupted : List.of(otherVersion, hugeCount, unknownKind, Arrays.copyOf(bytes, bytes.length - 1))) {
+            String claim = Base64.getUrlEncoder().withoutPadding().encodeToString(corrupted);
+            assertThrows(IllegalArgumentException.class, () -> CompactAccessClaims.toRuleContext(claim, 1L));
+            assertThrows(IllegalArgumentException.class, () -> CompactAccessClaims.toUserClaims(claim, 1L, "jon", null));
+        }
+    }
+
+    private static byte[] bytes(String encoded) {
+        return Base64.getUrlDecoder().decode(encoded);
+    }
+}
@@ -0,0 +1,122 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.got.web.gotweb.config.CacheConfig.CACHE_REVOKED_TOKENS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le cache négatif des faux positifs du filtre de Bloom et son invalidation.
+ * Le filtre est volontairement saturé pour que tout jti soit un faux positif.
+ */
+class RevokedTokenRegistryTest {
+
+    private InMemoryStore store;
+    private RevokedTokenRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig(new DefaultResourceLoader());
+        jwtConfig.setExpiration(3_600_000L);
+        JwtConfig.RevokedTokensProperties properties = new JwtConfig.RevokedTokensProperties();
+        properties.setExpectedInsertions(1);
+        properties.setFalsePositiveRate(0.5);
+        properties.setFalsePositiveCacheSize(2);
+        jwtConfig.setRevokedTokens(properties);
+
+        store = new InMemoryStore();
+        registry = new RevokedTokenRegistry(store, jwtConfig, new ConcurrentMapCacheManager(CACHE_REVOKED_TOKENS));
+        for (int i = 0; i < 500; i++) {
+            registry.revoke("revoked-" + i, Instant.now().plusSeconds(3_600));
+        }
+    }
+
+    @Test
+    void confirmedFalsePositiveIsQueriedOnce() {
+        assertFalse(registry.isRevoked("valid"));
+        assertFalse(registry.isRevoked("valid"));
+        assertFalse(registry.isRevoked("valid"));
+
+        assertEquals(1, store.finds.get());
+    }
+
+    @Test
+    void revocationInvalidatesNegativeEntry() {
+        assertFalse(registry.isRevoked("valid"));
+
+        registry.revoke("valid", Instant.now().plusSeconds(3_600));
+
+        assertTrue(registry.isRevoked("valid"));
+    }
+
+    @Test
+    void negativeCacheIsBounded() {
+        for (int i = 0; i < 1_000; i++) {
+            registry.isRevoked("valid-" + i);
+        }
+        int findsAfterFirstPass = store.finds.get();
+
+        for (int i = 0; i < 1_000; i++) {
+            registry.isRevoked("valid-" + i);
+        }
+
+        assertEquals(1_000, findsAfterFirstPass);
+        assertTrue(store.finds.get() > findsAfterFirstPass, "Le cache négatif doit évincer au-delà de sa taille");
+    }
+
+    @Test
+    void storeFailurePropagates() {
+        store.failing = true;
+
+        assertThrows(IllegalStateException.class, () -> registry.isRevoked("valid"));
+    }
+
+    private static final class InMemoryStore implements RevokedTokenStore {
+        private final Map<String, JwtTokens.RevokedToken> tokens = new ConcurrentHashMap<>();
+        private final AtomicInteger finds = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public void save(JwtTokens.RevokedToken revokedToken) {
+            tokens.put(revokedToken.jti(), revokedToken);
+        }
+
+        @Override
+        public Optional<JwtTokens.RevokedToken> find(String jti) {
+            if (failing) {
+                throw new IllegalStateException("Base indisponible");
+            }
+            finds.incrementAndGet();
+            return Optional.ofNullable(tokens.get(jti));
+        }
+
+        @Override
+        public List<JwtTokens.RevokedToken> findActive(Instant now) {
+            return tokens.values().stream().filter(token -> token.expiresAt().isAfter(now)).toList();
+        }
+
+        @Override
+        public List<JwtTokens.RevokedToken> findRevokedSince(Instant since, Instant now) {
+            return findActive(now);
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            return 0;
+        }
+    }
+}
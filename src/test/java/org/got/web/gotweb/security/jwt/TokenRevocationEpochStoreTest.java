@@ -0,0 +1,95 @@
+package org.got.web.gotweb.security.jwt;
+
+import org.got.web.gotweb.security.config.JwtConfig;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie l'arrondi de l'époque à la seconde suivante et l'intégration des époques posées par les autres nœuds.
+ */
+class TokenRevocationEpochStoreTest {
+
+    private final List<TokensRevokedEvent> events = new ArrayList<>();
+    private GotUserRepository userRepository;
+    private TokenRevocationEpochStore store;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(GotUserRepository.class);
+        when(userRepository.findTokensNotBeforeSince(any())).thenReturn(List.of());
+        JwtConfig jwtConfig = new JwtConfig(new DefaultResourceLoader());
+        store = new TokenRevocationEpochStore(userRepository, jwtConfig, event -> events.add((TokensRevokedEvent) event));
+        store.load();
+    }
+
+    /**
+     * Un token émis dans la seconde de la révocation, avant comme après elle, est révoqué.
+     */
+    @Test
+    void revokesTokensIssuedDuringTheRevocationSecond() {
+        Instant before = Instant.now();
+
+        store.revokeAll(7L);
+        store.onTokensRevoked(events.get(0));
+
+        Instant notBefore = Instant.ofEpochSecond(events.get(0).notBeforeEpochSecond());
+        Instant second = notBefore.minusSeconds(1);
+        assertTrue(notBefore.isAfter(before));
+        verify(userRepository).updateTokensNotBefore(7L, LocalDateTime.ofInstant(notBefore, ZoneId.systemDefault()));
+        assertTrue(store.isRevoked(7L, second.minusSeconds(1)));
+        assertTrue(store.isRevoked(7L, second.plusMillis(999)));
+        assertFalse(store.isRevoked(7L, notBefore));
+        assertFalse(store.isRevoked(8L, second));
+    }
+
+    @Test
+    void synchronizationIntegratesRemoteEpochs() {
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        assertFalse(store.isRevoked(3L, notBefore.minusSeconds(1)));
+
+        when(userRepository.findTokensNotBeforeSince(any())).thenReturn(rows(3L, notBefore));
+        store.synchronize();
+
+        assertTrue(store.isRevoked(3L, notBefore.minusSeconds(1)));
+        assertFalse(store.isRevoked(3L, notBefore));
+    }
+
+    /**
+     * Une ligne relue lors du chevauchement ne fait jamais reculer une époque plus récente.
+     */
+    @Test
+    void synchronizationKeepsLatestEpoch() {
+        Instant latest = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        store.onTokensRevoked(new TokensRevokedEvent(3L, latest.getEpochSecond()));
+
+        when(userRepository.findTokensNotBeforeSince(any())).thenReturn(rows(3L, latest.minusSeconds(60)));
+        store.synchronize();
+
+        assertTrue(store.isRevoked(3L, latest.minusSeconds(1)));
+        verify(userRepository, never()).updateTokensNotBefore(anyLong(), any());
+    }
+
+    private static List<Object[]> rows(Long userId, Instant notBefore) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{userId, LocalDateTime.ofInstant(notBefore, ZoneId.systemDefault())});
+        return rows;
+    }
+}
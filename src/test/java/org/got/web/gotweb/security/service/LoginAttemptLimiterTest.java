@@ -0,0 +1,99 @@
+package org.got.web.gotweb.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.got.web.gotweb.exception.AuthenticationException;
+import org.got.web.gotweb.security.config.LoginThrottlingConfig;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Vérifie que seuls les échecs d'identifiants sont comptés, que le contrôle préalable ne compte rien
+ * et que le délai de nouvelle tentative suit l'état du compteur.
+ */
+class LoginAttemptLimiterTest {
+
+    private static final String IP = "203.0.113.7";
+
+    private LoginThrottlingConfig config;
+    private LoginLockoutWriter lockoutWriter;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoginThrottlingConfig();
+        config.setMaxAttemptsPerUsername(3);
+        config.setMaxAttemptsPerIp(5);
+        lockoutWriter = new LoginLockoutWriter(mock(GotUserRepository.class));
+        limiter = new LoginAttemptLimiter(config, lockoutWriter, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Un client anonyme qui ne soumet aucun mot de passe erroné ne peut ni bloquer ni verrouiller le compte.
+     */
+    @Test
+    void acquireDoesNotCount() {
+        for (int i = 0; i < 100; i++) {
+            assertDoesNotThrow(() -> limiter.acquire("arya", IP));
+        }
+
+        assertEquals(0, lockoutWriter.pendingCount());
+    }
+
+    @Test
+    void rejectsAndLocksAfterFailures() {
+        limiter.onFailure("arya", IP);
+        limiter.onFailure("Arya", IP);
+        assertDoesNotThrow(() -> limiter.acquire("arya", IP));
+        assertEquals(0, lockoutWriter.pendingCount());
+
+        limiter.onFailure("arya", IP);
+
+        assertEquals(1, lockoutWriter.pendingCount());
+        AuthenticationException.TooManyAttemptsException rejected = assertThrows(
+                AuthenticationException.TooManyAttemptsException.class, () -> limiter.acquire("ARYA", "198.51.100.1"));
+        assertTrue(rejected.getRetryAfterSeconds() > 0);
+        assertTrue(rejected.getRetryAfterSeconds() <= 2 * config.getWindow() / 1000);
+        assertDoesNotThrow(() -> limiter.acquire("jon", "198.51.100.1"));
+    }
+
+    @Test
+    void successResetsUsernameFailures() {
+        for (int i = 0; i < 3; i++) {
+            limiter.onFailure("arya", IP);
+        }
+
+        limiter.onSuccess("arya", true);
+
+        assertDoesNotThrow(() -> limiter.acquire("arya", "198.51.100.1"));
+    }
+
+    @Test
+    void rejectsIpAfterFailuresOnAnyUsername() {
+        for (int i = 0; i < 5; i++) {
+            limiter.onFailure("user" + i, IP);
+        }
+
+        AuthenticationException.TooManyAttemptsException rejected = assertThrows(
+                AuthenticationException.TooManyAttemptsException.class, () -> limiter.acquire("sansa", IP));
+        assertTrue(rejected.getRetryAfterSeconds() > 0);
+        assertDoesNotThrow(() -> limiter.acquire("sansa", "198.51.100.1"));
+    }
+
+    @Test
+    void disabledLimiterNeverRejects() {
+        config.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            limiter.onFailure("arya", IP);
+        }
+
+        assertDoesNotThrow(() -> limiter.acquire("arya", IP));
+        assertEquals(0, lockoutWriter.pendingCount());
+    }
+}
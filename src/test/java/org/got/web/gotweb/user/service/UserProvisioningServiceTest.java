@@ -0,0 +1,152 @@
+package org.got.web.gotweb.user.service;
+
+import jakarta.validation.Validation;
+import org.got.web.gotweb.mail.service.EmailService;
+import org.got.web.gotweb.security.service.CryptoService;
+import org.got.web.gotweb.security.service.PasswordHashingPool;
+import org.got.web.gotweb.user.domain.GotUser;
+import org.got.web.gotweb.user.dto.user.request.UserBulkCreateDTO;
+import org.got.web.gotweb.user.dto.user.request.UserCreateDTO;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO;
+import org.got.web.gotweb.user.dto.user.response.UserBulkCreateResponseDTO.Status;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie le statut de chaque ligne d'une création en masse : lignes invalides, doublons internes à la requête,
+ * utilisateurs déjà existants, et utilisateurs créés par une requête concurrente entre le contrôle et l'insertion.
+ */
+class UserProvisioningServiceTest {
+
+    private static final int COLUMNS = 10;
+
+    private GotUserRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private EmailService emailService;
+    private UserProvisioningService service;
+
+    /**
+     * Noms d'utilisateur insérés par une autre requête après le contrôle : l'insertion ne les retourne pas.
+     */
+    private final Set<String> raced = Set.of("rickon", "hodor");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(GotUserRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        emailService = mock(EmailService.class);
+        PasswordHashingPool hashingPool = mock(PasswordHashingPool.class);
+        CryptoService cryptoService = mock(CryptoService.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+        when(hashingPool.hashAll(anyList())).thenAnswer(invocation ->
+                invocation.<List<String>>getArgument(0).stream().map(password -> "hash:" + password).toList());
+        when(cryptoService.generateRandomVerificationToken()).thenReturn("token");
+        when(repository.reserveIds(anyInt())).thenAnswer(invocation ->
+                LongStream.range(100, 100 + invocation.<Integer>getArgument(0)).boxed().toList());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] params = (Object[]) invocation.getRawArguments()[2];
+            List<Long> inserted = new ArrayList<>();
+            for (int row = 0; row < params.length; row += COLUMNS) {
+                if (!raced.contains((String) params[row + 1])) {
+                    inserted.add((Long) params[row]);
+                }
+            }
+            return inserted;
+        });
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new UserProvisioningService(repository, jdbcTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                hashingPool, cryptoService, emailService, transactionTemplate);
+    }
+
+    @Test
+    void assignsStatusToEachRow() {
+        when(repository.findConflictingUsernamesAndEmails(anyCollection(), anyCollection())).thenReturn(
+                List.of(new Object[]{"sansa", "sansa@got.fr"}, new Object[]{"autre", "pris@got.fr"}),
+                List.of(new Object[]{"rickon", "rickon.stark@got.fr"}, new Object[]{"autre2", "hodor@got.fr"}));
+
+        UserBulkCreateResponseDTO response = service.createUsers(new UserBulkCreateDTO(Arrays.asList(
+                user("arya", "arya@got.fr"),
+                user("jon", "pas-un-email"),
+                user("Arya", "arya2@got.fr"),
+                user("robb", "ARYA@got.fr"),
+                user("Sansa", "sansa2@got.fr"),
+                user("bran", "pris@got.fr"),
+                user("rickon", "rickon@got.fr"),
+                null,
+                user("hodor", "hodor@got.fr"))));
+
+        List<Status> statuses = response.rows().stream().map(UserBulkCreateResponseDTO.Row::status).toList();
+        assertEquals(List.of(
+                Status.CREATED,
+                Status.INVALID,
+                Status.DUPLICATE_USERNAME,
+                Status.DUPLICATE_EMAIL,
+                Status.DUPLICATE_USERNAME,
+                Status.DUPLICATE_EMAIL,
+                Status.DUPLICATE_USERNAME,
+                Status.INVALID,
+                Status.DUPLICATE_EMAIL), statuses);
+        assertEquals(1, response.created());
+        assertEquals(8, response.rejected());
+        assertEquals(100L, response.rows().getFirst().id());
+        assertNull(response.rows().get(6).id());
+        verify(emailService, times(1)).sendVerificationEmail(any(GotUser.class), eq("token"));
+    }
+
+    /**
+     * Une ligne refusée par l'insertion sans conflit visible reste rejetée, sans être comptée comme créée.
+     */
+    @Test
+    void rejectsRowsNotReturnedByInsert() {
+        when(repository.findConflictingUsernamesAndEmails(anyCollection(), anyCollection())).thenReturn(List.of());
+
+        UserBulkCreateResponseDTO response = service.createUsers(new UserBulkCreateDTO(List.of(
+                user("hodor", "hodor@got.fr"), user("meera", "meera@got.fr"))));
+
+        assertEquals(Status.DUPLICATE_USERNAME, response.rows().get(0).status());
+        assertEquals(Status.CREATED, response.rows().get(1).status());
+        assertEquals(101L, response.rows().get(1).id());
+        verify(emailService, times(1)).sendVerificationEmail(any(GotUser.class), eq("token"));
+    }
+
+    private static UserCreateDTO user(String username, String email) {
+        return UserCreateDTO.builder()
+                .username(username)
+                .password("motdepasse")
+                .email(email)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package org.got.web.gotweb.user.service;
+
+import org.got.web.gotweb.exception.UserException;
+import org.got.web.gotweb.user.config.UserSearchConfig;
+import org.got.web.gotweb.user.dto.user.response.UserSearchHitDTO;
+import org.got.web.gotweb.user.repository.GotUserRepository;
+import org.got.web.gotweb.user.repository.projection.UserSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie la longueur minimale du terme, l'échappement des motifs, la borne des candidats
+ * et le recours à la recherche approchée uniquement en l'absence de correspondance directe.
+ */
+class UserSearchServiceTest {
+
+    private GotUserRepository repository;
+    private UserSearchConfig config;
+    private UserSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(GotUserRepository.class);
+        config = new UserSearchConfig();
+        service = new UserSearchService(repository, config);
+    }
+
+    @Test
+    void rejectsTermsWithoutTrigram() {
+        assertThrows(UserException.class, () -> service.search(" ab ", null));
+        assertThrows(UserException.class, () -> service.search(null, null));
+        verify(repository, never()).searchByText(anyString(), anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void directMatchesSkipSimilaritySearch() {
+        List<UserSearchHit> direct = List.of(hit(7L));
+        when(repository.searchByText("j_d%", "%j\\_d\\%%", "j\\_d\\%%", 200, 10)).thenReturn(direct);
+
+        List<UserSearchHitDTO> hits = service.search(" J_D% ", 10);
+
+        assertEquals(1, hits.size());
+        assertEquals(7L, hits.getFirst().id());
+        verify(repository).forceCustomPlans();
+        verify(repository, never()).searchBySimilarity(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void fallsBackToSimilarityWithoutDirectMatch() {
+        config.setMaxCandidates(20);
+        when(repository.searchByText("dupnt", "%dupnt%", "dupnt%", 50, 50)).thenReturn(List.of());
+        List<UserSearchHit> similar = List.of(hit(3L));
+        when(repository.searchBySimilarity("dupnt", 50, 50)).thenReturn(similar);
+
+        List<UserSearchHitDTO> hits = service.search("dupnt", 500);
+
+        assertEquals(3L, hits.getFirst().id());
+        verify(repository).setWordSimilarityThreshold("0.5");
+    }
+
+    private static UserSearchHit hit(long id) {
+        UserSearchHit hit = mock(UserSearchHit.class);
+        when(hit.getId()).thenReturn(id);
+        return hit;
+    }
+}
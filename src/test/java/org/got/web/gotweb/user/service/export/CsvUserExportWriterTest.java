@@ -0,0 +1,46 @@
+package org.got.web.gotweb.user.service.export;
+
+import org.got.web.gotweb.user.repository.projection.UserExportRow;
+import org.got.web.gotweb.user.repository.projection.UserRoleExportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie l'échappement RFC 4180 et la neutralisation des cellules interprétables comme une formule par un tableur.
+ */
+class CsvUserExportWriterTest {
+
+    @Test
+    void prefixesFormulaTriggers() throws IOException {
+        assertEquals("1,arya,'=SUM(A1),'+33,'-1,true,false,,,\r\n", write(user("=SUM(A1)", "+33", "-1"), List.of()));
+        assertEquals("1,arya,'@cmd,'\tHYPERLINK(),\"'\r=1+1\",true,false,,,\r\n",
+                write(user("@cmd", "\tHYPERLINK()", "\r=1+1"), List.of()));
+    }
+
+    @Test
+    void quotesSeparatorsAndJoinsRoles() throws IOException {
+        String csv = write(user("arya@got.fr", "Arya, \"No One\"", "Stark"), List.of(
+                new UserRoleExportRow(1L, "ADMIN", "Winterfell", null, null, null),
+                new UserRoleExportRow(1L, "USER", "Braavos", "guilde", null, null)));
+
+        assertEquals("1,arya,arya@got.fr,\"Arya, \"\"No One\"\"\",Stark,true,false,,,ADMIN@Winterfell|USER@Braavos/guilde\r\n", csv);
+    }
+
+    private static String write(UserExportRow user, List<UserRoleExportRow> roles) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvUserExportWriter writer = new CsvUserExportWriter(out);
+        writer.write(user, roles);
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static UserExportRow user(String email, String firstName, String lastName) {
+        return new UserExportRow(1L, "arya", email, firstName, lastName, true, false, null, null);
+    }
+}